@@ -0,0 +1,198 @@
+package benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Benchmark class is a small benchmark harness (like JMH, without the dependency): it runs an operation for a
+ * warmup time, then measures how many times it runs in the measurement time, and how many bytes the measuring
+ * thread allocates per run.<br/>
+ * The warmup and measurement times (in milliseconds) can be changed by the system properties
+ * benchmark.warmup and benchmark.measure
+ *
+ * @author Moriah and Shahar
+ */
+
+public final class Benchmark {
+    /**
+     * An operation to measure. It returns its result, so the result is used and the JIT can't remove the operation
+     */
+    public interface Operation {
+        /**
+         * Runs the operation once
+         *
+         * @return the result of the operation (any object, or null)
+         */
+        Object run();
+    }
+
+    /**
+     * The result of measuring an operation
+     */
+    public static class Result {
+        /**
+         * The name of the operation
+         */
+        public final String name;
+        /**
+         * How many times the operation ran in the measurement
+         */
+        public final long ops;
+        /**
+         * The measurement time in nanoseconds
+         */
+        public final long nanos;
+        /**
+         * The bytes allocated by the measuring thread in the measurement (-1 if not supported)
+         */
+        public final long bytes;
+
+        /**
+         * Result constructor
+         *
+         * @param name the name of the operation
+         * @param ops how many times the operation ran
+         * @param nanos the measurement time in nanoseconds
+         * @param bytes the bytes allocated in the measurement (-1 if not supported)
+         */
+        Result(String name, long ops, long nanos, long bytes) {
+            this.name = name;
+            this.ops = ops;
+            this.nanos = nanos;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Calculates the throughput
+         *
+         * @return operations per second
+         */
+        public double opsPerSecond() {
+            return ops * 1e9 / nanos;
+        }
+
+        /**
+         * Calculates the allocation per operation
+         *
+         * @return bytes allocated per operation (-1 if not supported)
+         */
+        public double bytesPerOp() {
+            return bytes < 0 ? -1 : (double) bytes / ops;
+        }
+
+        /**
+         * Calculates the allocation rate
+         *
+         * @return megabytes allocated per second (-1 if not supported)
+         */
+        public double allocationRate() {
+            return bytes < 0 ? -1 : bytes * 1e9 / nanos / (1024 * 1024);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-45s %14.1f ops/s %12.1f B/op %10.1f MB/s",
+                    name, opsPerSecond(), bytesPerOp(), allocationRate());
+        }
+    }
+
+    /**
+     * Warmup time in milliseconds
+     */
+    private static final long WARMUP = Long.getLong("benchmark.warmup", 1000);
+    /**
+     * Measurement time in milliseconds
+     */
+    private static final long MEASURE = Long.getLong("benchmark.measure", 2000);
+    /**
+     * The biggest number of runs between time checks, and the time that a batch of runs doesn't grow after it
+     */
+    private static final int BATCH = 1024;
+    private static final long BATCH_NANOS = 100_000;
+    /**
+     * The thread measure bean, for the allocated bytes (null if not supported)
+     */
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+    /**
+     * The results of the operations are put here, so the JIT can't remove the operations
+     */
+    private static volatile Object _sink;
+
+    /**
+     * Private constructor - only static functions
+     */
+    private Benchmark() {}
+
+    /**
+     * Warms up and measures an operation, and prints the result
+     *
+     * @param name the name of the operation
+     * @param operation the operation to measure
+     * @return the result of the measurement
+     */
+    public static Result measure(String name, Operation operation) {
+        return measure(name, operation, true);
+    }
+
+    /**
+     * Warms up and measures an operation, and prints the result
+     *
+     * @param name the name of the operation
+     * @param operation the operation to measure
+     * @param countAllocations false if the operation allocates in other threads (that the measuring thread can't
+     *                         see), so the allocation is reported as not supported (-1)
+     * @return the result of the measurement
+     */
+    public static Result measure(String name, Operation operation, boolean countAllocations) {
+        run(operation, WARMUP);
+        Result result = run(operation, MEASURE);
+        Result named = new Result(name, result.ops, result.nanos, countAllocations ? result.bytes : -1);
+        System.out.println(named);
+        return named;
+    }
+
+    /**
+     * Runs an operation again and again for a given time
+     *
+     * @param operation the operation to run
+     * @param millis the time to run in milliseconds
+     * @return the result of the run
+     */
+    private static Result run(Operation operation, long millis) {
+        long id = Thread.currentThread().getId();
+        long startBytes = THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(id);
+        long start = System.nanoTime();
+        long end = start + millis * 1_000_000;
+        long ops = 0, now = start;
+        // the time is checked after a batch of runs, so the check doesn't take a part of the measurement.
+        // the batch grows (up to BATCH runs) as long as it takes less than BATCH_NANOS, so slow operations are
+        // checked after every run
+        int batch = 1;
+        do {
+            long batchStart = now;
+            for (int k = 0; k < batch; ++k)
+                _sink = operation.run();
+            ops += batch;
+            now = System.nanoTime();
+            if (batch < BATCH && now - batchStart < BATCH_NANOS)
+                batch *= 2;
+        } while (now < end);
+        long bytes = THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(id) - startBytes;
+        return new Result("", ops, now - start, bytes);
+    }
+
+    /**
+     * Gets the thread measure bean if allocated bytes measuring is supported
+     *
+     * @return the thread measure bean, or null if not supported
+     */
+    private static com.sun.management.ThreadMXBean threads() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean))
+            return null;
+        com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+        if (!sunThreads.isThreadAllocatedMemorySupported())
+            return null;
+        sunThreads.setThreadAllocatedMemoryEnabled(true);
+        return sunThreads;
+    }
+}
@@ -0,0 +1,182 @@
+package benchmarks;
+
+import elements.*;
+import geometries.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+import java.util.Random;
+
+/**
+ * Micro benchmarks of the ray tracing kernels - the intersections of each geometry, the BVH box test, the
+ * intersections of a bundle of geometries with BVH on and off, and rendering small reference scenes.<br/>
+ * Run as a program: java benchmarks.KernelBenchmarks [name filter]
+ * (only the benchmarks whose names contain the filter are run)
+ *
+ * @author Moriah and Shahar
+ */
+
+public class KernelBenchmarks {
+    /**
+     * Number of rays to go over in the intersection benchmarks (one ray per run)
+     */
+    private static final int RAYS = 1024;
+    /**
+     * Numbers of geometries in the bundle benchmarks
+     */
+    private static final int[] SCENE_SIZES = { 100, 1000, 10000 };
+
+    /**
+     * The benchmarks name filter
+     */
+    private static String _filter = "";
+
+    /**
+     * Runs the benchmarks
+     *
+     * @param args optional name filter - only the benchmarks whose names contain it are run
+     */
+    public static void main(String[] args) {
+        if (args.length > 0)
+            _filter = args[0];
+        Ray[] rays = rays(new Random(1), RAYS);
+
+        Sphere sphere = new Sphere(50, new Point3D(0, 0, 100));
+        Plane plane = new Plane(new Point3D(0, 0, 100), new Vector(0, 1, 1));
+        Polygon polygon = new Polygon(new Point3D(-60, -60, 100), new Point3D(60, -60, 100),
+                new Point3D(80, 20, 100), new Point3D(0, 70, 100), new Point3D(-80, 20, 100));
+        Triangle triangle = new Triangle(new Point3D(-60, -60, 100), new Point3D(60, -60, 100), new Point3D(0, 70, 100));
+        Tube tube = new Tube(30, new Ray(new Point3D(0, -100, 100), new Vector(0, 1, 0.2)));
+        BVHBox box = new BVHBox(new Point3D(-50, -50, 50), new Point3D(50, 50, 150));
+
+        run("Sphere.findIntersectionsTemp", rays, sphere::findIntersectionsTemp);
+        run("Plane.findIntersectionsTemp", rays, plane::findIntersectionsTemp);
+        run("Polygon.findIntersectionsTemp", rays, polygon::findIntersectionsTemp);
+        run("Triangle.findIntersectionsTemp", rays, triangle::findIntersectionsTemp);
+        run("Tube.findIntersectionsTemp", rays, tube::findIntersectionsTemp);
+        run("BVHBox.anyIntersections", rays, box::anyIntersections);
+
+        for (int size : SCENE_SIZES) {
+            Geometries geometries = spheres(new Random(size), size);
+            geometries.set_improvementBVH(false);
+            run("Geometries.findIntersections BVH off " + size, rays, geometries::findIntersections);
+            run("Geometries.findClosestIntersection BVH off " + size, rays,
+                    ray -> geometries.findClosestIntersection(ray, Double.POSITIVE_INFINITY));
+            geometries.set_improvementBVH(true);
+            run("Geometries.findIntersections BVH on " + size, rays, geometries::findIntersections);
+            run("Geometries.findClosestIntersection BVH on " + size, rays,
+                    ray -> geometries.findClosestIntersection(ray, Double.POSITIVE_INFINITY));
+        }
+
+        render("Render.renderImage spheres 100x100", spheresScene(), false);
+        render("Render.renderImage spheres BVH 100x100", spheresScene(), true);
+        render("Render.renderImage reflections 100x100", reflectionsScene(), false);
+    }
+
+    /**
+     * Measures a ray operation - each run takes the next ray from the rays array
+     *
+     * @param name the benchmark name
+     * @param rays the rays to go over
+     * @param operation the operation on a ray
+     */
+    private static void run(String name, Ray[] rays, java.util.function.Function<Ray, Object> operation) {
+        if (!name.contains(_filter))
+            return;
+        int[] next = { 0 };
+        Benchmark.measure(name, () -> operation.apply(rays[next[0]++ & (rays.length - 1)]));
+    }
+
+    /**
+     * Measures rendering a scene in 100x100 pixels (one thread)
+     *
+     * @param name the benchmark name
+     * @param scene the scene to render
+     * @param bvh is the BVH improvement on
+     */
+    private static void render(String name, Scene scene, boolean bvh) {
+        if (!name.contains(_filter))
+            return;
+        ImageWriter imageWriter = new ImageWriter(name, 200, 200, 100, 100);
+        Render render = new Render(imageWriter, scene);
+        render.set_improvementBVH(bvh);
+        // the render threads allocations are not seen by the measuring thread, so they are not counted
+        Benchmark.measure(name, () -> {
+            render.renderImage();
+            return render;
+        }, false);
+    }
+
+    /**
+     * Makes rays from around the origin towards the area of the benchmark geometries
+     *
+     * @param random random numbers source
+     * @param count number of rays (a power of 2)
+     * @return the rays
+     */
+    private static Ray[] rays(Random random, int count) {
+        Ray[] rays = new Ray[count];
+        for (int k = 0; k < count; ++k)
+            rays[k] = new Ray(new Point3D(random.nextDouble() * 10 - 5, random.nextDouble() * 10 - 5, 0),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, 1));
+        return rays;
+    }
+
+    /**
+     * Makes a bundle of small random spheres in front of the origin
+     *
+     * @param random random numbers source
+     * @param count number of spheres
+     * @return the bundle
+     */
+    private static Geometries spheres(Random random, int count) {
+        Geometries geometries = new Geometries();
+        for (int k = 0; k < count; ++k)
+            geometries.add(new Sphere(1 + random.nextDouble() * 2, new Point3D(random.nextDouble() * 200 - 100,
+                    random.nextDouble() * 200 - 100, 50 + random.nextDouble() * 200)));
+        return geometries;
+    }
+
+    /**
+     * Makes a scene of many random spheres with a light
+     *
+     * @return the scene
+     */
+    private static Scene spheresScene() {
+        Scene scene = new Scene("spheres");
+        scene.setCamera(new Camera(Point3D.ZERO, new Vector(0, 0, 1), new Vector(0, -1, 0)));
+        scene.setDistance(100);
+        scene.setBackground(Color.BLACK);
+        scene.setAmbientLight(new AmbientLight(new Color(java.awt.Color.WHITE), 0.1));
+        Random random = new Random(7);
+        for (int k = 0; k < 500; ++k)
+            scene.addGeometries(new Sphere(new Color(java.awt.Color.BLUE), new Material(0.5, 0.5, 30),
+                    1 + random.nextDouble() * 2, new Point3D(random.nextDouble() * 200 - 100,
+                    random.nextDouble() * 200 - 100, 50 + random.nextDouble() * 200)));
+        scene.addLights(new PointLight(new Color(500, 300, 0), new Point3D(0, 0, -100), 1, 4E-5, 2E-7));
+        return scene;
+    }
+
+    /**
+     * Makes a scene of reflecting and transparent spheres (like the reflection and refraction tests)
+     *
+     * @return the scene
+     */
+    private static Scene reflectionsScene() {
+        Scene scene = new Scene("reflections");
+        scene.setCamera(new Camera(new Point3D(0, 0, -1000), new Vector(0, 0, 1), new Vector(0, -1, 0)));
+        scene.setDistance(1000);
+        scene.setBackground(Color.BLACK);
+        scene.setAmbientLight(new AmbientLight(Color.BLACK, 0));
+        scene.addGeometries(
+                new Sphere(new Color(java.awt.Color.BLUE), new Material(0.4, 0.3, 100, 0.3, 0), 50,
+                        new Point3D(0, 0, 50)),
+                new Sphere(new Color(java.awt.Color.RED), new Material(0.5, 0.5, 100), 25, new Point3D(0, 0, 50)),
+                new Plane(new Color(java.awt.Color.GRAY), new Material(0.5, 0.5, 60, 0, 0.5),
+                        new Point3D(0, 0, 150), new Vector(0, 0, -1)));
+        scene.addLights(new SpotLight(new Color(1000, 600, 0), new Point3D(-100, 100, -500),
+                new Vector(-1, 1, 2), 1, 0.0004, 0.0000006));
+        return scene;
+    }
+}
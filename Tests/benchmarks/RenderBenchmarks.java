@@ -0,0 +1,165 @@
+package benchmarks;
+
+import renderer.*;
+import scene.Scene;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.function.Supplier;
+
+/**
+ * End to end render benchmarks - renders the reference scenes of the render tests in fixed resolutions and
+ * numbers of threads, and reports the wall time, the rays per second of each kind and the peak heap.<br/>
+ * Run as a program: java benchmarks.RenderBenchmarks [scene name filter]<br/>
+ * The results are printed and written as CSV lines (one line per rendering) to the file in the
+ * benchmark.output system property (render-benchmarks.csv by default), so results of different builds can be
+ * compared. The resolutions (pixels in a row and in a column) and the numbers of threads are taken from the
+ * benchmark.resolutions and benchmark.threads system properties (comma separated lists)
+ *
+ * @author Moriah and Shahar
+ */
+
+public class RenderBenchmarks {
+    /**
+     * A reference scene and the way the tests render it
+     */
+    private static class Reference {
+        final String name;
+        final Supplier<Scene> scene;
+        final double width, height;
+        final int depthFieldRays;
+        final boolean bvh;
+
+        /**
+         * Reference constructor
+         *
+         * @param name the benchmark name of the scene
+         * @param scene makes the scene
+         * @param width view plane's width
+         * @param height view plane's height
+         * @param depthFieldRays number of depth of field rays (0 - depth of field is off)
+         * @param bvh is the BVH improvement on
+         */
+        Reference(String name, Supplier<Scene> scene, double width, double height, int depthFieldRays, boolean bvh) {
+            this.name = name;
+            this.scene = scene;
+            this.width = width;
+            this.height = height;
+            this.depthFieldRays = depthFieldRays;
+            this.bvh = bvh;
+        }
+    }
+
+    /**
+     * The reference scenes
+     */
+    private static final Reference[] REFERENCES = {
+            new Reference("trianglesSphere", ShadowTest::trianglesSphereScene, 200, 200, 0, false),
+            new Reference("twoSpheresOnMirrors", ReflectionRefractionTest::twoSpheresOnMirrorsScene,
+                    2500, 2500, 0, false),
+            new Reference("trianglesTransparentSphere", ReflectionRefractionTest::trianglesTransparentSphereScene,
+                    200, 200, 0, false),
+            new Reference("allEffects", AllEffectsTest::allEffectsScene, 150, 150, 100, false),
+            new Reference("project", ProjectTest::projectScene, 15, 15, 100, true)
+    };
+
+    /**
+     * The CSV columns
+     */
+    private static final String HEADER = "scene,resolution,threads,bvh,depthFieldRays,buildSeconds,renderSeconds,"
+            + "primaryRays,secondaryRays,shadowRays,primaryPerSecond,secondaryPerSecond,shadowPerSecond,"
+            + "totalPerSecond,peakHeapMB,cores,javaVersion";
+
+    /**
+     * Runs the benchmarks
+     *
+     * @param args optional scene name filter - only the scenes whose names contain it are rendered
+     * @throws IOException if the results file can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        String filter = args.length > 0 ? args[0] : "";
+        int cores = Runtime.getRuntime().availableProcessors();
+        int[] resolutions = numbers(System.getProperty("benchmark.resolutions", "200"));
+        int[] threads = numbers(System.getProperty("benchmark.threads", cores > 1 ? "1," + cores : "1"));
+        String output = System.getProperty("benchmark.output", "render-benchmarks.csv");
+
+        try (PrintWriter csv = new PrintWriter(new FileWriter(output))) {
+            csv.println(HEADER);
+            System.out.println(HEADER);
+            for (Reference reference : REFERENCES) {
+                if (!reference.name.contains(filter))
+                    continue;
+                // warmup - a small rendering, so the measured renderings run compiled code
+                render(reference, 32, 1);
+                for (int resolution : resolutions)
+                    for (int threadsNumber : threads) {
+                        String line = render(reference, resolution, threadsNumber);
+                        csv.println(line);
+                        csv.flush();
+                        System.out.println(line);
+                    }
+            }
+        }
+    }
+
+    /**
+     * Renders a reference scene and measures it
+     *
+     * @param reference the reference scene
+     * @param resolution number of pixels in a row and in a column
+     * @param threads number of rendering threads
+     * @return the CSV line of the results
+     */
+    private static String render(Reference reference, int resolution, int threads) {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            pool.resetPeakUsage();
+
+        long start = System.nanoTime();
+        Scene scene = reference.scene.get();
+        ImageWriter imageWriter = new ImageWriter(reference.name, reference.width, reference.height,
+                resolution, resolution);
+        Render render = new Render(imageWriter, scene).setMultithreading(threads);
+        if (reference.depthFieldRays > 0) {
+            render.set_numOfRays(reference.depthFieldRays);
+            render.set_depthField(true);
+        }
+        render.set_improvementBVH(reference.bvh);
+        long build = System.nanoTime() - start;
+
+        render.renderImage();
+        RenderStats stats = render.getStats();
+
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP)
+                peakHeap += pool.getPeakUsage().getUsed();
+
+        return String.format(java.util.Locale.ROOT, "%s,%d,%d,%b,%d,%.3f,%.3f,%d,%d,%d,%.0f,%.0f,%.0f,%.0f,%.1f,%d,%s",
+                reference.name, resolution, threads, reference.bvh, reference.depthFieldRays,
+                build / 1e9, stats.getRenderNanos() / 1e9,
+                stats.getPrimaryRays(), stats.getSecondaryRays(), stats.getShadowRays(),
+                stats.perSecond(stats.getPrimaryRays()), stats.perSecond(stats.getSecondaryRays()),
+                stats.perSecond(stats.getShadowRays()), stats.perSecond(stats.getTotalRays()),
+                peakHeap / (1024.0 * 1024.0), Runtime.getRuntime().availableProcessors(),
+                System.getProperty("java.version"));
+    }
+
+    /**
+     * Parses a comma separated list of numbers
+     *
+     * @param list the list
+     * @return the numbers
+     */
+    private static int[] numbers(String list) {
+        String[] parts = list.split(",");
+        int[] numbers = new int[parts.length];
+        for (int k = 0; k < parts.length; ++k)
+            numbers[k] = Integer.parseInt(parts[k].trim());
+        return numbers;
+    }
+}
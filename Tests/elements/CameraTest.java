@@ -4,6 +4,9 @@ import static org.junit.Assert.*;
 
 import org.junit.Test;
 
+import java.util.List;
+import java.util.NoSuchElementException;
+
 import primitives.*;
 
 /**
@@ -53,4 +56,97 @@ public class CameraTest {
 
     }
 
+    /**
+     * Test method for
+     * {@link Camera#constructRayThroughPoint(int, int, double, double, double, double, double)}.
+     */
+    @Test
+    public void testConstructRayThroughPoint() {
+        Camera camera = new Camera(Point3D.ZERO, new Vector(0, 0, 1), new Vector(0, -1, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: 3X3 inside pixel (0,0)
+        assertEquals("Bad ray", new Ray(Point3D.ZERO, new Vector(-1.5, -2.5, 10)),
+                camera.constructRayThroughPoint(3, 3, 0.25, -0.25, 10, 6, 6));
+
+        // TC02: Out of the view plane
+        try {
+            camera.constructRayThroughPoint(3, 3, 2.75, 0, 10, 6, 6);
+            fail("constructRayThroughPoint() does not throw an error for a point out of the view plane");
+        }
+        catch (IllegalArgumentException e) {}
+
+        // =============== Boundary Values Tests ==================
+        // TC11: 3X3 Corner of the view plane
+        assertEquals("Bad ray", new Ray(Point3D.ZERO, new Vector(-3, -3, 10)),
+                camera.constructRayThroughPoint(3, 3, -0.5, -0.5, 10, 6, 6));
+
+        // TC12: 3X3 Middle of a pixel is like constructRayThroughPixel
+        assertEquals("Bad ray", camera.constructRayThroughPixel(3, 3, 1, 0, 10, 6, 6),
+                camera.constructRayThroughPoint(3, 3, 1, 0, 10, 6, 6));
+    }
+
+    /**
+     * Test method for
+     * {@link Camera#constructApertureRays(double, Ray, int)}.
+     */
+    @Test
+    public void testConstructApertureRays() {
+        Camera camera = new Camera(Point3D.ZERO, new Vector(0, 0, 1), new Vector(0, -1, 0), 2, 90);
+        Ray basicRay = camera.constructRayThroughPixel(3, 3, 0, 0, 10, 6, 6);
+        // the focal point - the basic ray at the focal plane (z = 100)
+        Point3D focalPoint = new Point3D(-20, -20, 100);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The basic ray first, and then numOfRays - 1 rays from the camera plane through the focal point,
+        // the same rays as in the list of constructRaysFromAperture
+        ApertureRays rays = camera.constructApertureRays(10, basicRay, 20);
+        List<Ray> list = camera.constructRaysFromAperture(10, basicRay, 20);
+        assertEquals("Bad first ray", basicRay, rays.next());
+        assertEquals("Bad first ray in the list", basicRay, list.get(0));
+        int count = 1;
+        while (rays.hasNext()) {
+            Ray ray = rays.next();
+            assertEquals("Different ray in the list", list.get(count), ray);
+            ++count;
+            assertEquals("Ray does not start on the camera plane", 0, ray.get_startPoint().getZ(), 1e-10);
+            Point3D pointOnFocalPlane = ray.getPoint(100 / ray.getDirectionZ());
+            assertEquals("Ray does not go to the focal point", 0, pointOnFocalPlane.distance(focalPoint), 1e-8);
+        }
+        assertEquals("Bad number of rays", 20, count);
+        assertEquals("Bad number of rays in the list", 20, list.size());
+
+        // TC02: No more rays after numOfRays
+        try {
+            rays.next();
+            fail("constructApertureRays() gives more than numOfRays rays");
+        }
+        catch (NoSuchElementException e) {}
+    }
+
+    /**
+     * Test method for
+     * {@link ViewPlane#constructRayThroughPixel(int, int)}.
+     */
+    @Test
+    public void testViewPlaneConstructRayThroughPixel() {
+        Camera camera = new Camera(new Point3D(1, 2, 3), new Vector(0, 1, 1), new Vector(0, -1, 1));
+        ViewPlane viewPlane = camera.getViewPlane(4, 3, 10, 8, 6);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The same rays as the camera constructs for each pixel
+        for (int i = 0; i < 3; ++i)
+            for (int j = 0; j < 4; ++j)
+                assertEquals("Bad ray", camera.constructRayThroughPixel(4, 3, j, i, 10, 8, 6),
+                        viewPlane.constructRayThroughPixel(j, i));
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Zero distance view plane
+        try {
+            camera.getViewPlane(4, 3, 0, 8, 6);
+            fail("getViewPlane() does not throw an error for zero distance");
+        }
+        catch (IllegalArgumentException e) {}
+    }
+
 }
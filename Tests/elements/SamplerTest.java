@@ -0,0 +1,110 @@
+package elements;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for elements.Sampler implementations
+ * @author Moriah and Shahar
+ */
+public class SamplerTest {
+    /**
+     * All the samplers to test
+     */
+    private final Sampler[] _samplers = {
+            new RandomSampler(), new JitteredSampler(), new HaltonSampler(), new SobolSampler() };
+
+    /**
+     * Test method for {@link elements.Sampler#sample(long, int, int, double[])}
+     */
+    @Test
+    public void testSample() {
+        double[] point = new double[2];
+        double[] again = new double[2];
+        for (Sampler sampler : _samplers) {
+            String name = sampler.getClass().getSimpleName();
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: All the samples are in the unit square, and the same seed gives the same samples
+            for (int k = 0; k < 100; ++k) {
+                sampler.sample(17, k, 100, point);
+                assertTrue(name + ": sample out of the unit square",
+                        point[0] >= 0 && point[0] < 1 && point[1] >= 0 && point[1] < 1);
+                sampler.sample(17, k, 100, again);
+                assertArrayEquals(name + ": same seed gives different samples", point, again, 0);
+            }
+            // TC02: Different seeds give different samples
+            sampler.sample(17, 3, 100, point);
+            sampler.sample(18, 3, 100, again);
+            assertFalse(name + ": different seeds give the same samples",
+                    point[0] == again[0] && point[1] == again[1]);
+        }
+    }
+
+    /**
+     * Test method for {@link elements.JitteredSampler#sample(long, int, int, double[])}
+     */
+    @Test
+    public void testJitteredSample() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Each cell of the 4X4 grid gets exactly one sample
+        Sampler sampler = new JitteredSampler();
+        boolean[] cells = new boolean[16];
+        double[] point = new double[2];
+        for (int k = 0; k < 16; ++k) {
+            sampler.sample(5, k, 16, point);
+            int cell = (int) (point[1] * 4) * 4 + (int) (point[0] * 4);
+            assertFalse("JitteredSampler: two samples in the same cell", cells[cell]);
+            cells[cell] = true;
+        }
+    }
+
+    /**
+     * Test method for {@link elements.SobolSampler#sample(long, int, int, double[])}
+     */
+    @Test
+    public void testSobolSample() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Each 4 samples starting from 0 are in the 4 different quarters of the square
+        Sampler sampler = new SobolSampler();
+        double[] point = new double[2];
+        for (int start = 0; start < 16; start += 4) {
+            boolean[] quarters = new boolean[4];
+            for (int k = start; k < start + 4; ++k) {
+                sampler.sample(9, k, 16, point);
+                int quarter = (int) (point[1] * 2) * 2 + (int) (point[0] * 2);
+                assertFalse("SobolSampler: two samples in the same quarter", quarters[quarter]);
+                quarters[quarter] = true;
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link elements.Sampler#toDisk(double[])}
+     */
+    @Test
+    public void testToDisk() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Any point of the square is mapped into the unit disk
+        double[] point = new double[2];
+        Sampler sampler = new RandomSampler();
+        for (int k = 0; k < 100; ++k) {
+            sampler.sample(1, k, 100, point);
+            Sampler.toDisk(point);
+            assertTrue("toDisk: point out of the disk", point[0] * point[0] + point[1] * point[1] <= 1 + 1e-10);
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The middle of the square is the middle of the disk
+        point[0] = 0.5;
+        point[1] = 0.5;
+        Sampler.toDisk(point);
+        assertArrayEquals("toDisk: bad middle point", new double[] { 0, 0 }, point, 1e-10);
+
+        // TC12: The middle of the square's edge is on the disk's edge
+        point[0] = 1;
+        point[1] = 0.5;
+        Sampler.toDisk(point);
+        assertArrayEquals("toDisk: bad edge point", new double[] { 1, 0 }, point, 1e-10);
+    }
+}
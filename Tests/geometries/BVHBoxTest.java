@@ -88,4 +88,27 @@ public class BVHBoxTest {
         assertTrue("Ray crosses border",
                 box.anyIntersections(new Ray(new Point3D(-1, 1, 2), new Vector(2, -2, 1))));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void intersectionDistance() {
+        BVHBox box = new BVHBox(Point3D.ZERO, new Point3D(3,3,3));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ray's line is outside the box
+        assertEquals("Ray's line out of box", Double.POSITIVE_INFINITY,
+                box.intersectionDistance(new Ray(new Point3D(2, -3, 2), new Vector(3, 5, 0))), 0.00001);
+
+        // TC02: Ray starts before and crosses the box
+        assertEquals("Ray starts before", 1,
+                box.intersectionDistance(new Ray(new Point3D(-1, 1, 2), new Vector(1, 0, 0))), 0.00001);
+
+        // TC03: Ray starts inside the box
+        assertEquals("Ray starts inside", 0,
+                box.intersectionDistance(new Ray(new Point3D(1, 1, 2), new Vector(0, 3, 3))), 0.00001);
+
+        // TC04: Ray starts after the box
+        assertEquals("Ray starts after", Double.POSITIVE_INFINITY,
+                box.intersectionDistance(new Ray(new Point3D(1, 4, 5), new Vector(0, 3, 3))), 0.00001);
+    }
+}
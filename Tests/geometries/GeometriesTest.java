@@ -1,6 +1,8 @@
 package geometries;
 
 import org.junit.Test;
+import primitives.Color;
+import primitives.Material;
 import primitives.Point3D;
 import primitives.Ray;
 import primitives.Vector;
@@ -43,4 +45,89 @@ public class GeometriesTest {
         assertEquals("Wrong when all of the shapes have Intersections", 4,
                 scene.findIntersections(new Ray(new Point3D(1, 0, -2), new Vector(0, 0, 1))).size());
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Geometries#findIntersections(primitives.Ray)} with the BVH improvement on
+     */
+    @Test
+    public void testFindIntersectionsBVH() {
+        Geometries scene = new Geometries();
+        for (int i = 0; i < 10; i++)
+            scene.add(new Sphere(1, new Point3D(3 * i, 0, 0)), new Sphere(1, new Point3D(3 * i, 3, 0)));
+        scene.add(new Plane(new Point3D(0, 0, 5), new Vector(0, 0, 1)));
+        scene.set_improvementBVH(true);
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The ray crosses one sphere and the plane
+        assertEquals("Wrong number of intersections with BVH", 3,
+                scene.findIntersections(new Ray(new Point3D(9, 0, -5), new Vector(0, 0, 1))).size());
+
+        // TC02: The ray crosses all the spheres in a row
+        assertEquals("Wrong number of intersections with BVH along a row", 20,
+                scene.findIntersections(new Ray(new Point3D(-5, 3, 0), new Vector(1, 0, 0))).size());
+
+        // TC03: The ray crosses only the plane
+        assertEquals("Wrong number of intersections with BVH out of the boxes", 1,
+                scene.findIntersections(new Ray(new Point3D(9, 20, -5), new Vector(0, 0, 1))).size());
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findClosestIntersection(primitives.Ray, double)}
+     */
+    @Test
+    public void testFindClosestIntersection() {
+        Geometries scene = new Geometries(new Sphere(1, new Point3D(1, 0, 0)),
+                new Plane(new Point3D(3, 5, 9), new Vector(0, 0, 1)),
+                new Triangle(new Point3D(0, 0, 4), new Point3D(2, -5, 4), new Point3D(4, 3, 4)));
+        Ray ray = new Ray(new Point3D(1, 0, -2), new Vector(0, 0, 1));
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: All of the shapes have Intersections, the sphere is the closest
+        assertEquals("Wrong closest intersection", new Point3D(1, 0, -1),
+                scene.findClosestIntersection(ray, Double.POSITIVE_INFINITY).point);
+
+        // TC02: Same with the BVH improvement on
+        scene.set_improvementBVH(true);
+        assertEquals("Wrong closest intersection with BVH", new Point3D(1, 0, -1),
+                scene.findClosestIntersection(ray, Double.POSITIVE_INFINITY).point);
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: All the intersections are further than the max distance
+        assertNull("Wrong when all the intersections are further than the max distance",
+                scene.findClosestIntersection(ray, 0.5));
+
+        // TC12: None of the shapes have Intersections
+        assertNull("Wrong when none of the shapes have Intersections",
+                scene.findClosestIntersection(new Ray(new Point3D(1, 0, -2), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY));
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findTransparency(primitives.Ray, double, double)}
+     */
+    @Test
+    public void testFindTransparency() {
+        Geometries scene = new Geometries(new Sphere(Color.BLACK, new Material(0, 0, 0, 0.5, 0), 1, new Point3D(1, 0, 0)),
+                new Plane(Color.BLACK, new Material(0, 0, 0, 0, 0), new Point3D(3, 5, 9), new Vector(0, 0, 1)));
+        Ray ray = new Ray(new Point3D(1, 0, -2), new Vector(0, 0, 1));
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The light is before all the shapes
+        assertEquals("Wrong when the light is before the shapes", 1, scene.findTransparency(ray, 0.5, 0.001), 0.00001);
+
+        // TC02: The light is after the transparent sphere (both of the sphere intersections)
+        assertEquals("Wrong when the light is after the sphere", 0.25, scene.findTransparency(ray, 5, 0.001), 0.00001);
+
+        // TC03: The light is after the opaque plane
+        assertEquals("Wrong when the light is after the plane", 0, scene.findTransparency(ray, 20, 0.001), 0.00001);
+
+        // TC04: Same with the BVH improvement on
+        scene.set_improvementBVH(true);
+        assertEquals("Wrong when the light is after the sphere with BVH", 0.25, scene.findTransparency(ray, 5, 0.001), 0.00001);
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: The transparency drops under the minimal level
+        assertEquals("Wrong when the transparency is lower than the minimal level", 0, scene.findTransparency(ray, 5, 0.3), 0.00001);
+    }
+}
@@ -0,0 +1,183 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import org.junit.Test;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for geometries.IntersectionKernels class (testing a ray against a whole BVH leaf)
+ * @author Moriah and Shahar
+ */
+public class IntersectionKernelsTest {
+    /**
+     * Creates geometries with random spheres and triangles, some transparent, and a polygon in inner Geometries
+     *
+     * @param random the random numbers generator
+     * @return the geometries
+     */
+    private Geometries randomGeometries(Random random) {
+        Geometries geometries = new Geometries();
+        for (int i = 0; i < 300; ++i) {
+            Point3D center = new Point3D(random.nextDouble() * 200 - 100, random.nextDouble() * 200 - 100,
+                    random.nextDouble() * 200);
+            Material material = new Material(0.5, 0.5, 30, i % 3 == 0 ? 0.6 : 0, 0);
+            if (i % 2 == 0)
+                geometries.add(new Sphere(Color.BLACK, material, random.nextDouble() * 10 + 1, center));
+            else
+                geometries.add(new Triangle(Color.BLACK, material, center,
+                        center.add(new Vector(10, random.nextDouble(), 1)),
+                        center.add(new Vector(random.nextDouble(), 10, 2))));
+        }
+        Geometries inner = new Geometries();
+        inner.add(new Polygon(new Point3D(-50, -50, 150), new Point3D(50, -50, 150),
+                new Point3D(50, 50, 150), new Point3D(-50, 50, 150)));
+        geometries.add(inner, new Plane(new Point3D(0, 0, 250), new Vector(0, 0, 1)));
+        geometries.set_improvementBVH(true);
+        return geometries;
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findClosestIntersection(primitives.Ray, double)}
+     * with the intersection kernels on
+     */
+    @Test
+    public void testFindClosestIntersection() {
+        Random random = new Random(11);
+        Geometries geometries = randomGeometries(random);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The kernels find the same closest intersections as the primitives one by one
+        for (int i = 0; i < 2000; ++i) {
+            Ray ray = new Ray(new Point3D(random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50, -100),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, 1));
+            geometries.set_intersectionKernels(false);
+            GeoPoint expected = geometries.findClosestIntersection(ray, Double.POSITIVE_INFINITY);
+            geometries.set_intersectionKernels(true);
+            GeoPoint result = geometries.findClosestIntersection(ray, Double.POSITIVE_INFINITY);
+            if (expected == null) {
+                assertNull("Kernels intersection where there is none", result);
+                continue;
+            }
+            assertNotNull("No kernels intersection", result);
+            assertSame("Wrong geometry of kernels intersection", expected.geometry, result.geometry);
+            assertEquals("Wrong kernels intersection point", 0, expected.point.distance(result.point), 1e-7);
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A ray that starts at the center of a sphere hits it at the radius
+        Sphere sphere = new Sphere(5, new Point3D(0, 0, 500));
+        Geometries single = new Geometries();
+        single.add(sphere);
+        single.set_improvementBVH(true);
+        single.set_intersectionKernels(true);
+        GeoPoint result = single.findClosestIntersection(new Ray(new Point3D(0, 0, 500), new Vector(0, 0, 1)),
+                Double.POSITIVE_INFINITY);
+        assertNotNull("No kernels intersection from the sphere center", result);
+        assertEquals("Wrong kernels intersection from the sphere center", new Point3D(0, 0, 505), result.point);
+
+        // TC12: A ray through a triangle's edge doesn't hit it
+        Geometries triangle = new Geometries();
+        triangle.add(new Triangle(new Point3D(0, 0, 10), new Point3D(10, 0, 10), new Point3D(0, 10, 10)));
+        triangle.set_improvementBVH(true);
+        triangle.set_intersectionKernels(true);
+        assertNull("Kernels intersection on a triangle's edge",
+                triangle.findClosestIntersection(new Ray(new Point3D(5, 0, 0), new Vector(0, 0, 1)),
+                        Double.POSITIVE_INFINITY));
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findTransparency(primitives.Ray, double, double)}
+     * with the intersection kernels on
+     */
+    @Test
+    public void testFindTransparency() {
+        Random random = new Random(13);
+        Geometries geometries = randomGeometries(random);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The kernels find the same transparency as the primitives one by one
+        for (int i = 0; i < 2000; ++i) {
+            Ray ray = new Ray(new Point3D(random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50, -100),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, 1));
+            double distance = random.nextDouble() * 400;
+            geometries.set_intersectionKernels(false);
+            double expected = geometries.findTransparency(ray, distance, 0.001);
+            geometries.set_intersectionKernels(true);
+            assertEquals("Wrong kernels transparency", expected, geometries.findTransparency(ray, distance, 0.001),
+                    1e-10);
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A ray through a transparent sphere passes its two sides
+        Geometries single = new Geometries();
+        single.add(new Sphere(Color.BLACK, new Material(0, 0, 0, 0.5, 0), 5, new Point3D(0, 0, 50)));
+        single.set_improvementBVH(true);
+        single.set_intersectionKernels(true);
+        assertEquals("Wrong kernels transparency through a sphere", 0.25,
+                single.findTransparency(new Ray(new Point3D(0, 0, 0), new Vector(0, 0, 1)), 100, 0.001), 1e-10);
+    }
+
+    /**
+     * Test method for the Vector API loops of {@link geometries.IntersectionKernels} (they are loaded only when
+     * the tests run with --add-modules jdk.incubator.vector)
+     */
+    @Test
+    public void testVectorLoops() {
+        if (!IntersectionKernels.isVectorized())
+            return;
+        Random random = new Random(17);
+        Intersectable[] elements = new Intersectable[301];
+        double[] bounds = new double[6 * elements.length];
+        for (int i = 0; i < elements.length; ++i) {
+            Point3D center = new Point3D(random.nextDouble() * 200 - 100, random.nextDouble() * 200 - 100,
+                    random.nextDouble() * 200);
+            if (i == elements.length - 1)
+                elements[i] = new Polygon(new Point3D(-50, -50, 150), new Point3D(50, -50, 150),
+                        new Point3D(50, 50, 150), new Point3D(-50, 50, 150));
+            else if (i % 2 == 0)
+                elements[i] = new Sphere(random.nextDouble() * 10 + 1, center);
+            else
+                elements[i] = new Triangle(center, center.add(new Vector(10, random.nextDouble(), 1)),
+                        center.add(new Vector(random.nextDouble(), 10, 2)));
+            BVHBox box = elements[i].getBox();
+            bounds[6 * i] = box.min.getX();
+            bounds[6 * i + 1] = box.min.getY();
+            bounds[6 * i + 2] = box.min.getZ();
+            bounds[6 * i + 3] = box.max.getX();
+            bounds[6 * i + 4] = box.max.getY();
+            bounds[6 * i + 5] = box.max.getZ();
+        }
+        IntersectionKernels kernels = new IntersectionKernels(new BVHTree(bounds), elements);
+        // the vector loops write whole vectors, so the arrays are padded like the help arrays
+        double[] expected = new double[elements.length + IntersectionKernels.PADDING];
+        double[] result = new double[elements.length + IntersectionKernels.PADDING];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The vector loops find exactly the distances and the counts of the scalar loops, for all the
+        // primitives and for ranges that don't fill the vectors
+        for (int i = 0; i < 2000; ++i) {
+            double ox = random.nextDouble() * 100 - 50, oy = random.nextDouble() * 100 - 50, oz = -100;
+            Vector direction = new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, 1).normalize();
+            double dx = direction.getX(), dy = direction.getY(), dz = direction.getZ();
+            double distance = random.nextDouble() * 400;
+            int first = i % 2 == 0 ? 0 : random.nextInt(elements.length - 13);
+            int count = i % 2 == 0 ? elements.length : random.nextInt(13) + 1;
+            kernels.distances(ox, oy, oz, dx, dy, dz, first, count, expected);
+            IntersectionKernels.VECTOR_LOOPS.distances(kernels, ox, oy, oz, dx, dy, dz, first, count, result);
+            assertArrayEquals("Wrong vector distances", Arrays.copyOf(expected, count), Arrays.copyOf(result, count),
+                    0);
+            kernels.counts(ox, oy, oz, dx, dy, dz, distance, first, count, expected);
+            IntersectionKernels.VECTOR_LOOPS.counts(kernels, ox, oy, oz, dx, dy, dz, distance, first, count, result);
+            assertArrayEquals("Wrong vector counts", Arrays.copyOf(expected, count), Arrays.copyOf(result, count), 0);
+        }
+    }
+}
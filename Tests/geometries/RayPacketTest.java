@@ -0,0 +1,95 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import org.junit.Test;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for geometries.RayPacket class (tracing packets of rays)
+ * @author Moriah and Shahar
+ */
+public class RayPacketTest {
+    /**
+     * Checks that the closest intersections of a packet are the closest intersections of its rays one by one
+     *
+     * @param geometries the geometries to intersect
+     * @param packet the packet of rays
+     */
+    private void checkPacket(Geometries geometries, RayPacket packet) {
+        geometries.findClosestIntersections(packet);
+        for (int i = 0; i < packet.size(); ++i) {
+            Ray ray = packet.getRay(i);
+            GeoPoint expected = geometries.findClosestIntersection(ray, Double.POSITIVE_INFINITY);
+            GeoPoint result = packet.getClosest(i);
+            if (expected == null) {
+                assertNull("Packet intersection where there is none", result);
+                continue;
+            }
+            assertNotNull("No packet intersection", result);
+            assertSame("Wrong geometry of packet intersection", expected.geometry, result.geometry);
+            assertEquals("Wrong packet intersection point", 0, expected.point.distance(result.point), 1e-7);
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findClosestIntersections(geometries.RayPacket)}
+     */
+    @Test
+    public void testFindClosestIntersections() {
+        Random random = new Random(7);
+        Geometries geometries = new Geometries();
+        for (int i = 0; i < 200; ++i) {
+            Point3D center = new Point3D(random.nextDouble() * 200 - 100, random.nextDouble() * 200 - 100,
+                    random.nextDouble() * 200);
+            if (i % 2 == 0)
+                geometries.add(new Sphere(random.nextDouble() * 10 + 1, center));
+            else
+                geometries.add(new Triangle(center, center.add(new Vector(10, random.nextDouble(), 1)),
+                        center.add(new Vector(random.nextDouble(), 10, 2))));
+        }
+        geometries.add(new Plane(new Point3D(0, 0, 250), new Vector(0, 0, 1)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A packet of rays from one point, with and without BVH
+        RayPacket packet = new RayPacket(64);
+        for (boolean bvh : new boolean[] { false, true }) {
+            geometries.set_improvementBVH(bvh);
+            for (int block = 0; block < 20; ++block) {
+                packet.reset();
+                double x = random.nextDouble() * 2 - 1, y = random.nextDouble() * 2 - 1;
+                for (int i = 0; i < 64; ++i)
+                    packet.add(new Ray(new Point3D(0, 0, -100),
+                            new Vector(x + i % 8 * 0.01, y + i / 8 * 0.01, 1)));
+                checkPacket(geometries, packet);
+            }
+
+            // TC02: A packet of rays from different points in different directions
+            packet.reset();
+            for (int i = 0; i < 64; ++i)
+                packet.add(new Ray(new Point3D(random.nextDouble() * 100, random.nextDouble() * 100, -50),
+                        new Vector(random.nextDouble() * 2 - 1, random.nextDouble() * 2 - 1, random.nextDouble() - 0.2)));
+            checkPacket(geometries, packet);
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A full packet
+        try {
+            packet.add(new Ray(new Point3D(0, 0, 0), new Vector(0, 0, 1)));
+            fail("RayPacket: add() does not throw an error when the packet is full");
+        }
+        catch (IllegalStateException e) {}
+
+        // TC12: Rays parallel to the axes
+        packet.reset();
+        packet.add(new Ray(new Point3D(0, 0, -100), new Vector(0, 0, 1)));
+        packet.add(new Ray(new Point3D(0, 0, -100), new Vector(1, 0, 0)));
+        packet.add(new Ray(new Point3D(0, 0, -100), new Vector(0, -1, 0)));
+        checkPacket(geometries, packet);
+    }
+}
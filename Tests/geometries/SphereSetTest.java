@@ -0,0 +1,122 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import org.junit.Test;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for geometries.SphereSet class
+ * @author Moriah and Shahar
+ */
+public class SphereSetTest {
+    /**
+     * Test method for {@link geometries.SphereSet#findClosestIntersection(primitives.Ray, double)}
+     * and {@link geometries.SphereSet#findTransparency(primitives.Ray, double, double)}
+     */
+    @Test
+    public void testIntersections() {
+        Random random = new Random(5);
+        Material opaque = new Material(0.5, 0.5, 30);
+        Material transparent = new Material(0.5, 0.5, 30, 0.5, 0);
+        SphereSet set = new SphereSet();
+        Geometries spheres = new Geometries();
+        for (int i = 0; i < 1000; ++i) {
+            Sphere sphere = new Sphere(new Color(i % 7, 0, 0), i % 3 == 0 ? transparent : opaque,
+                    random.nextDouble() * 5 + 0.5, new Point3D(random.nextDouble() * 200 - 100,
+                    random.nextDouble() * 200 - 100, random.nextDouble() * 200));
+            set.add(sphere);
+            spheres.add(sphere);
+        }
+        spheres.set_improvementBVH(true);
+
+        // ============ Equivalence Partitions Tests ==============
+        for (int i = 0; i < 2000; ++i) {
+            Ray ray = new Ray(new Point3D(random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50, -100),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, 1));
+            // TC01: The closest intersection is the same as with the Sphere objects
+            GeoPoint expected = spheres.findClosestIntersection(ray, Double.POSITIVE_INFINITY);
+            GeoPoint result = set.findClosestIntersection(ray, Double.POSITIVE_INFINITY);
+            if (expected == null)
+                assertNull("SphereSet intersection where there is none", result);
+            else {
+                assertNotNull("No SphereSet intersection", result);
+                assertEquals("Wrong SphereSet intersection point", 0, expected.point.distance(result.point), 1e-7);
+                assertSame("Wrong SphereSet intersection material", expected.geometry.get_material(),
+                        result.geometry.get_material());
+                assertEquals("Wrong SphereSet intersection color", expected.geometry.get_emission().getColor(),
+                        result.geometry.get_emission().getColor());
+                assertEquals("Wrong SphereSet intersection normal", 1, expected.geometry.getNormal(expected.point)
+                        .dotProduct(result.geometry.getNormal(result.point)), 1e-7);
+            }
+            // TC02: The transparency is the same as with the Sphere objects
+            double distance = random.nextDouble() * 400;
+            assertEquals("Wrong SphereSet transparency", spheres.findTransparency(ray, distance, 0.001),
+                    set.findTransparency(ray, distance, 0.001), 1e-10);
+        }
+        // TC03: All the intersections are found
+        Ray ray = new Ray(new Point3D(0, 0, -100), new Vector(0, 0, 1));
+        assertEquals("Wrong number of SphereSet intersections", size(spheres.findIntersections(ray)),
+                size(set.findIntersections(ray)));
+    }
+
+    /**
+     * Counts the intersections of a list
+     *
+     * @param intersections the list (or null)
+     * @return the number of intersections
+     */
+    private int size(java.util.List<GeoPoint> intersections) {
+        return intersections == null ? 0 : intersections.size();
+    }
+
+    /**
+     * Test method for {@link geometries.SphereSet#add(primitives.Color, primitives.Material, double, primitives.Point3D)}
+     */
+    @Test
+    public void testAdd() {
+        SphereSet set = new SphereSet();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The spheres are kept with their values
+        set.add(Color.BLACK, new Material(0, 1, 100), 2, new Point3D(1, 2, 3));
+        set.add(new Sphere(1, new Point3D(0, 0, 10)));
+        assertEquals("SphereSet: wrong size", 2, set.size());
+        Sphere sphere = set.get(0);
+        assertEquals("SphereSet: wrong center", new Point3D(1, 2, 3), sphere.get_center());
+        assertEquals("SphereSet: wrong radius", 2, sphere.get_radius(), 0);
+
+        // TC02: Non positive radius
+        try {
+            set.add(Color.BLACK, new Material(0, 1, 100), 0, new Point3D(1, 2, 3));
+            fail("SphereSet: add() does not throw an error for a zero radius");
+        }
+        catch (IllegalArgumentException e) {}
+
+        // TC03: Adding after the set is added to geometries - the box grows
+        new Geometries(set);
+        set.add(new Sphere(1, new Point3D(0, 0, 20)));
+        assertEquals("SphereSet: wrong box", new Point3D(3, 4, 21), set.getBox().getMax());
+
+        // TC04: Adding after the set is intersected
+        set.findClosestIntersection(new Ray(Point3D.ZERO, new Vector(0, 0, 1)), Double.POSITIVE_INFINITY);
+        try {
+            set.add(new Sphere(1, new Point3D(0, 0, 30)));
+            fail("SphereSet: add() does not throw an error when the set was intersected");
+        }
+        catch (IllegalStateException e) {}
+
+        // =============== Boundary Values Tests ==================
+        // TC11: An empty set has no intersections
+        assertNull("SphereSet: intersection with an empty set",
+                new SphereSet().findClosestIntersection(new Ray(Point3D.ZERO, new Vector(0, 0, 1)),
+                        Double.POSITIVE_INFINITY));
+    }
+}
@@ -0,0 +1,137 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import org.junit.Test;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for geometries.TriangleMesh class
+ * @author Moriah and Shahar
+ */
+public class TriangleMeshTest {
+    /**
+     * Test method for {@link geometries.TriangleMesh#findClosestIntersection(primitives.Ray, double)}
+     * and {@link geometries.TriangleMesh#findTransparency(primitives.Ray, double, double)}
+     */
+    @Test
+    public void testIntersections() {
+        // a bumpy 40X40 grid surface and a second one above it, the faces share the vertices
+        Random random = new Random(3);
+        int n = 41;
+        double[] vertices = new double[2 * 3 * n * n];
+        for (int layer = 0; layer < 2; ++layer)
+            for (int i = 0; i < n; ++i)
+                for (int j = 0; j < n; ++j) {
+                    int v = 3 * (layer * n * n + i * n + j);
+                    vertices[v] = i * 5 - 100;
+                    vertices[v + 1] = j * 5 - 100;
+                    vertices[v + 2] = 100 + layer * 50 + random.nextDouble() * 10;
+                }
+        int[] indices = new int[2 * 6 * (n - 1) * (n - 1)];
+        int k = 0;
+        for (int layer = 0; layer < 2; ++layer)
+            for (int i = 0; i < n - 1; ++i)
+                for (int j = 0; j < n - 1; ++j) {
+                    int v = layer * n * n + i * n + j;
+                    indices[k++] = v;
+                    indices[k++] = v + n;
+                    indices[k++] = v + 1;
+                    indices[k++] = v + 1;
+                    indices[k++] = v + n;
+                    indices[k++] = v + n + 1;
+                }
+        Material material = new Material(0.5, 0.5, 30, 0.5, 0);
+        TriangleMesh mesh = new TriangleMesh(Color.BLACK, material, vertices, indices);
+        Geometries triangles = new Geometries();
+        for (int f = 0; f < indices.length / 3; ++f)
+            triangles.add(new Triangle(Color.BLACK, material, point(vertices, indices[3 * f]),
+                    point(vertices, indices[3 * f + 1]), point(vertices, indices[3 * f + 2])));
+        triangles.set_improvementBVH(true);
+        assertEquals("TriangleMesh: wrong size", 2 * 2 * (n - 1) * (n - 1), mesh.size());
+
+        // ============ Equivalence Partitions Tests ==============
+        for (int i = 0; i < 2000; ++i) {
+            Ray ray = new Ray(new Point3D(random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50, 0),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, 1));
+            // TC01: The closest intersection and its normal are the same as with the Triangle objects
+            GeoPoint expected = triangles.findClosestIntersection(ray, Double.POSITIVE_INFINITY);
+            GeoPoint result = mesh.findClosestIntersection(ray, Double.POSITIVE_INFINITY);
+            if (expected == null)
+                assertNull("TriangleMesh intersection where there is none", result);
+            else {
+                assertNotNull("No TriangleMesh intersection", result);
+                assertEquals("Wrong TriangleMesh intersection point", 0, expected.point.distance(result.point), 1e-7);
+                assertEquals("Wrong TriangleMesh normal", 1, expected.geometry.getNormal(expected.point)
+                        .dotProduct(result.geometry.getNormal(result.point)), 1e-9);
+                assertSame("Wrong TriangleMesh material", material, result.geometry.get_material());
+            }
+            // TC02: The transparency is the same as with the Triangle objects
+            double distance = random.nextDouble() * 300;
+            assertEquals("Wrong TriangleMesh transparency", triangles.findTransparency(ray, distance, 0.001),
+                    mesh.findTransparency(ray, distance, 0.001), 1e-10);
+        }
+        // TC03: A ray through both layers has two intersections
+        assertEquals("Wrong number of TriangleMesh intersections", 2,
+                mesh.findIntersections(new Ray(new Point3D(1, 2, 0), new Vector(0, 0, 1))).size());
+    }
+
+    /**
+     * Makes a point of a vertex
+     *
+     * @param vertices the vertices array
+     * @param index the index of the vertex
+     * @return the point
+     */
+    private Point3D point(double[] vertices, int index) {
+        return new Point3D(vertices[3 * index], vertices[3 * index + 1], vertices[3 * index + 2]);
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#TriangleMesh(double[], int[])}
+     */
+    @Test
+    public void testConstructor() {
+        double[] vertices = { 0, 0, 10, 10, 0, 10, 0, 10, 10 };
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A face of the mesh
+        TriangleMesh mesh = new TriangleMesh(vertices, new int[] { 0, 1, 2 });
+        assertEquals("TriangleMesh: wrong vertex", new Point3D(10, 0, 10), mesh.getFace(0).getVertex(1));
+        assertEquals("TriangleMesh: wrong normal", new Vector(0, 0, 1), mesh.getFace(0).getNormal(null));
+
+        // TC02: Incomplete vertex
+        try {
+            new TriangleMesh(new double[] { 0, 0, 10, 10 }, new int[] { 0, 1, 0 });
+            fail("TriangleMesh: constructor does not throw an error for an incomplete vertex");
+        }
+        catch (IllegalArgumentException e) {}
+
+        // TC03: Incomplete face
+        try {
+            new TriangleMesh(vertices, new int[] { 0, 1 });
+            fail("TriangleMesh: constructor does not throw an error for an incomplete face");
+        }
+        catch (IllegalArgumentException e) {}
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Index of the vertex after the last one
+        try {
+            new TriangleMesh(vertices, new int[] { 0, 1, 3 });
+            fail("TriangleMesh: constructor does not throw an error for a wrong vertex index");
+        }
+        catch (IllegalArgumentException e) {}
+
+        // TC12: A ray through a face's edge doesn't hit it
+        assertNull("TriangleMesh intersection on a face's edge",
+                mesh.findClosestIntersection(new Ray(new Point3D(5, 0, 0), new Vector(0, 0, 1)),
+                        Double.POSITIVE_INFINITY));
+    }
+}
@@ -0,0 +1,92 @@
+package primitives;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for primitives.ColorAccumulator class
+ * @author Moriah and Shahar
+ */
+public class ColorAccumulatorTest {
+    /**
+     * Test method for {@link primitives.ColorAccumulator#add(primitives.Color, double)}
+     */
+    @Test
+    public void testAdd() {
+        // ============ Equivalence Partitions Tests ==============
+        // T1, Sum of a color and a scaled color is like Color add and scale
+        Color c1 = new Color(10, 20, 30);
+        Color c2 = new Color(40, 50, 60);
+        ColorAccumulator sum = new ColorAccumulator().add(c1).add(c2, 0.5);
+        assertEquals("ColorAccumulator: add() wrong", c1.add(c2.scale(0.5)).getColor(), sum.getColor());
+        // T2, Negative scale factor
+        try {
+            sum.add(c1, -1);
+            fail("ColorAccumulator: add() does not throw an error for a negative scale factor");
+        }
+        catch (IllegalArgumentException e) {}
+
+        // =============== Boundary Values Tests ==================
+        // T3, Adding with scale factor 0 doesn't change the sum
+        sum.add(c2, 0);
+        assertEquals("ColorAccumulator: add() with zero factor wrong", c1.add(c2.scale(0.5)).getColor(), sum.getColor());
+    }
+
+    /**
+     * Test method for {@link primitives.ColorAccumulator#reduce(double)}
+     */
+    @Test
+    public void testReduce() {
+        // ============ Equivalence Partitions Tests ==============
+        // T1, Sum of several colors reduced by their number is their average
+        ColorAccumulator sum = new ColorAccumulator().add(new Color(10, 20, 30)).add(new Color(30, 40, 50));
+        assertEquals("ColorAccumulator: reduce() wrong", new java.awt.Color(20, 30, 40), sum.reduce(2).getColor());
+        // T2, Reduction factor lower than 1
+        try {
+            sum.reduce(0.5);
+            fail("ColorAccumulator: reduce() does not throw an error for a factor lower than 1");
+        }
+        catch (IllegalArgumentException e) {}
+    }
+
+    /**
+     * Test method for {@link primitives.ColorAccumulator#reset()}
+     */
+    @Test
+    public void testReset() {
+        // ============ Equivalence Partitions Tests ==============
+        // T1, Reset sum is black
+        ColorAccumulator sum = new ColorAccumulator().add(new Color(10, 20, 30));
+        assertEquals("ColorAccumulator: reset() wrong", java.awt.Color.BLACK, sum.reset().getColor());
+    }
+
+    /**
+     * Test method for {@link primitives.ColorAccumulator#getColor()}
+     */
+    @Test
+    public void testGetColor() {
+        // =============== Boundary Values Tests ==================
+        // T1, Components over 255 are cut to 255
+        ColorAccumulator sum = new ColorAccumulator().add(new Color(200, 100, 0)).add(new Color(200, 100, 0));
+        assertEquals("ColorAccumulator: getColor() wrong", new java.awt.Color(255, 200, 0), sum.getColor());
+    }
+
+    /**
+     * Test method for {@link primitives.ColorAccumulator#difference(primitives.ColorAccumulator)}
+     */
+    @Test
+    public void testDifference() {
+        // ============ Equivalence Partitions Tests ==============
+        // T1, The biggest component difference
+        ColorAccumulator c1 = new ColorAccumulator().add(new Color(10, 20, 30));
+        ColorAccumulator c2 = new ColorAccumulator().add(new Color(15, 5, 30));
+        assertEquals("ColorAccumulator: difference() wrong", 15, c1.difference(c2), 0.00001);
+
+        // =============== Boundary Values Tests ==================
+        // T2, Components over 255 look the same
+        c1.reset().add(new Color(300, 0, 0));
+        c2.reset().add(new Color(500, 0, 0));
+        assertEquals("ColorAccumulator: difference() over 255 wrong", 0, c1.difference(c2), 0.00001);
+    }
+}
@@ -17,6 +17,22 @@ public class AllEffectsTest {
      * Make a picture from all the effects we did, with 3 geometries
      */
     public void TestAllEffects() {
+        ImageWriter imageWriter = new ImageWriter("allEffects", 150, 150, 500, 500);
+        Render render = new Render(imageWriter, allEffectsScene()).setMultithreading(3).setDebugPrint();;
+        render.set_numOfRays(100);
+        render.set_depthField(true);
+
+
+        render.renderImage();
+        render.writeToImage();
+    }
+
+    /**
+     * Creates the scene of all the effects, with 3 geometries (also used by the render benchmarks)
+     *
+     * @return the scene
+     */
+    public static Scene allEffectsScene() {
         Scene scene = new Scene("Test scene");
         scene.setCamera(new Camera(new Point3D(0, 0, -1000), new Vector(0, 0, 1), new Vector(0, -1, 0), 0.3, 10));
         scene.setDistance(1000);
@@ -33,15 +49,7 @@ public class AllEffectsTest {
 
         scene.addLights(new SpotLight(new Color(1000, 600, 0), new Point3D(-100, 100, -500), new Vector(-1, 1, 2), 1,
                 0.0004, 0.0000006));
-
-        ImageWriter imageWriter = new ImageWriter("allEffects", 150, 150, 500, 500);
-        Render render = new Render(imageWriter, scene).setMultithreading(3).setDebugPrint();;
-        render.set_numOfRays(100);
-        render.set_depthField(true);
-
-
-        render.renderImage();
-        render.writeToImage();
+        return scene;
     }
 
     /**
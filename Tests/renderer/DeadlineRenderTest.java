@@ -0,0 +1,71 @@
+package renderer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for time budgeted rendering feature
+ * @author Moriah and Shahar
+ */
+
+public class DeadlineRenderTest {
+    /**
+     * Test method for {@link renderer.Render#setDeadline(long)}
+     */
+    @Test
+    public void testDeadline() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Enough time - primary passes, refinement, and the final image is the image without a deadline
+        ImageWriter full = new ImageWriter("deadlineFull", 150, 150, 100, 100);
+        new Render(full, ReflectionRefractionTest.twoSpheresOnMirrorsScene()).renderImage();
+        ImageWriter imageWriter = new ImageWriter("deadline", 150, 150, 100, 100);
+        List<Integer> steps = new ArrayList<>();
+        Render render = new Render(imageWriter, ReflectionRefractionTest.twoSpheresOnMirrorsScene()) //
+                .setDeadline(System.currentTimeMillis() + 60000) //
+                .setRenderListener((pass, step, image) -> steps.add(step));
+        render.renderImage();
+        assertEquals("wrong passes", List.of(8, 4, 2, 1, 1), steps);
+        for (int i = 0; i < 100; ++i)
+            for (int j = 0; j < 100; ++j)
+                assertEquals("wrong final image", full.getPixel(j, i), imageWriter.getPixel(j, i));
+
+        // TC02: Not enough time for depth of field - the deadline passes after the coarse primary pass (the
+        // listener waits for it), so the rendering stops without the other passes
+        imageWriter = new ImageWriter("deadlineDepthOfField", 150, 150, 200, 200);
+        render = new Render(imageWriter, AllEffectsTest.allEffectsScene());
+        render.set_numOfRays(100);
+        render.set_depthField(true);
+        List<Integer> stopped = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + 200;
+        render.setDeadline(deadline).setRenderListener((pass, step, image) -> {
+            stopped.add(step);
+            try {
+                Thread.sleep(Math.max(0, deadline - System.currentTimeMillis()) + 10);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }).renderImage();
+        assertEquals("rendering didn't stop at the deadline", List.of(8), stopped);
+        assertEquals("wrong rays after the deadline", 25 * 25, render.getStats().getPrimaryRays());
+        render.writeToImage();
+        render.setRenderListener(null);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Deadline passed - only the coarse primary pass is rendered (one ray for each 8 x 8 block)
+        render.setDeadline(1).renderImage();
+        assertEquals("wrong coarse pass after the deadline", 25 * 25, render.getStats().getPrimaryRays());
+        assertEquals("recursion in the primary pass", 1, render.getStats().getMaxDepth());
+
+        // TC12: Negative deadline
+        try {
+            render.setDeadline(-1);
+            fail("setDeadline() does not throw an error for a negative deadline");
+        }
+        catch (IllegalArgumentException e) {}
+    }
+}
@@ -18,6 +18,35 @@ public class DepthOfFieldTest {
      * Make a picture from all the effects we did, with 8 geometries, 3 light source and the feature
      */
     public void TestDepthOfField() {
+        ImageWriter imageWriter = new ImageWriter("DepthOfField", 150, 150, 500, 500);
+        Render render = new Render(imageWriter, createScene()).setMultithreading(3).setDebugPrint();
+        render.set_numOfRays(100);
+        render.set_depthField(true);
+
+        render.renderImage();
+        render.writeToImage();
+    }
+
+    @Test
+    /**
+     * Make the depth of field picture with adaptive depth of field - stops tracing rays where the color converges
+     */
+    public void TestAdaptiveDepthOfField() {
+        ImageWriter imageWriter = new ImageWriter("AdaptiveDepthOfField", 150, 150, 250, 250);
+        Render render = new Render(imageWriter, createScene()).setDepthFieldTolerance(1);
+        render.set_numOfRays(100);
+        render.set_depthField(true);
+
+        render.renderImage();
+        render.writeToImage();
+    }
+
+    /**
+     * Creates the scene of the depth of field pictures, with 8 geometries and 3 light source
+     *
+     * @return the scene
+     */
+    private Scene createScene() {
         Scene scene = new Scene("Test scene");
         scene.setCamera(new Camera(new Point3D(0, 0, -1000), new Vector(0, 0, 1), new Vector(0, -1, 0), 2.6, 170));
         scene.setDistance(1000);
@@ -51,13 +80,6 @@ public class DepthOfFieldTest {
                 new SpotLight(new Color(255, 195, 154), new Point3D(0, -200, 200),
                         new Vector(0, 1, 0), 1, 0.004, 0.00006)
         );
-
-        ImageWriter imageWriter = new ImageWriter("DepthOfField", 150, 150, 500, 500);
-        Render render = new Render(imageWriter, scene).setMultithreading(3).setDebugPrint();
-        render.set_numOfRays(100);
-        render.set_depthField(true);
-
-        render.renderImage();
-        render.writeToImage();
+        return scene;
     }
 }
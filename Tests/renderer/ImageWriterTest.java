@@ -29,4 +29,25 @@ public class ImageWriterTest {
             }
         imageWriter.writeToImage();
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link renderer.ImageWriter#writeHeatmap(long[])}
+     */
+    @Test
+    public void writeHeatmapTest() {
+        // T01: A heatmap from cheap (left) to expensive (right) pixels
+        ImageWriter imageWriter = new ImageWriter("Test01", 1600, 1000, 160, 100);
+        long[] costs = new long[160 * 100];
+        for (int i = 0; i < 100; i++)
+            for (int j = 0; j < 160; j++)
+                costs[i * 160 + j] = j;
+        imageWriter.writeHeatmap(costs);
+
+        // T02: Wrong number of costs
+        try {
+            imageWriter.writeHeatmap(new long[10]);
+            fail("writeHeatmap() does not throw an error for a wrong number of costs");
+        }
+        catch (IllegalArgumentException e) {}
+    }
+}
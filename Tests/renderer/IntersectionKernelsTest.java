@@ -0,0 +1,57 @@
+package renderer;
+
+import org.junit.Test;
+import scene.Scene;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for intersection kernels feature
+ * @author Moriah and Shahar
+ */
+
+public class IntersectionKernelsTest {
+    /**
+     * Renders a scene with BVH, with and without the intersection kernels, and compares the images
+     *
+     * @param name the name of the images
+     * @param scene the scene without the kernels
+     * @param kernelsScene the same scene for the kernels
+     */
+    private void compare(String name, Scene scene, Scene kernelsScene) {
+        ImageWriter full = new ImageWriter(name + "Full", 150, 150, 100, 100);
+        Render render = new Render(full, scene);
+        render.set_improvementBVH(true);
+        render.renderImage();
+        ImageWriter imageWriter = new ImageWriter(name, 150, 150, 100, 100);
+        render = new Render(imageWriter, kernelsScene).setIntersectionKernels(true);
+        render.set_improvementBVH(true);
+        assertTrue(name + ": kernels are off", render.isIntersectionKernelsOn());
+        render.renderImage();
+        // the intersection points of the kernels may be a little different, so a pixel may be a little different
+        int different = 0;
+        for (int i = 0; i < 100; ++i)
+            for (int j = 0; j < 100; ++j) {
+                java.awt.Color c1 = full.getPixel(j, i), c2 = imageWriter.getPixel(j, i);
+                if (Math.abs(c1.getRed() - c2.getRed()) > 2 || Math.abs(c1.getGreen() - c2.getGreen()) > 2
+                        || Math.abs(c1.getBlue() - c2.getBlue()) > 2)
+                    ++different;
+            }
+        assertTrue(name + ": too many different pixels " + different, different <= 10);
+    }
+
+    /**
+     * Test method for {@link renderer.Render#setIntersectionKernels(boolean)}
+     */
+    @Test
+    public void testIntersectionKernels() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Spheres and triangles with shadows
+        compare("kernelsShadows", ShadowTest.trianglesSphereScene(), ShadowTest.trianglesSphereScene());
+        // TC02: Reflections and refractions, with transparent shadows
+        compare("kernelsMirrors", ReflectionRefractionTest.twoSpheresOnMirrorsScene(),
+                ReflectionRefractionTest.twoSpheresOnMirrorsScene());
+        compare("kernelsTransparent", ReflectionRefractionTest.trianglesTransparentSphereScene(),
+                ReflectionRefractionTest.trianglesTransparentSphereScene());
+    }
+}
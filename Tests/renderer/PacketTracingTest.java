@@ -0,0 +1,59 @@
+package renderer;
+
+import org.junit.Test;
+import scene.Scene;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for packet tracing feature
+ * @author Moriah and Shahar
+ */
+
+public class PacketTracingTest {
+    /**
+     * Renders a scene with and without packet tracing, and compares the images
+     *
+     * @param name the name of the images
+     * @param scene the scene without packet tracing
+     * @param packetScene the same scene for packet tracing
+     * @param bvh true for the BVH improvement
+     */
+    private void compare(String name, Scene scene, Scene packetScene, boolean bvh) {
+        ImageWriter full = new ImageWriter(name + "Full", 150, 150, 100, 100);
+        Render render = new Render(full, scene);
+        render.set_improvementBVH(bvh);
+        render.renderImage();
+        ImageWriter imageWriter = new ImageWriter(name, 150, 150, 100, 100);
+        render = new Render(imageWriter, packetScene).setPacketTracing(true).setMultithreading(2).setTileSize(10);
+        render.set_improvementBVH(bvh);
+        render.renderImage();
+        assertEquals(name + ": wrong number of primary rays", 10000, render.getStats().getPrimaryRays());
+        // the points of the packet intersections may be a little different, so a pixel may be a little different
+        int different = 0;
+        for (int i = 0; i < 100; ++i)
+            for (int j = 0; j < 100; ++j) {
+                java.awt.Color c1 = full.getPixel(j, i), c2 = imageWriter.getPixel(j, i);
+                if (Math.abs(c1.getRed() - c2.getRed()) > 2 || Math.abs(c1.getGreen() - c2.getGreen()) > 2
+                        || Math.abs(c1.getBlue() - c2.getBlue()) > 2)
+                    ++different;
+            }
+        assertTrue(name + ": too many different pixels " + different, different <= 10);
+    }
+
+    /**
+     * Test method for {@link renderer.Render#setPacketTracing(boolean)}
+     */
+    @Test
+    public void testPacketTracing() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Spheres and triangles with shadows, with and without BVH
+        compare("packetShadows", ShadowTest.trianglesSphereScene(), ShadowTest.trianglesSphereScene(), false);
+        compare("packetShadowsBVH", ShadowTest.trianglesSphereScene(), ShadowTest.trianglesSphereScene(), true);
+        // TC02: Reflections and refractions
+        compare("packetMirrors", ReflectionRefractionTest.twoSpheresOnMirrorsScene(),
+                ReflectionRefractionTest.twoSpheresOnMirrorsScene(), true);
+        compare("packetTransparent", ReflectionRefractionTest.trianglesTransparentSphereScene(),
+                ReflectionRefractionTest.trianglesTransparentSphereScene(), true);
+    }
+}
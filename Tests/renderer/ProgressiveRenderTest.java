@@ -0,0 +1,50 @@
+package renderer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for progressive rendering feature
+ * @author Moriah and Shahar
+ */
+
+public class ProgressiveRenderTest {
+    /**
+     * Test method for {@link renderer.Render#setProgressive(boolean)}
+     */
+    @Test
+    public void testProgressive() {
+        ImageWriter full = new ImageWriter("progressiveFull", 150, 150, 100, 100);
+        new Render(full, ReflectionRefractionTest.twoSpheresOnMirrorsScene()).renderImage();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Passes with steps 8, 4, 2, 1, and the final image is the image without progressive rendering
+        ImageWriter imageWriter = new ImageWriter("progressive", 150, 150, 100, 100);
+        List<Integer> steps = new ArrayList<>();
+        Render render = new Render(imageWriter, ReflectionRefractionTest.twoSpheresOnMirrorsScene()) //
+                .setProgressive(true) //
+                .setPreview(true) //
+                .setMultithreading(2) //
+                .setTileSize(12) //
+                .setRenderListener((pass, step, image) -> {
+                    assertEquals("wrong pass number", steps.size() + 1, pass);
+                    steps.add(step);
+                    // TC02: Each pixel has the color of the pixel on the grid of the pass (block fill)
+                    if (step > 1)
+                        for (int i = 0; i < 100; ++i)
+                            for (int j = 0; j < 100; ++j)
+                                assertEquals("wrong block fill", image.getPixel(j - j % step, i - i % step),
+                                        image.getPixel(j, i));
+                });
+        render.renderImage();
+        assertEquals("wrong passes", List.of(8, 4, 2, 1), steps);
+        for (int i = 0; i < 100; ++i)
+            for (int j = 0; j < 100; ++j)
+                assertEquals("wrong final image", full.getPixel(j, i), imageWriter.getPixel(j, i));
+        render.writeToImage();
+    }
+}
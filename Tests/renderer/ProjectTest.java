@@ -15,6 +15,23 @@ public class ProjectTest {
      * Make a picture from all the effects we did, with 8 geometries, 3 light source and the feature
      */
     public void TestProject() {
+        ImageWriter imageWriter = new ImageWriter("ProjectWithDepthOfField", 15, 15, 500, 500);
+        Render render = new Render(imageWriter, projectScene()).setMultithreading(3).setDebugPrint();
+        render.set_numOfRays(100);
+        render.set_depthField(true);
+        render.set_improvementBVH(true);
+
+        render.renderImage();
+        render.writeToImage();
+    }
+
+    /**
+     * Creates the project scene - a teapot on a table, with about 90,000 geometries and 4 light sources
+     * (also used by the render benchmarks)
+     *
+     * @return the scene
+     */
+    public static Scene projectScene() {
         Scene scene = new Scene("Test scene");
         scene.setCamera(new Camera(new Point3D(20, 0, 0), new Vector(-1, 0, 0), new Vector(0, 0, 1), 0.2, 3.349));
         scene.setDistance(15);
@@ -198,14 +215,6 @@ public class ProjectTest {
                         1, 0.0003, 0.000002),
                 new SpotLight(new Color(173, 123, 0), new Point3D(0, -30, -4),
                         new Vector(0.5, 20, -1), 1, 0.0006,0.00002));
-
-        ImageWriter imageWriter = new ImageWriter("ProjectWithDepthOfField", 15, 15, 500, 500);
-        Render render = new Render(imageWriter, scene).setMultithreading(3).setDebugPrint();
-        render.set_numOfRays(100);
-        render.set_depthField(true);
-        render.set_improvementBVH(true);
-
-        render.renderImage();
-        render.writeToImage();
+        return scene;
     }
 }
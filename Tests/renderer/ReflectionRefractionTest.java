@@ -48,6 +48,20 @@ public class ReflectionRefractionTest {
 	 */
 	@Test
 	public void twoSpheresOnMirrors() {
+		ImageWriter imageWriter = new ImageWriter("twoSpheresMirrored", 2500, 2500, 500, 500);
+		Render render = new Render(imageWriter, twoSpheresOnMirrorsScene());
+
+		render.renderImage();
+		render.writeToImage();
+	}
+
+	/**
+	 * Creates the scene of two spheres (one inside the other) on two mirrors lighted by a spot light
+	 * (also used by the render benchmarks)
+	 *
+	 * @return the scene
+	 */
+	public static Scene twoSpheresOnMirrorsScene() {
 		Scene scene = new Scene("Test scene");
 		scene.setCamera(new Camera(new Point3D(0, 0, -10000), new Vector(0, 0, 1), new Vector(0, -1, 0)));
 		scene.setDistance(10000);
@@ -64,12 +78,7 @@ public class ReflectionRefractionTest {
 
 		scene.addLights(new SpotLight(new Color(1020, 400, 400),  new Point3D(-750, 750, 150), 
 				   new Vector(-1, 1, 4), 1, 0.00001, 0.000005));
-
-		ImageWriter imageWriter = new ImageWriter("twoSpheresMirrored", 2500, 2500, 500, 500);
-		Render render = new Render(imageWriter, scene);
-
-		render.renderImage();
-		render.writeToImage();
+		return scene;
 	}
 	
 	/**
@@ -78,6 +87,20 @@ public class ReflectionRefractionTest {
 	 */
 	@Test
 	public void trianglesTransparentSphere() {
+		ImageWriter imageWriter = new ImageWriter("shadow with transparency", 200, 200, 600, 600);
+		Render render = new Render(imageWriter, trianglesTransparentSphereScene());
+
+		render.renderImage();
+		render.writeToImage();
+	}
+
+	/**
+	 * Creates the scene of two triangles lighted by a spot light with a partially transparent Sphere
+	 * producing partial shadow (also used by the render benchmarks)
+	 *
+	 * @return the scene
+	 */
+	public static Scene trianglesTransparentSphereScene() {
 		Scene scene = new Scene("Test scene");
 		scene.setCamera(new Camera(new Point3D(0, 0, -1000), new Vector(0, 0, 1), new Vector(0, -1, 0)));
 		scene.setDistance(1000);
@@ -94,11 +117,6 @@ public class ReflectionRefractionTest {
 
 		scene.addLights(new SpotLight(new Color(700, 400, 400), //
 				new Point3D(60, -50, 0), new Vector(0, 0, 1), 1, 4E-5, 2E-7));
-
-		ImageWriter imageWriter = new ImageWriter("shadow with transparency", 200, 200, 600, 600);
-		Render render = new Render(imageWriter, scene);
-
-		render.renderImage();
-		render.writeToImage();
+		return scene;
 	}
 }
@@ -0,0 +1,96 @@
+package renderer;
+
+import org.junit.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for asynchronous rendering
+ * @author Moriah and Shahar
+ */
+
+public class RenderAsyncTest {
+    /**
+     * Test method for {@link renderer.Render#renderAsync(java.util.concurrent.Executor, java.util.function.IntConsumer)}
+     */
+    @Test
+    public void testRenderAsync() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: The image and the statistics of an asynchronous rendering, with progress up to 100%
+            ImageWriter full = new ImageWriter("renderAsyncFull", 150, 150, 100, 100);
+            new Render(full, ReflectionRefractionTest.twoSpheresOnMirrorsScene()).renderImage();
+            ImageWriter imageWriter = new ImageWriter("renderAsync", 150, 150, 100, 100);
+            AtomicInteger progress = new AtomicInteger(-1);
+            Render render = new Render(imageWriter, ReflectionRefractionTest.twoSpheresOnMirrorsScene())
+                    .setMultithreading(3);
+            RenderStats stats = render.renderAsync(executor, progress::set).get(60, TimeUnit.SECONDS);
+            assertEquals("wrong number of primary rays", 10000, stats.getPrimaryRays());
+            assertSame("wrong statistics", stats, render.getStats());
+            assertEquals("wrong progress", 100, progress.get());
+            for (int i = 0; i < 100; ++i)
+                for (int j = 0; j < 100; ++j)
+                    assertEquals("wrong image", full.getPixel(j, i), imageWriter.getPixel(j, i));
+
+            // TC02: Cancelled rendering - the worker stops (and frees the pool thread)
+            executor.shutdown();
+            executor = Executors.newSingleThreadExecutor();
+            render = new Render(new ImageWriter("renderAsyncCancelled", 150, 150, 500, 500),
+                    AllEffectsTest.allEffectsScene());
+            render.set_numOfRays(100);
+            render.set_depthField(true);
+            RenderStats last = render.getStats();
+            CountDownLatch started = new CountDownLatch(1);
+            CompletableFuture<RenderStats> future = render.renderAsync(executor, percents -> started.countDown());
+            assertTrue("rendering didn't start", started.await(10, TimeUnit.SECONDS));
+            assertTrue("rendering not cancelled", future.cancel(true));
+            assertNull("worker didn't stop", executor.submit(() -> {}).get(10, TimeUnit.SECONDS));
+
+            // TC03: A cancelled rendering doesn't replace the statistics of the last rendering
+            assertSame("statistics of a cancelled rendering", last, render.getStats());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.Render#renderImage()} and
+     * {@link renderer.Render#renderAsync(java.util.concurrent.Executor)} with failures
+     */
+    @Test
+    public void testFailure() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A failure of a rendering thread is thrown by renderImage
+        ImageWriter failing = new ImageWriter("renderFailure", 150, 150, 50, 50) {
+            @Override
+            public void writePixel(int xIndex, int yIndex, java.awt.Color color) {
+                throw new IllegalStateException("Can't write the pixel");
+            }
+        };
+        Render render = new Render(failing, ShadowTest.trianglesSphereScene()).setMultithreading(2);
+        try {
+            render.renderImage();
+            fail("renderImage() does not throw the failure of a thread");
+        }
+        catch (IllegalStateException e) {}
+
+        // TC02: A failure of the listener completes the future with the failure
+        render = new Render(new ImageWriter("renderFailure", 150, 150, 50, 50), ShadowTest.trianglesSphereScene())
+                .setRenderListener((pass, step, image) -> {
+                    throw new IllegalStateException("Listener failed");
+                });
+        CompletableFuture<RenderStats> future = render.renderAsync(ForkJoinPool.commonPool());
+        try {
+            future.join();
+            fail("renderAsync() does not complete with the failure of the listener");
+        }
+        catch (CompletionException e) {
+            assertTrue("wrong failure", e.getCause() instanceof IllegalStateException);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package renderer;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the render executors (renderer.RenderExecutor implementations)
+ * @author Moriah and Shahar
+ */
+
+public class RenderExecutorTest {
+    /**
+     * Test method for {@link renderer.Render#setRenderExecutor(renderer.RenderExecutor)}
+     */
+    @Test
+    public void testRenderExecutors() {
+        ImageWriter full = new ImageWriter("renderExecutorFull", 150, 150, 100, 100);
+        new Render(full, ReflectionRefractionTest.twoSpheresOnMirrorsScene()).renderImage();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            RenderExecutor[] executors = { new ThreadRenderExecutor(), new PoolRenderExecutor(),
+                    new PoolRenderExecutor(pool, 2), new VirtualThreadRenderExecutor() };
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: All the executors render the same image
+            for (RenderExecutor executor : executors) {
+                String name = executor.getClass().getSimpleName();
+                ImageWriter imageWriter = new ImageWriter("renderExecutor", 150, 150, 100, 100);
+                Render render = new Render(imageWriter, ReflectionRefractionTest.twoSpheresOnMirrorsScene())
+                        .setMultithreading(3).setRenderExecutor(executor);
+                render.renderImage();
+                assertEquals(name + ": wrong number of primary rays", 10000, render.getStats().getPrimaryRays());
+                for (int i = 0; i < 100; ++i)
+                    for (int j = 0; j < 100; ++j)
+                        assertEquals(name + ": wrong image", full.getPixel(j, i), imageWriter.getPixel(j, i));
+            }
+
+            // TC02: Concurrent renderings sharing a pool
+            Render render1 = new Render(new ImageWriter("renderExecutor1", 150, 150, 100, 100),
+                    ReflectionRefractionTest.twoSpheresOnMirrorsScene()).setRenderExecutor(executors[2]);
+            Render render2 = new Render(new ImageWriter("renderExecutor2", 150, 150, 100, 100),
+                    ShadowTest.trianglesSphereScene()).setRenderExecutor(executors[2]);
+            CompletableFuture<RenderStats> future1 = render1.renderAsync();
+            CompletableFuture<RenderStats> future2 = render2.renderAsync();
+            assertEquals("wrong first rendering", 10000, future1.join().getPrimaryRays());
+            assertEquals("wrong second rendering", 10000, future2.join().getPrimaryRays());
+        }
+        finally {
+            pool.shutdownNow();
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Zero parallelism
+        try {
+            new PoolRenderExecutor(pool, 0);
+            fail("PoolRenderExecutor does not throw an error for zero parallelism");
+        }
+        catch (IllegalArgumentException e) {}
+    }
+
+    /**
+     * Test method for {@link renderer.RenderExecutor#getWorkers(int, int)}
+     */
+    @Test
+    public void testGetWorkers() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Threads of the Render, pool parallelism, one worker for each tile of virtual threads
+        assertEquals("ThreadRenderExecutor: wrong workers", 3, new ThreadRenderExecutor().getWorkers(3, 40));
+        assertEquals("PoolRenderExecutor: wrong workers", 5, new PoolRenderExecutor(Runnable::run, 5).getWorkers(3, 40));
+        VirtualThreadRenderExecutor virtual = new VirtualThreadRenderExecutor();
+        if (virtual.isVirtual())
+            assertEquals("VirtualThreadRenderExecutor: wrong workers", 40, virtual.getWorkers(3, 40));
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No more pool workers than tiles
+        assertEquals("PoolRenderExecutor: too many workers", 2, new PoolRenderExecutor(Runnable::run, 5).getWorkers(3, 2));
+    }
+}
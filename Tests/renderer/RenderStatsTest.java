@@ -0,0 +1,138 @@
+package renderer;
+
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for renderer.RenderStats (the statistics of a rendering)
+ * @author Moriah and Shahar
+ */
+
+public class RenderStatsTest {
+    /**
+     * Test method for {@link renderer.Render#getStats()}
+     */
+    @Test
+    public void testGetStats() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Reflections and refractions with BVH and intersection statistics on
+        Render render = new Render(new ImageWriter("renderStats", 150, 150, 50, 50),
+                ReflectionRefractionTest.twoSpheresOnMirrorsScene()).setIntersectionStats(true);
+        render.set_improvementBVH(true);
+        render.renderImage();
+        RenderStats stats = render.getStats();
+        assertEquals("wrong number of primary rays", 2500, stats.getPrimaryRays());
+        assertTrue("no secondary rays", stats.getSecondaryRays() > 0);
+        assertTrue("no shadow rays", stats.getShadowRays() > 0);
+        assertTrue("wrong max depth", stats.getMaxDepth() > 1 && stats.getMaxDepth() <= 10);
+        assertTrue("no BVH nodes visited", stats.getNodesVisited() > 0);
+        Map<String, Long> tests = stats.getPrimitiveTests();
+        assertTrue("no sphere tests", tests.getOrDefault("Sphere", 0L) > 0);
+        assertTrue("no triangle tests", tests.getOrDefault("Triangle", 0L) > 0);
+        assertTrue("no render time", stats.getRenderNanos() > 0);
+        assertFalse("intersection statistics left on", geometries.IntersectionStats.isEnabled());
+
+        // TC02: Intersection statistics off
+        render.setIntersectionStats(false).renderImage();
+        assertEquals("BVH nodes counted", 0, render.getStats().getNodesVisited());
+        assertTrue("tests counted", render.getStats().getPrimitiveTests().isEmpty());
+
+        // TC03: Two renderings at the same time, only one of them with intersection statistics
+        Render counting = new Render(new ImageWriter("renderStatsCounting", 150, 150, 50, 50),
+                ReflectionRefractionTest.twoSpheresOnMirrorsScene()).setIntersectionStats(true);
+        counting.set_improvementBVH(true);
+        Render other = new Render(new ImageWriter("renderStatsOther", 150, 150, 50, 50),
+                ReflectionRefractionTest.twoSpheresOnMirrorsScene());
+        other.set_improvementBVH(true);
+        java.util.concurrent.CompletableFuture<RenderStats> countingStats = counting.renderAsync();
+        RenderStats otherStats = other.renderAsync().join();
+        assertEquals("wrong BVH nodes counted at the same time", stats.getNodesVisited(),
+                countingStats.join().getNodesVisited());
+        assertEquals("BVH nodes counted by the other rendering", 0, otherStats.getNodesVisited());
+        assertTrue("tests counted by the other rendering", otherStats.getPrimitiveTests().isEmpty());
+        assertFalse("intersection statistics left on", geometries.IntersectionStats.isEnabled());
+
+        // TC04: The scene building time ends with the last geometries added, not when the Render is made
+        long beforeScene = System.nanoTime();
+        scene.Scene scene = ReflectionRefractionTest.twoSpheresOnMirrorsScene();
+        long afterScene = System.nanoTime();
+        render = new Render(new ImageWriter("renderStatsScene", 150, 150, 10, 10), scene);
+        render.renderImage();
+        assertEquals("wrong scene building time", scene.getBuildNanos(), render.getStats().getSceneBuildNanos());
+        assertTrue("wrong scene building time", render.getStats().getSceneBuildNanos() > 0
+                && render.getStats().getSceneBuildNanos() <= afterScene - beforeScene);
+    }
+
+    /**
+     * Test method for {@link renderer.Render#registerStatsMBean()}
+     */
+    @Test
+    public void testRegisterStatsMBean() throws Exception {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The MBean shows the statistics of the last rendering
+        Render render = new Render(new ImageWriter("renderStatsMBean", 150, 150, 20, 20),
+                ShadowTest.trianglesSphereScene());
+        ObjectName name = render.registerStatsMBean();
+        try {
+            render.renderImage();
+            assertEquals("wrong MBean primary rays", 400L,
+                    ManagementFactory.getPlatformMBeanServer().getAttribute(name, "PrimaryRays"));
+        }
+        finally {
+            render.unregisterStatsMBean();
+        }
+        assertFalse("MBean not removed", ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    /**
+     * Test method for {@link renderer.Render#setPixelCost(renderer.Render.PixelCost)}
+     */
+    @Test
+    public void testPixelCosts() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Intersection tests of each pixel add up to all the tests of the rendering
+        Render render = new Render(new ImageWriter("renderStatsHeatmap", 150, 150, 50, 50),
+                ReflectionRefractionTest.twoSpheresOnMirrorsScene()).setIntersectionStats(true)
+                .setPixelCost(Render.PixelCost.INTERSECTION_TESTS);
+        render.renderImage();
+        long sum = 0;
+        for (long cost : render.getPixelCosts()) {
+            assertTrue("pixel with no intersection tests", cost > 0);
+            sum += cost;
+        }
+        long tests = 0;
+        for (long count : render.getStats().getPrimitiveTests().values())
+            tests += count;
+        assertEquals("pixel costs don't add up", tests, sum);
+        render.writeToImage();
+
+        // TC02: Pixel times
+        render.setIntersectionStats(false).setPixelCost(Render.PixelCost.TIME).renderImage();
+        assertEquals("wrong number of pixel costs", 2500, render.getPixelCosts().length);
+
+        // TC03: No heatmap
+        render.setPixelCost(Render.PixelCost.NONE).renderImage();
+        assertNull("pixel costs without heatmap", render.getPixelCosts());
+
+        // TC04: A heatmap rendering at the same time as a rendering without a heatmap
+        Render heatmap = new Render(new ImageWriter("renderStatsHeatmap2", 150, 150, 50, 50),
+                ReflectionRefractionTest.twoSpheresOnMirrorsScene()).setPixelCost(Render.PixelCost.INTERSECTION_TESTS);
+        Render other = new Render(new ImageWriter("renderStatsNoHeatmap", 150, 150, 50, 50),
+                ReflectionRefractionTest.twoSpheresOnMirrorsScene());
+        java.util.concurrent.CompletableFuture<RenderStats> heatmapDone = heatmap.renderAsync();
+        other.renderAsync().join();
+        heatmapDone.join();
+        long concurrentSum = 0;
+        for (long cost : heatmap.getPixelCosts()) {
+            assertTrue("pixel with no intersection tests at the same time", cost > 0);
+            concurrentSum += cost;
+        }
+        assertEquals("pixel costs at the same time don't add up", sum, concurrentSum);
+        assertNull("pixel costs of the rendering without heatmap", other.getPixelCosts());
+    }
+}
@@ -149,6 +149,20 @@ public class ShadowTest {
 	 */
 	@Test
 	public void trianglesSphere() {
+		ImageWriter imageWriter = new ImageWriter("trianglesSphere", 200, 200, 600, 600);
+		Render render = new Render(imageWriter, trianglesSphereScene());
+
+		render.renderImage();
+		render.writeToImage();
+	}
+
+	/**
+	 * Creates the scene of two triangles lighted by a spot light with a Sphere producing a shading
+	 * (also used by the render benchmarks)
+	 *
+	 * @return the scene
+	 */
+	public static Scene trianglesSphereScene() {
 		Scene scene = new Scene("Test scene");
 		scene.setCamera(new Camera(new Point3D(0, 0, -1000), new Vector(0, 0, 1), new Vector(0, -1, 0)));
 		scene.setDistance(1000);
@@ -165,12 +179,7 @@ public class ShadowTest {
 
 		scene.addLights(new SpotLight(new Color(700, 400, 400), //
 				new Point3D(40, -40, -115), new Vector(-1, 1, 4), 1, 4E-4, 2E-5));
-
-		ImageWriter imageWriter = new ImageWriter("trianglesSphere", 200, 200, 600, 600);
-		Render render = new Render(imageWriter, scene);
-
-		render.renderImage();
-		render.writeToImage();
+		return scene;
 	}
 
 }
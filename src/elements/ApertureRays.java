@@ -0,0 +1,139 @@
+package elements;
+
+import primitives.*;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static primitives.Util.isZero;
+
+/**
+ * ApertureRays class constructs the rays from the aperture adjuster plane of a pixel one by one
+ * (for the depth field feature), so the rays can be traced as they are constructed, without keeping them all.<br/>
+ * The first ray is the basic ray, and the others are from points on the aperture (chosen by the camera's sampler)
+ * in the direction to the focal point (Where the basic ray intersects with the focal plane)
+ *
+ * @author Moriah and Shahar
+ */
+
+public class ApertureRays implements Iterator<Ray> {
+    /**
+     * The camera that the rays are constructed from
+     */
+    private final Camera _camera;
+    /**
+     * The distance of the view plane from the camera
+     */
+    private final double _screenDistance;
+    /**
+     * The number of rays to construct (including the basic ray)
+     */
+    private final int _numOfRays;
+    /**
+     * The ray from the camera to the pixel
+     */
+    private final Ray _basicRay;
+    /**
+     * The point on the view screen that the aperture is around it
+     */
+    private final Point3D _pointOnPixel;
+    /**
+     * The point on the focal plane that all the rays go to
+     */
+    private final Point3D _focalPoint;
+    /**
+     * The seed of the pixel's samples
+     */
+    private final long _seed;
+    /**
+     * The index of the next ray
+     */
+    private int _next = 0;
+    /**
+     * The array that the sampler puts the sample point into
+     */
+    private final double[] _sample = new double[2];
+
+    /**
+     * ApertureRays constructor - prepares the construction of the rays of a pixel
+     *
+     * @param camera the camera that the rays are constructed from
+     * @param screenDistance the distance of the view plane from the camera
+     * @param basicRay the ray from the camera to a pixel. Defines the focal point
+     * @param numOfRays number of rays to make from the adjuster plane. Defines photo and deep field feature quality
+     */
+    public ApertureRays(Camera camera, double screenDistance, Ray basicRay, int numOfRays) {
+        _camera = camera;
+        _screenDistance = screenDistance;
+        _basicRay = basicRay;
+        _numOfRays = numOfRays;
+        // the seed of the pixel - from the camera seed and the ray, so each pixel has its own samples
+        long seed = Sampler.mix(camera._seed ^ Double.doubleToLongBits(basicRay.getDirectionX()));
+        seed = Sampler.mix(seed ^ Double.doubleToLongBits(basicRay.getDirectionY()));
+        _seed = Sampler.mix(seed ^ Double.doubleToLongBits(basicRay.getDirectionZ()));
+        Vector direction = basicRay.get_direction();
+        // distance is the distance from the point on the view screen (that the aperture is around it) to the camera
+        double distance = screenDistance / (camera._vTo.dotProduct(direction));
+        _pointOnPixel = camera._p0.add(direction.scale(distance));
+        double distanceBetweenCameraAndFocalPlane = screenDistance + camera._focusDistance;
+        // focalPointDistance is the distance from the focalPoint to the camera
+        double focalPointDistance = distanceBetweenCameraAndFocalPlane / (camera._vTo.dotProduct(direction));
+        _focalPoint = camera._p0.add(direction.scale(focalPointDistance));
+    }
+
+    @Override
+    public boolean hasNext() {
+        return _next < _numOfRays;
+    }
+
+    /**
+     * Constructs the next ray - the basic ray first, and then rays from the aperture to the focal point
+     * scattered over the aperture by the sampler
+     *
+     * @return the next ray
+     * @throws NoSuchElementException if all the rays were constructed
+     */
+    @Override
+    public Ray next() {
+        if (_next >= _numOfRays)
+            throw new NoSuchElementException("All the rays from the aperture were constructed");
+        int k = _next++;
+        if (k == 0)
+            return _basicRay;
+        double aperture = _camera._aperture;
+        /* The way we chose a point:
+           We thought about the aperture square as a 2d coordinate system (with right as x and up as y),
+           and the 0 point is the middle point on the aperture (and on the pixel).
+           Therefore, each axis can get numbers between -_aperture/2 and _aperture/2
+           The sampler chooses a point in the unit square, and we move it into the aperture square
+           (or into the aperture circle, after mapping the point into the unit disk)
+         */
+        _camera._sampler.sample(_seed, k - 1, _numOfRays - 1, _sample);
+        if (_camera._circularAperture) {
+            Sampler.toDisk(_sample);
+            _sample[0] = (_sample[0] + 1) / 2;
+            _sample[1] = (_sample[1] + 1) / 2;
+        }
+        // get the middle point on the aperture
+        Point3D pointInAperture = _pointOnPixel;
+        // get a number that symbolizes how much we need to move right (or left if the number is negative) over the aperture square
+        double right = (_sample[0] * aperture) - (aperture / 2); // A number between -_aperture/2 and _aperture/2
+        if (!isZero(right))
+            // move the middle point according to the number we got before, rightwards (or leftwards if the number is negative)
+            // adds to the middle point, the vector _vRight in length of the number
+            pointInAperture = pointInAperture.add(_camera._vRight.scale(right));
+        // get a number that symbolizes how much we need to move up (or down if the number is negative) over the aperture square
+        double up = (_sample[1] * aperture) - (aperture / 2); // A number between -_aperture/2 and _aperture/2
+        if (!isZero(up))
+            // move the point (after we moved it rightwards) according to the number we got before, upwards (or downwards if the number is negative)
+            // adds to the point (after we moved it rightwards), the vector _vUp in length of the number
+            pointInAperture = pointInAperture.add(_camera._vUp.scale(up));
+        // calculate rays vector. The vector from the point on the aperture to the focal point
+        Vector rayVector = _focalPoint.subtract(pointInAperture).normalized();
+        // We want to find the point on the ray in the camera plane
+        // The reason is that we are missing all the part of the scene that is between the camera and the view plane,
+        // so we want that the beginning of these rays would be at the same plane as the camera
+        Point3D pointOnCameraPlane = pointInAperture.add(rayVector.scale(-1 * _screenDistance / (rayVector.dotProduct(_camera._vTo))));
+        return new Ray(pointOnCameraPlane, rayVector);
+    }
+}
@@ -4,7 +4,6 @@ import primitives.*;
 
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Random;
 
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
@@ -42,6 +41,19 @@ public class Camera {
      */
     double _focusDistance;
 
+    /**
+     * The way to choose the points on the aperture adjuster (random by default)
+     */
+    Sampler _sampler = new RandomSampler();
+    /**
+     * The seed of the aperture samples - together with the pixel it defines the chosen points on the aperture
+     */
+    long _seed = 0;
+    /**
+     * Is the aperture adjuster a circle (with diameter of the aperture size) or a square
+     */
+    boolean _circularAperture = false;
+
     /**
      * Camera constructor receiving a point and two vectors.
      * Creates a third vector (vRight) that is orthogonal to the two vectors.
@@ -87,10 +99,10 @@ public class Camera {
     /**
      * _p0 value getter
      *
-     * @return a new point with _p0 value
+     * @return the point of the camera (a point cannot be changed, so it is not copied)
      */
     public Point3D get_p0() {
-        return new Point3D(_p0);
+        return _p0;
     }
 
     /**
@@ -137,6 +149,72 @@ public class Camera {
         return _focusDistance;
     }
 
+    /**
+     * _sampler getter
+     *
+     * @return the way to choose the points on the aperture adjuster
+     */
+    public Sampler get_sampler() {
+        return _sampler;
+    }
+
+    /**
+     * _sampler setter
+     *
+     * @param sampler the way to choose the points on the aperture adjuster
+     * @return the Camera object itself
+     */
+    public Camera setSampler(Sampler sampler) {
+        _sampler = sampler;
+        return this;
+    }
+
+    /**
+     * _seed setter - the same seed (with the same sampler) gives the same picture
+     *
+     * @param seed the seed of the aperture samples
+     * @return the Camera object itself
+     */
+    public Camera setSeed(long seed) {
+        _seed = seed;
+        return this;
+    }
+
+    /**
+     * _circularAperture setter
+     *
+     * @param circularAperture true for a circle aperture adjuster (the samples are mapped into a disk),
+     *                         false for a square one
+     * @return the Camera object itself
+     */
+    public Camera setCircularAperture(boolean circularAperture) {
+        _circularAperture = circularAperture;
+        return this;
+    }
+
+    /**
+     * Makes the view plane of a picture - for constructing the rays through its pixels without repeating the
+     * calculations that are the same for all the pixels
+     *
+     * @param nX pixel width
+     * @param nY pixel height
+     * @param screenDistance the distance of the view plane from the camera
+     * @param screenWidth view plane's width
+     * @param screenHeight view plane's height
+     * @return the view plane
+     */
+    public ViewPlane getViewPlane(int nX, int nY, double screenDistance, double screenWidth, double screenHeight) {
+        if (nX <= 0 || nY <= 0)
+            throw new IllegalArgumentException("Number of pixels has to be positive");
+        if (alignZero(screenDistance) <= 0)
+            throw new IllegalArgumentException("Distance has to be positive");
+        if (alignZero(screenWidth) <= 0)
+            throw new IllegalArgumentException("Width has to be positive");
+        if (alignZero(screenHeight) <= 0)
+            throw new IllegalArgumentException("Height has to be positive");
+        return new ViewPlane(this, nX, nY, screenDistance, screenWidth, screenHeight);
+    }
+
     /**
      * Calculates the ray from the camera that gets to the middle of the given pixel on the view plane
      *
@@ -162,9 +240,30 @@ public class Camera {
             throw new IllegalArgumentException("Width has to be positive");
         if (alignZero(screenHeight) <= 0)
             throw new IllegalArgumentException("Height has to be positive");
+        return constructRayThroughPoint(nX, nY, j, i, screenDistance, screenWidth, screenHeight);
+    }
+
+    /**
+     * Calculates the ray from the camera that gets to a given point on the view plane.
+     * The point is given in pixel units - the middle of the pixel j, i is the point (j, i),
+     * so any point in the pixel is between j - 0.5 and j + 0.5 (and between i - 0.5 and i + 0.5)
+     * For the anti aliasing feature
+     *
+     * @param nX pixel width
+     * @param nY pixel height
+     * @param x x coordinate of the point on the view plane (in pixels)
+     * @param y y coordinate of the point on the view plane (in pixels)
+     * @param screenDistance the distance of the view plane from the camera
+     * @param screenWidth view plane's width
+     * @param screenHeight view plane's height
+     * @return A ray from the camera to the point x, y on the view plane
+     */
+    public Ray constructRayThroughPoint (int nX, int nY, double x, double y, double screenDistance, double screenWidth, double screenHeight) {
+        if (x < -0.5 || y < -0.5 || x > nX - 0.5 || y > nY - 0.5)
+            throw new IllegalArgumentException("Coordinates out of boundaries");
         Point3D pC = this._p0.add(this._vTo.scale(screenDistance));
-        double yI = (i - (nY-1)/2d) * (screenHeight/nY);
-        double xJ = (j - (nX-1)/2d) * (screenWidth/nX);
+        double yI = (y - (nY-1)/2d) * (screenHeight/nY);
+        double xJ = (x - (nX-1)/2d) * (screenWidth/nX);
         Point3D pIJ = pC;
         if (!isZero(xJ))
             pIJ = pIJ.add(this._vRight.scale(xJ));
@@ -184,48 +283,25 @@ public class Camera {
      * @return A list with numOfRays constructed rays
      */
     public List<Ray> constructRaysFromAperture(double screenDistance, Ray basicRay, double numOfRays) {
-        Random rand = new Random();
-        // distance is the distance from the point on the view screen (that the aperture is around it) to the camera
-        double distance = screenDistance/(_vTo.dotProduct(basicRay.get_direction()));
-        Point3D pointOnPixel = _p0.add(basicRay.get_direction().scale(distance));
         // rays is the list of all the rays we check because of depth of field
-        List<Ray> rays = new LinkedList<>(List.of(basicRay));
-        double distanceBetweenCameraAndFocalPlane = screenDistance + _focusDistance;
-        // focalPointDistance is the distance from the focalPoint to the camera
-        double focalPointDistance = distanceBetweenCameraAndFocalPlane/(_vTo.dotProduct(basicRay.get_direction()));
-        Point3D focalPoint = _p0.add(basicRay.get_direction().scale(focalPointDistance));
-        // calculating all the rays from the aperture to the focal point
-        // scattered randomly over the aperture square
-        for (int k = 1; k < numOfRays; k++) {
-            /* The way we chose a point:
-               We thought about the aperture square as a 2d coordinate system (with right as x and up as y),
-               and the 0 point is the middle point on the aperture (and on the pixel).
-               Therefore, each axis can get numbers between -_aperture/2 and _aperture/2
-               We found a random number for x (right) between -_aperture/2 and _aperture/2 and a random number for y (up) between -_aperture/2 and _aperture/2,
-               and that's how we worried that the points will be scattered randomly over the aperture square
-             */
-            // get the middle point on the aperture
-            Point3D pointInAperture = new Point3D(pointOnPixel);
-            // get a random number that symbolizes how much we need to move right (or left if the number is negative) over the aperture square
-            double right = (rand.nextDouble() * _aperture) - (_aperture / 2); // A random between -_aperture/2 and _aperture/2
-            if (!isZero(right))
-                // move the middle point according to the random number we got before, rightwards (or leftwards if the number is negative)
-                // adds to the middle point, the vector _vRight in length of the random number
-                pointInAperture = pointInAperture.add(this._vRight.scale(right));
-            // get a random number that symbolizes how much we need to move up (or down if the number is negative) over the aperture square
-            double up = (rand.nextDouble() * _aperture) - (_aperture / 2); // A random between -_aperture/2 and _aperture/2
-            if (!isZero(up))
-                // move the point (after we moved it rightwards) according to the random number we got before, upwards (or downwards if the number is negative)
-                // adds to the point (after we moved it rightwards), the vector _vUp in length of the random number
-                pointInAperture = pointInAperture.add(this._vUp.scale(up));
-            // calculate rays vector. The vector from the point on the aperture to the focal point
-            Vector rayVector = focalPoint.subtract(pointInAperture).normalized();
-            // We want to find the point on the ray in the camera plane
-            // The reason is that we are missing all the part of the scene that is between the camera and the view plane,
-            // so we want that the beginning of these rays would be at the same plane as the camera
-            Point3D pointOnCameraPlane = pointInAperture.add(rayVector.scale(-1 * screenDistance / (rayVector.dotProduct(_vTo))));
-            rays.add(new Ray(pointOnCameraPlane, rayVector));
-        }
+        List<Ray> rays = new LinkedList<>();
+        ApertureRays apertureRays = constructApertureRays(screenDistance, basicRay, (int) Math.ceil(numOfRays));
+        while (apertureRays.hasNext())
+            rays.add(apertureRays.next());
         return rays;
     }
+
+    /**
+     * Prepares the rays from the aperture adjuster plane for constructing them one by one (without keeping them all)
+     * All of these rays are in the direction to the focal point (Where the basic ray intersects with the focal plane)
+     * For the depth field feature
+     *
+     * @param screenDistance the distance of the view plane from the camera
+     * @param basicRay the ray from the camera to a pixel. Defines the focal point
+     * @param numOfRays number of rays to make from the adjuster plane. Defines photo and deep field feature quality
+     * @return An iterator that constructs the numOfRays rays
+     */
+    public ApertureRays constructApertureRays(double screenDistance, Ray basicRay, int numOfRays) {
+        return new ApertureRays(this, screenDistance, basicRay, numOfRays);
+    }
 }
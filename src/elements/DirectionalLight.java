@@ -1,6 +1,7 @@
 package elements;
 
 import primitives.Color;
+import primitives.ColorAccumulator;
 import primitives.Point3D;
 import primitives.Vector;
 
@@ -35,6 +36,11 @@ public class DirectionalLight extends Light implements LightSource {
         return new Color(_intensity);
     }
 
+    @Override
+    public ColorAccumulator addIntensity(Point3D p, ColorAccumulator color, double k) {
+        return color.add(_intensity, k);
+    }
+
     @Override
     public Vector getL(Point3D p) {
         return new Vector(_direction);
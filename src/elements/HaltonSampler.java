@@ -0,0 +1,47 @@
+package elements;
+
+/**
+ * HaltonSampler class chooses sample points by the Halton low discrepancy sequence (bases 2 and 3).
+ * Each set of samples is moved (around the unit square) by a random shift that depends on the seed,
+ * so different sets are not the same
+ *
+ * @author Moriah and Shahar
+ */
+
+public class HaltonSampler implements Sampler {
+    @Override
+    public void sample(long seed, int index, int count, double[] point) {
+        long mixed = Sampler.mix(seed);
+        point[0] = shift(radicalInverse(index + 1, 2), Sampler.toUnit(mixed));
+        point[1] = shift(radicalInverse(index + 1, 3), Sampler.toUnit(Sampler.mix(mixed)));
+    }
+
+    /**
+     * Calculates the radical inverse of a number - its digits (in the given base) mirrored after the point
+     *
+     * @param n the number
+     * @param base the base
+     * @return the radical inverse, from 0 to 1
+     */
+    private static double radicalInverse(int n, int base) {
+        double inverse = 0, fraction = 1d / base;
+        while (n > 0) {
+            inverse += (n % base) * fraction;
+            n /= base;
+            fraction /= base;
+        }
+        return inverse;
+    }
+
+    /**
+     * Moves a number from 0 to 1 by a shift, around (if it passes 1 it starts again from 0)
+     *
+     * @param x the number
+     * @param shift the shift, from 0 to 1
+     * @return the moved number, from 0 to 1 (1 not included)
+     */
+    private static double shift(double x, double shift) {
+        x += shift;
+        return x >= 1 ? x - 1 : x;
+    }
+}
@@ -0,0 +1,58 @@
+package elements;
+
+/**
+ * JitteredSampler class chooses sample points by stratification - the unit square is divided into a grid of cells
+ * (as square as possible, with a cell for each sample), and each sample is in a random place inside its own cell.<br/>
+ * The cells are taken in a scattered order (not row after row), so the first samples are scattered over all
+ * the square as well (for stopping the sampling before all the samples are taken)
+ *
+ * @author Moriah and Shahar
+ */
+
+public class JitteredSampler implements Sampler {
+    /**
+     * Random sampler for the place of a sample inside its cell
+     */
+    private final RandomSampler _jitter = new RandomSampler();
+
+    @Override
+    public void sample(long seed, int index, int count, double[] point) {
+        int columns = (int) Math.ceil(Math.sqrt(count));
+        int rows = (count + columns - 1) / columns;
+        int cells = columns * rows;
+        int cell = (int) ((long) index * stride(cells) % cells);
+        _jitter.sample(seed, index, count, point);
+        point[0] = (cell % columns + point[0]) / columns;
+        point[1] = (cell / columns + point[1]) / rows;
+    }
+
+    /**
+     * Finds a step for going over all the cells in a scattered order - a number near 0.618 of the cells number
+     * (the golden ratio) that has no common divisor with it
+     *
+     * @param cells the number of cells
+     * @return the step
+     */
+    private static int stride(int cells) {
+        int stride = Math.max(1, (int) (cells * 0.6180339887));
+        while (gcd(stride, cells) != 1)
+            ++stride;
+        return stride;
+    }
+
+    /**
+     * Calculates the greatest common divisor of two numbers
+     *
+     * @param a first number
+     * @param b second number
+     * @return the greatest common divisor
+     */
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -1,6 +1,7 @@
 package elements;
 
 import primitives.Color;
+import primitives.ColorAccumulator;
 import primitives.Point3D;
 import primitives.Vector;
 
@@ -21,6 +22,19 @@ public interface LightSource {
      */
     public Color getIntensity(Point3D p);
 
+    /**
+     * Adds the light intensity in a point into an accumulator - the light sources override it to add their
+     * intensity without creating color objects (getIntensity returns a new color)
+     *
+     * @param p a point in the scene
+     * @param color the accumulator to add the intensity into
+     * @param k scale factor of the intensity
+     * @return the accumulator for chaining calls
+     */
+    default ColorAccumulator addIntensity(Point3D p, ColorAccumulator color, double k) {
+        return color.add(getIntensity(p), k);
+    }
+
     /**
      * Returns a vector direction from the light source to the given point
      *
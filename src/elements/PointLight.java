@@ -47,10 +47,25 @@ public class PointLight extends Light implements LightSource {
     /*************** Admin *****************/
     @Override
     public Color getIntensity(Point3D p) {
-        return _intensity.scale(1.0/(_kC + _kL * p.distance(this._position) + _kQ * p.distanceSquared(this._position)));
+        return _intensity.scale(attenuation(p));
 
     }
 
+    @Override
+    public ColorAccumulator addIntensity(Point3D p, ColorAccumulator color, double k) {
+        return color.add(_intensity, k * attenuation(p));
+    }
+
+    /**
+     * Calculates the factor of the light intensity in a point, by its distance from the light
+     *
+     * @param p a point in the scene
+     * @return the factor to scale the intensity by
+     */
+    protected double attenuation(Point3D p) {
+        return 1.0/(_kC + _kL * p.distance(this._position) + _kQ * p.distanceSquared(this._position));
+    }
+
     @Override
     public Vector getL(Point3D p) {
         try {
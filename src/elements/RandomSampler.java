@@ -0,0 +1,22 @@
+package elements;
+
+/**
+ * RandomSampler class chooses sample points randomly (uniformly) over the unit square.
+ * The random numbers are made by mixing the seed and the index of the sample, so they are reproducible
+ *
+ * @author Moriah and Shahar
+ */
+
+public class RandomSampler implements Sampler {
+    /**
+     * An odd number for scattering the indexes of the samples before mixing them (the golden ratio in 64 bits)
+     */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    @Override
+    public void sample(long seed, int index, int count, double[] point) {
+        long bits = seed + GOLDEN_GAMMA * (2L * index + 1);
+        point[0] = Sampler.toUnit(Sampler.mix(bits));
+        point[1] = Sampler.toUnit(Sampler.mix(bits + GOLDEN_GAMMA));
+    }
+}
@@ -0,0 +1,72 @@
+package elements;
+
+/**
+ * Sampler interface represents a way to choose sample points in the unit square [0, 1) x [0, 1)
+ * (for choosing points on the aperture adjuster in depth of field feature).<br/>
+ * A sampler has no state - a sample point is calculated only from the seed, its index and the number of samples,
+ * so the same seed always gives the same points (and a sampler can be shared between threads)
+ *
+ * @author Moriah and Shahar
+ */
+
+public interface Sampler {
+    /**
+     * Calculates a sample point in the unit square
+     *
+     * @param seed the seed of the samples (different seeds give different sets of sample points)
+     * @param index the index of the sample, from 0 to count - 1
+     * @param count the number of samples in the set
+     * @param point array of 2 numbers to put the sample point coordinates (from 0 to 1, 1 not included) into
+     */
+    void sample(long seed, int index, int count, double[] point);
+
+    /**
+     * Mixes the bits of a number into a random looking number (SplitMix64 mixing function).
+     * Used for making seeds and random numbers without a Random object
+     *
+     * @param z the number to mix
+     * @return the mixed number
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Converts random bits into a random number from 0 to 1 (1 not included)
+     *
+     * @param bits the random bits (only the 53 high bits are used)
+     * @return the number from 0 to 1
+     */
+    static double toUnit(long bits) {
+        return (bits >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Maps a point in the unit square into the unit disk (radius 1 around 0, 0) by concentric mapping,
+     * which keeps the distances between the points nearly the same (so it keeps the samples scattered as well)
+     *
+     * @param point array of 2 numbers - the point in the unit square, that is changed into the point in the disk
+     */
+    static void toDisk(double[] point) {
+        double a = 2 * point[0] - 1;
+        double b = 2 * point[1] - 1;
+        if (a == 0 && b == 0) {
+            point[0] = 0;
+            point[1] = 0;
+            return;
+        }
+        double r, phi;
+        if (Math.abs(a) > Math.abs(b)) {
+            r = a;
+            phi = Math.PI / 4 * (b / a);
+        }
+        else {
+            r = b;
+            phi = Math.PI / 2 - Math.PI / 4 * (a / b);
+        }
+        point[0] = r * Math.cos(phi);
+        point[1] = r * Math.sin(phi);
+    }
+}
@@ -0,0 +1,36 @@
+package elements;
+
+/**
+ * SobolSampler class chooses sample points by the two dimensional Sobol low discrepancy sequence.
+ * Each set of samples is scrambled (its bits are flipped) by random bits that depend on the seed,
+ * so different sets are not the same but keep the good scattering of the sequence
+ *
+ * @author Moriah and Shahar
+ */
+
+public class SobolSampler implements Sampler {
+    /**
+     * The direction numbers of the second dimension of the sequence
+     */
+    private static final int[] DIRECTIONS = new int[32];
+
+    static {
+        DIRECTIONS[0] = 1 << 31;
+        for (int k = 1; k < 32; ++k)
+            DIRECTIONS[k] = DIRECTIONS[k - 1] ^ (DIRECTIONS[k - 1] >>> 1);
+    }
+
+    @Override
+    public void sample(long seed, int index, int count, double[] point) {
+        long scramble = Sampler.mix(seed);
+        // first dimension - the bits of the index mirrored (van der Corput sequence)
+        int x = Integer.reverse(index) ^ (int) scramble;
+        // second dimension - xor of the direction numbers of the set bits of the index
+        int y = (int) (scramble >>> 32);
+        for (int k = 0; index != 0; ++k, index >>>= 1)
+            if ((index & 1) != 0)
+                y ^= DIRECTIONS[k];
+        point[0] = (x & 0xffffffffL) * 0x1.0p-32;
+        point[1] = (y & 0xffffffffL) * 0x1.0p-32;
+    }
+}
@@ -42,4 +42,9 @@ public class SpotLight extends PointLight {
     public Color getIntensity(Point3D p) {
         return super.getIntensity(p).scale(Math.max(0, _dir.dotProduct(getL(p))));
     }
+
+    @Override
+    public ColorAccumulator addIntensity(Point3D p, ColorAccumulator color, double k) {
+        return super.addIntensity(p, color, k * Math.max(0, _dir.dotProduct(getL(p))));
+    }
 }
@@ -0,0 +1,108 @@
+package elements;
+
+import primitives.*;
+
+/**
+ * ViewPlane class represents the view plane of a camera for rendering one picture - with its distance, size and
+ * pixels. All the calculations that are the same for all the pixels are done once, when the view plane is made,
+ * and the direction of the ray through each pixel is found by adding the steps between pixels to the direction
+ * through the first pixel.
+ *
+ * @author Moriah and Shahar
+ */
+
+public class ViewPlane {
+    /**
+     * The camera point - the start point of all the rays
+     */
+    private final Point3D _p0;
+    /**
+     * The direction from the camera to the middle of the pixel 0, 0 (not normalized)
+     */
+    private final double _x00, _y00, _z00;
+    /**
+     * The step of the direction from a pixel to the next pixel in the row (rightwards)
+     */
+    private final double _dxX, _dxY, _dxZ;
+    /**
+     * The step of the direction from a pixel to the next pixel in the column (downwards)
+     */
+    private final double _dyX, _dyY, _dyZ;
+    /**
+     * Number of pixels in a row and in a column
+     */
+    private final int _nX, _nY;
+
+    /**
+     * ViewPlane constructor - calculates the direction to the first pixel and the steps between the pixels
+     *
+     * @param camera the camera of the view plane
+     * @param nX pixel width
+     * @param nY pixel height
+     * @param screenDistance the distance of the view plane from the camera
+     * @param screenWidth view plane's width
+     * @param screenHeight view plane's height
+     */
+    ViewPlane(Camera camera, int nX, int nY, double screenDistance, double screenWidth, double screenHeight) {
+        _p0 = camera._p0;
+        _nX = nX;
+        _nY = nY;
+        double rX = screenWidth / nX, rY = screenHeight / nY;
+        Vector vTo = camera._vTo, vUp = camera._vUp, vRight = camera._vRight;
+        // one pixel rightwards is vRight in length of a pixel width, one pixel downwards is -vUp in length of a pixel height
+        _dxX = vRight.getX() * rX;
+        _dxY = vRight.getY() * rX;
+        _dxZ = vRight.getZ() * rX;
+        _dyX = -vUp.getX() * rY;
+        _dyY = -vUp.getY() * rY;
+        _dyZ = -vUp.getZ() * rY;
+        // the middle of the pixel 0, 0 is (nX - 1) / 2 pixels left and (nY - 1) / 2 pixels up from the view plane center
+        double j0 = -(nX - 1) / 2d, i0 = -(nY - 1) / 2d;
+        _x00 = vTo.getX() * screenDistance + _dxX * j0 + _dyX * i0;
+        _y00 = vTo.getY() * screenDistance + _dxY * j0 + _dyY * i0;
+        _z00 = vTo.getZ() * screenDistance + _dxZ * j0 + _dyZ * i0;
+    }
+
+    /**
+     * Pixel width getter
+     *
+     * @return number of pixels in a row
+     */
+    public int getNx() {
+        return _nX;
+    }
+
+    /**
+     * Pixel height getter
+     *
+     * @return number of pixels in a column
+     */
+    public int getNy() {
+        return _nY;
+    }
+
+    /**
+     * Calculates the ray from the camera that gets to the middle of the given pixel on the view plane
+     *
+     * @param j x index of given pixel on the view plane
+     * @param i y index of given pixel on the view plane
+     * @return A ray from the camera to the middle of the pixel with the indexes j, i
+     */
+    public Ray constructRayThroughPixel(int j, int i) {
+        return constructRayThroughPoint(j, i);
+    }
+
+    /**
+     * Calculates the ray from the camera that gets to a given point on the view plane.
+     * The point is given in pixel units - the middle of the pixel j, i is the point (j, i)
+     *
+     * @param x x coordinate of the point on the view plane (in pixels)
+     * @param y y coordinate of the point on the view plane (in pixels)
+     * @return A ray from the camera to the point x, y on the view plane
+     */
+    public Ray constructRayThroughPoint(double x, double y) {
+        return new Ray(_p0, new Vector(_x00 + x * _dxX + y * _dyX,
+                _y00 + x * _dxY + y * _dyY,
+                _z00 + x * _dxZ + y * _dyZ));
+    }
+}
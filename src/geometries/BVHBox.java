@@ -23,32 +23,32 @@ public class BVHBox {
     Point3D max;
 
     /**
-     * Box constructor. Gets the 2 points that represent the box, and puts their copy in the class's min, max
+     * Box constructor. Gets the 2 points that represent the box, and puts them in the class's min, max
      *
      * @param min Min point of the box. (Has min X coordinate, min Y coordinate, min Z coordinate)
      * @param max Max point of the box. (Has max X coordinate, max Y coordinate, max Z coordinate)
      */
     public BVHBox(Point3D min, Point3D max) {
-        this.min = new Point3D(min);
-        this.max = new Point3D(max);
+        this.min = min;
+        this.max = max;
     }
 
     /**
      * Min getter
      *
-     * @return copy of min point of the box value. (Has min X coordinate, min Y coordinate, min Z coordinate)
+     * @return min point of the box value. (Has min X coordinate, min Y coordinate, min Z coordinate)
      */
     public Point3D getMin() {
-        return new Point3D(min);
+        return min;
     }
 
     /**
      * Max getter
      *
-     * @return copy of max point of the box value. (Has max X coordinate, max Y coordinate, max Z coordinate)
+     * @return max point of the box value. (Has max X coordinate, max Y coordinate, max Z coordinate)
      */
     public Point3D getMax() {
-        return new Point3D(max);
+        return max;
     }
 
     /**
@@ -61,19 +61,16 @@ public class BVHBox {
      */
     public boolean anyIntersections(Ray ray) {
         double tMin, tMax, tYMin, tYMax, tZMin, tZMax;
-        Point3D invDir = new Point3D(1 / ray.get_direction().get_point().get_x().get(),
-                1 / ray.get_direction().get_point().get_y().get(),
-                1 / ray.get_direction().get_point().get_z().get());
-        double invDirX = invDir.get_x().get();
-        double invDirY = invDir.get_y().get();
+        double invDirX = 1 / ray.getDirectionX();
+        double invDirY = 1 / ray.getDirectionY();
 
         double tmin, tmax, tymin, tymax, tzmin, tzmax;
 
         Point3D rayStartPoint = ray.get_startPoint();
-        tmin = ((invDirX < 0 ? max : min).get_x().get() - rayStartPoint.get_x().get()) * invDirX;
-        tmax = ((invDirX < 0 ? min : max).get_x().get() - rayStartPoint.get_x().get()) * invDirX;
-        tymin = ((invDirY < 0 ? max : min).get_y().get() - rayStartPoint.get_y().get()) * invDirY;
-        tymax = ((invDirY < 0 ? min : max).get_y().get() - rayStartPoint.get_y().get()) * invDirY;
+        tmin = ((invDirX < 0 ? max : min).getX() - rayStartPoint.getX()) * invDirX;
+        tmax = ((invDirX < 0 ? min : max).getX() - rayStartPoint.getX()) * invDirX;
+        tymin = ((invDirY < 0 ? max : min).getY() - rayStartPoint.getY()) * invDirY;
+        tymax = ((invDirY < 0 ? min : max).getY() - rayStartPoint.getY()) * invDirY;
 
         if ((tmin > tymax) || (tymin > tmax))
             return false;
@@ -83,9 +80,9 @@ public class BVHBox {
         if (tymax < tmax)
             tmax = tymax;
 
-        double invDirZ = invDir.get_z().get();
-        tzmin = ((invDirZ < 0 ? max : min).get_z().get() - rayStartPoint.get_z().get()) * invDirZ;
-        tzmax = ((invDirZ < 0 ? min : max).get_z().get() - rayStartPoint.get_z().get()) * invDirZ;
+        double invDirZ = 1 / ray.getDirectionZ();
+        tzmin = ((invDirZ < 0 ? max : min).getZ() - rayStartPoint.getZ()) * invDirZ;
+        tzmax = ((invDirZ < 0 ? min : max).getZ() - rayStartPoint.getZ()) * invDirZ;
 
         if ((tmin > tzmax) || (tzmin > tmax))
             return false;
@@ -98,12 +95,57 @@ public class BVHBox {
         return !(tmin < 0) || !(tmax < 0);
     }
 
+    /**
+     * Calculates the distance along the ray to the point where the ray enters the box
+     * (the same slabs calculation as in anyIntersections)
+     *
+     * @param ray The ray the we need to check
+     * @return the distance to the entry point of the box, 0 if the ray starts inside the box,
+     * or Double.POSITIVE_INFINITY if the ray does not intersect the box
+     */
+    public double intersectionDistance(Ray ray) {
+        double invDirX = 1 / ray.getDirectionX();
+        double invDirY = 1 / ray.getDirectionY();
+        double invDirZ = 1 / ray.getDirectionZ();
+
+        double tmin, tmax, tymin, tymax, tzmin, tzmax;
+
+        Point3D rayStartPoint = ray.get_startPoint();
+        tmin = ((invDirX < 0 ? max : min).getX() - rayStartPoint.getX()) * invDirX;
+        tmax = ((invDirX < 0 ? min : max).getX() - rayStartPoint.getX()) * invDirX;
+        tymin = ((invDirY < 0 ? max : min).getY() - rayStartPoint.getY()) * invDirY;
+        tymax = ((invDirY < 0 ? min : max).getY() - rayStartPoint.getY()) * invDirY;
+
+        if ((tmin > tymax) || (tymin > tmax))
+            return Double.POSITIVE_INFINITY;
+
+        if (tymin > tmin)
+            tmin = tymin;
+        if (tymax < tmax)
+            tmax = tymax;
+
+        tzmin = ((invDirZ < 0 ? max : min).getZ() - rayStartPoint.getZ()) * invDirZ;
+        tzmax = ((invDirZ < 0 ? min : max).getZ() - rayStartPoint.getZ()) * invDirZ;
+
+        if ((tmin > tzmax) || (tzmin > tmax))
+            return Double.POSITIVE_INFINITY;
+
+        if (tzmin > tmin)
+            tmin = tzmin;
+        if (tzmax < tmax)
+            tmax = tzmax;
+
+        if (tmax < 0) // the box is behind the ray
+            return Double.POSITIVE_INFINITY;
+        return tmin < 0 ? 0 : tmin;
+    }
+
     /**
      * Calculates the box's volume
      *
      * @return The volume of the box
      */
     public double volume() {
-        return (max.get_x().get() - min.get_x().get()) * (max.get_y().get() - min.get_y().get()) * (max.get_z().get() - min.get_z().get());
+        return (max.getX() - min.getX()) * (max.getY() - min.getY()) * (max.getZ() - min.getZ());
     }
 }
@@ -0,0 +1,670 @@
+package geometries;
+
+import primitives.Point3D;
+import primitives.Ray;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * BVHTree class is a compiled BVH (Bounding Volume Hierarchy) over a group of finite primitives
+ * The nodes are packed into parallel arrays in depth-first order (the first child of a node is always the next node),
+ * the leaves hold ranges of primitive indices, and the traversal is iterative with an explicit stack
+ * The BVHTree is part of the BVH improvement
+ * system
+ *
+ * @author Moriah and Shahar
+ */
+
+class BVHTree {
+    /**
+     * A node with this number of primitives or less is always a leaf
+     */
+    private static final int MIN_LEAF_SIZE = 2;
+    /**
+     * A node with more primitives than this is never a leaf (unless its primitives cannot be divided)
+     */
+    private static final int MAX_LEAF_SIZE = 8;
+    /**
+     * Number of bins along each axis for evaluating the divisions of a node
+     */
+    private static final int BINS = 16;
+    /**
+     * Cost of visiting an inner node, relative to the cost of intersecting a primitive (SAH)
+     */
+    private static final double TRAVERSAL_COST = 1;
+    /**
+     * A node with more primitives than this builds its two children in parallel (fork-join)
+     */
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * Boxes of the nodes. 6 values for each node: min x, min y, min z, max x, max y, max z
+     */
+    private final double[] _bounds;
+    /**
+     * For a leaf - index of its first primitive in _primitives. For an inner node - index of its second child
+     */
+    private final int[] _offset;
+    /**
+     * For a leaf - number of its primitives. For an inner node - 0
+     */
+    private final int[] _count;
+    /**
+     * For an inner node - the axis it was divided by (0 for x, 1 for y, 2 for z). The first child is the smaller side
+     */
+    private final int[] _axis;
+    /**
+     * Indices of the primitives (as they were given to the constructor), ordered so that each leaf has a range
+     */
+    private final int[] _primitives;
+    /**
+     * Number of nodes in the tree
+     */
+    private int _size;
+
+    /**
+     * Visitor is the callback of the traversal, called for each primitive in a leaf that the ray hits its box
+     */
+    interface Visitor {
+        /**
+         * Visits a primitive that may be intersected by the ray
+         *
+         * @param primitive index of the primitive (as it was given to the BVHTree constructor)
+         * @param maxDistance the current distance to look for intersections up to
+         * @return the new distance to look for intersections up to (the same or smaller),
+         * or a negative number to stop the traversal
+         */
+        double visit(int primitive, double maxDistance);
+    }
+
+    /**
+     * PacketVisitor is the callback of the packet traversal, called for each primitive in a leaf that some rays of
+     * the packet hit its box
+     */
+    interface PacketVisitor {
+        /**
+         * Visits a primitive that may be intersected by some rays of the packet
+         *
+         * @param primitive index of the primitive (as it was given to the BVHTree constructor)
+         * @param lanes the indexes of the rays (in the packet) that hit the leaf box
+         * @param count the number of rays in lanes
+         */
+        void visit(int primitive, int[] lanes, int count);
+    }
+
+    /**
+     * LeafVisitor is the callback of the leaves traversal, called for each leaf that the ray hits its box
+     */
+    interface LeafVisitor {
+        /**
+         * Visits the primitives of a leaf that may be intersected by the ray
+         *
+         * @param first the position of the leaf's first primitive in the tree order
+         * @param count the number of the leaf's primitives
+         * @param maxDistance the current distance to look for intersections up to
+         * @return the new distance to look for intersections up to (the same or smaller),
+         * or a negative number to stop the traversal
+         */
+        double visit(int first, int count, double maxDistance);
+    }
+
+    /**
+     * BuildNode is a help class for building the tree. The nodes are built first as objects (the two children of a node
+     * can be built in parallel), and then packed into the arrays in depth-first order
+     */
+    private static class BuildNode {
+        /**
+         * The node box. 6 values: min x, min y, min z, max x, max y, max z
+         */
+        final double[] bounds = new double[6];
+        /**
+         * For a leaf - index of its first primitive in _primitives and number of its primitives
+         */
+        int start, count;
+        /**
+         * For an inner node - the axis it was divided by (0 for x, 1 for y, 2 for z)
+         */
+        int axis;
+        /**
+         * For an inner node - its two children (null for a leaf)
+         */
+        BuildNode first, second;
+    }
+
+    /**
+     * BuildTask is a fork-join task that builds a node of the tree (and all its sub nodes)
+     */
+    private class BuildTask extends RecursiveTask<BuildNode> {
+        private static final long serialVersionUID = 1L;
+        private final double[] _primitiveBounds;
+        private final int _start, _end;
+
+        /**
+         * BuildTask constructor
+         *
+         * @param primitiveBounds the boxes of the primitives
+         * @param start index of the first primitive of the node in _primitives
+         * @param end index after the last primitive of the node in _primitives
+         */
+        BuildTask(double[] primitiveBounds, int start, int end) {
+            _primitiveBounds = primitiveBounds;
+            _start = start;
+            _end = end;
+        }
+
+        @Override
+        protected BuildNode compute() {
+            return build(_primitiveBounds, _start, _end);
+        }
+    }
+
+    /**
+     * BVHTree constructor. Builds the hierarchy over the given primitive boxes.
+     * Divides each node with the binned Surface Area Heuristic (SAH): the primitives are put into bins by the middle of
+     * their box along x axis, y axis and z axis, and the division between bins with the lowest expected cost
+     * (sum of the surface area of each side multiplied by its number of primitives) is used.
+     * Big nodes build their children in parallel, but the tree is the same regardless of the number of threads
+     *
+     * @param primitiveBounds the boxes of the primitives. 6 values for each primitive: min x, min y, min z, max x, max y, max z
+     */
+    BVHTree(double[] primitiveBounds) {
+        int n = primitiveBounds.length / 6;
+        _primitives = new int[n];
+        for (int i = 0; i < n; i++)
+            _primitives[i] = i;
+        BuildNode root = n > 0 ? ForkJoinPool.commonPool().invoke(new BuildTask(primitiveBounds, 0, n)) : null;
+        // the arrays are allocated for the exact number of nodes (leaves usually have several primitives)
+        int nodes = Math.max(1, countNodes(root));
+        _bounds = new double[6 * nodes];
+        _offset = new int[nodes];
+        _count = new int[nodes];
+        _axis = new int[nodes];
+        _size = 0;
+        if (root != null)
+            flatten(root);
+    }
+
+    /**
+     * Counts the nodes of a built node (including itself and all its sub nodes)
+     *
+     * @param buildNode the built node (or null)
+     * @return the number of nodes
+     */
+    private static int countNodes(BuildNode buildNode) {
+        if (buildNode == null)
+            return 0;
+        return 1 + countNodes(buildNode.first) + countNodes(buildNode.second);
+    }
+
+    /**
+     * Packs a built node (and all its sub nodes) into the arrays in depth-first order
+     *
+     * @param buildNode the built node
+     */
+    private void flatten(BuildNode buildNode) {
+        int node = _size++;
+        System.arraycopy(buildNode.bounds, 0, _bounds, 6 * node, 6);
+        if (buildNode.first == null) { // leaf
+            _offset[node] = buildNode.start;
+            _count[node] = buildNode.count;
+            return;
+        }
+        _axis[node] = buildNode.axis;
+        _count[node] = 0;
+        flatten(buildNode.first);
+        _offset[node] = _size; // the second child is packed right after all the nodes of the first child
+        flatten(buildNode.second);
+    }
+
+    /**
+     * Builds the node of the primitives in the given range (and all its sub nodes).
+     * Each node only reorders its own range of _primitives, so the children can be built in parallel
+     *
+     * @param primitiveBounds the boxes of the primitives
+     * @param start index of the first primitive of the node in _primitives
+     * @param end index after the last primitive of the node in _primitives
+     * @return the built node
+     */
+    private BuildNode build(double[] primitiveBounds, int start, int end) {
+        BuildNode node = new BuildNode();
+        calcBounds(primitiveBounds, start, end, node.bounds, 0);
+        int count = end - start;
+        if (count <= MIN_LEAF_SIZE) {
+            return makeLeaf(node, start, count);
+        }
+        // the bins are spread over the box of the primitives middle points (not the node box)
+        double[] centers = new double[6];
+        calcCenterBounds(primitiveBounds, start, end, centers);
+        int bestAxis = -1;
+        int bestBin = 0;
+        double bestCost = Double.POSITIVE_INFINITY;
+        int[] binCounts = new int[BINS];
+        double[] binBounds = new double[6 * BINS];
+        double[] sweep = new double[6];
+        double[] rightCosts = new double[BINS];
+        for (int axis = 0; axis < 3; axis++) {
+            double min = centers[axis];
+            double extent = centers[3 + axis] - min;
+            if (extent <= 0) // all the middle points are the same in this axis
+                continue;
+            double scale = BINS / extent;
+            // put each primitive in its bin
+            for (int k = 0; k < BINS; k++) {
+                binCounts[k] = 0;
+                resetBounds(binBounds, 6 * k);
+            }
+            for (int i = start; i < end; i++) {
+                int bin = bin(primitiveBounds, _primitives[i], axis, min, scale);
+                binCounts[bin]++;
+                include(primitiveBounds, 6 * _primitives[i], binBounds, 6 * bin);
+            }
+            // sweep from the right to get the cost of the right side of each division
+            resetBounds(sweep, 0);
+            int rightCount = 0;
+            for (int k = BINS - 1; k > 0; k--) {
+                rightCount += binCounts[k];
+                if (binCounts[k] > 0)
+                    include(binBounds, 6 * k, sweep, 0);
+                rightCosts[k] = rightCount == 0 ? 0 : area(sweep, 0) * rightCount;
+            }
+            // sweep from the left, and check each division between bin k-1 and bin k
+            resetBounds(sweep, 0);
+            int leftCount = 0;
+            for (int k = 1; k < BINS; k++) {
+                leftCount += binCounts[k - 1];
+                if (binCounts[k - 1] > 0)
+                    include(binBounds, 6 * (k - 1), sweep, 0);
+                if (leftCount == 0 || leftCount == count)
+                    continue;
+                double cost = area(sweep, 0) * leftCount + rightCosts[k];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestBin = k;
+                }
+            }
+        }
+        int middleIndex;
+        if (bestAxis == -1) { // the middle points of all the primitives are the same, so divide them by their order
+            if (count <= MAX_LEAF_SIZE) {
+                return makeLeaf(node, start, count);
+            }
+            bestAxis = 0;
+            middleIndex = start + count / 2;
+        }
+        else {
+            // the expected cost of the division, relative to intersecting all the primitives of the node
+            double nodeArea = area(node.bounds, 0);
+            double splitCost = TRAVERSAL_COST + (nodeArea > 0 ? bestCost / nodeArea : count);
+            if (count <= MAX_LEAF_SIZE && splitCost >= count) {
+                return makeLeaf(node, start, count);
+            }
+            double min = centers[bestAxis];
+            middleIndex = partition(primitiveBounds, start, end, bestAxis, min, BINS / (centers[3 + bestAxis] - min), bestBin);
+        }
+        node.axis = bestAxis;
+        if (count > PARALLEL_THRESHOLD) {
+            BuildTask firstTask = new BuildTask(primitiveBounds, start, middleIndex);
+            firstTask.fork();
+            node.second = build(primitiveBounds, middleIndex, end);
+            node.first = firstTask.join();
+        }
+        else {
+            node.first = build(primitiveBounds, start, middleIndex);
+            node.second = build(primitiveBounds, middleIndex, end);
+        }
+        return node;
+    }
+
+    /**
+     * Sets a node to be a leaf
+     *
+     * @param node the node
+     * @param start index of the first primitive of the leaf in _primitives
+     * @param count number of primitives in the leaf
+     * @return the node
+     */
+    private BuildNode makeLeaf(BuildNode node, int start, int count) {
+        node.start = start;
+        node.count = count;
+        return node;
+    }
+
+    /**
+     * Calculates the box over the primitives in the given range
+     *
+     * @param primitiveBounds the boxes of the primitives
+     * @param start index of the first primitive in _primitives
+     * @param end index after the last primitive in _primitives
+     * @param result the array to put the box in
+     * @param resultOffset where to put the box in the result array
+     */
+    private void calcBounds(double[] primitiveBounds, int start, int end, double[] result, int resultOffset) {
+        resetBounds(result, resultOffset);
+        for (int i = start; i < end; i++)
+            include(primitiveBounds, 6 * _primitives[i], result, resultOffset);
+    }
+
+    /**
+     * Enlarges a box so it includes another box
+     *
+     * @param bounds the array of the box to include
+     * @param offset where the box to include is in its array
+     * @param result the array of the box to enlarge
+     * @param resultOffset where the box to enlarge is in its array
+     */
+    private static void include(double[] bounds, int offset, double[] result, int resultOffset) {
+        for (int k = 0; k < 3; k++) {
+            if (bounds[offset + k] < result[resultOffset + k])
+                result[resultOffset + k] = bounds[offset + k];
+            if (bounds[offset + 3 + k] > result[resultOffset + 3 + k])
+                result[resultOffset + 3 + k] = bounds[offset + 3 + k];
+        }
+    }
+
+    /**
+     * Calculates the middle of a primitive box according to an axis
+     *
+     * @param primitiveBounds the boxes of the primitives
+     * @param primitive the primitive index
+     * @param axis the axis (0 for x, 1 for y, 2 for z)
+     * @return the middle value of the primitive box in the axis
+     */
+    private static double center(double[] primitiveBounds, int primitive, int axis) {
+        return (primitiveBounds[6 * primitive + axis] + primitiveBounds[6 * primitive + 3 + axis]) / 2;
+    }
+
+    /**
+     * Calculates the box over the middle points of the primitives boxes in the given range
+     *
+     * @param primitiveBounds the boxes of the primitives
+     * @param start index of the first primitive in _primitives
+     * @param end index after the last primitive in _primitives
+     * @param result the array to put the box in (6 values)
+     */
+    private void calcCenterBounds(double[] primitiveBounds, int start, int end, double[] result) {
+        resetBounds(result, 0);
+        for (int i = start; i < end; i++)
+            for (int k = 0; k < 3; k++) {
+                double center = center(primitiveBounds, _primitives[i], k);
+                if (center < result[k])
+                    result[k] = center;
+                if (center > result[3 + k])
+                    result[3 + k] = center;
+            }
+    }
+
+    /**
+     * Sets a box to be empty (so including any box in it makes it that box)
+     *
+     * @param bounds the array of the box
+     * @param offset where the box is in its array
+     */
+    private static void resetBounds(double[] bounds, int offset) {
+        for (int k = 0; k < 3; k++) {
+            bounds[offset + k] = Double.POSITIVE_INFINITY;
+            bounds[offset + 3 + k] = Double.NEGATIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Finds the bin of a primitive according to the middle of its box
+     *
+     * @param primitiveBounds the boxes of the primitives
+     * @param primitive the primitive index
+     * @param axis the axis of the bins (0 for x, 1 for y, 2 for z)
+     * @param min the value where the first bin starts
+     * @param scale number of bins in a size unit
+     * @return the bin index, between 0 and BINS - 1
+     */
+    private static int bin(double[] primitiveBounds, int primitive, int axis, double min, double scale) {
+        int bin = (int) ((center(primitiveBounds, primitive, axis) - min) * scale);
+        return bin < BINS ? bin : BINS - 1;
+    }
+
+    /**
+     * Calculates a box surface area
+     *
+     * @param bounds the array of the box
+     * @param offset where the box is in its array
+     * @return the surface area of the box
+     */
+    private static double area(double[] bounds, int offset) {
+        double x = bounds[offset + 3] - bounds[offset];
+        double y = bounds[offset + 4] - bounds[offset + 1];
+        double z = bounds[offset + 5] - bounds[offset + 2];
+        return 2 * (x * y + y * z + z * x);
+    }
+
+    /**
+     * Reorders the primitives in the given range so that the primitives that are in the bins before the given bin
+     * are first
+     *
+     * @param primitiveBounds the boxes of the primitives
+     * @param start index of the first primitive in _primitives
+     * @param end index after the last primitive in _primitives
+     * @param axis the axis of the bins (0 for x, 1 for y, 2 for z)
+     * @param min the value where the first bin starts
+     * @param scale number of bins in a size unit
+     * @param splitBin the first bin of the second side
+     * @return index of the first primitive of the second side
+     */
+    private int partition(double[] primitiveBounds, int start, int end, int axis, double min, double scale, int splitBin) {
+        int i = start;
+        int j = end - 1;
+        while (i <= j) {
+            if (bin(primitiveBounds, _primitives[i], axis, min, scale) < splitBin)
+                i++;
+            else {
+                int temp = _primitives[i];
+                _primitives[i] = _primitives[j];
+                _primitives[j--] = temp;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Traverses the tree with a ray. Calls the visitor for every primitive in the leaves that the ray hits their box
+     * before the current max distance. The nodes are visited from the closest to the ray start point to the furthest
+     *
+     * @param ray the ray
+     * @param maxDistance the distance from the ray's start point to look for intersections up to
+     * @param visitor the callback for the primitives
+     */
+    void traverse(Ray ray, double maxDistance, Visitor visitor) {
+        traverseLeaves(ray, maxDistance, (first, count, currentMax) -> {
+            for (int i = first; i < first + count; i++) {
+                currentMax = visitor.visit(_primitives[i], currentMax);
+                if (currentMax < 0)
+                    break;
+            }
+            return currentMax;
+        });
+    }
+
+    /**
+     * Traverses the tree with a ray. Calls the visitor for every leaf that the ray hits its box before the current
+     * max distance, with the range of the leaf's primitives in the tree order (see primitive). The nodes are visited
+     * from the closest to the ray start point to the furthest
+     *
+     * @param ray the ray
+     * @param maxDistance the distance from the ray's start point to look for intersections up to
+     * @param visitor the callback for the leaves
+     */
+    void traverseLeaves(Ray ray, double maxDistance, LeafVisitor visitor) {
+        if (_size == 0)
+            return;
+        Point3D start = ray.get_startPoint();
+        double ox = start.getX(), oy = start.getY(), oz = start.getZ();
+        double dx = ray.getDirectionX(), dy = ray.getDirectionY(), dz = ray.getDirectionZ();
+        double ix = 1 / dx, iy = 1 / dy, iz = 1 / dz;
+        int[] stack = new int[64];
+        int top = 0;
+        int visited = 0; // for the intersection statistics
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            ++visited;
+            if (!hitsBox(node, ox, oy, oz, ix, iy, iz, maxDistance))
+                continue;
+            int count = _count[node];
+            if (count > 0) { // leaf
+                maxDistance = visitor.visit(_offset[node], count, maxDistance);
+                if (maxDistance < 0)
+                    break;
+                continue;
+            }
+            if (top + 2 > stack.length)
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            // push the further child first so the closer one is visited first
+            int axis = _axis[node];
+            boolean positive = (axis == 0 ? dx : axis == 1 ? dy : dz) >= 0;
+            if (positive) {
+                stack[top++] = _offset[node];
+                stack[top++] = node + 1;
+            }
+            else {
+                stack[top++] = node + 1;
+                stack[top++] = _offset[node];
+            }
+        }
+        if (IntersectionStats.isCounting())
+            IntersectionStats.countNodes(visited);
+    }
+
+    /**
+     * Traverses the tree with a packet of rays. A node is skipped if the interval test of the whole packet misses its
+     * box, or else if none of the rays hits its box before the ray's closest intersection so far. In a leaf the
+     * visitor is called for every primitive with the rays that hit the leaf box.
+     * The nodes are visited in the order of the direction of the first ray (the rays of a packet are similar)
+     *
+     * @param packet the packet of rays
+     * @param lanes the indexes of the rays (in the packet) to trace
+     * @param count the number of rays in lanes
+     * @param visitor the callback for the primitives
+     */
+    void traverse(RayPacket packet, int[] lanes, int count, PacketVisitor visitor) {
+        if (_size == 0 || count == 0)
+            return;
+        double[] ox = packet._ox, oy = packet._oy, oz = packet._oz;
+        double[] ix = packet._ix, iy = packet._iy, iz = packet._iz;
+        double[] distance = packet._distance;
+        int[] leafLanes = new int[count];
+        int firstLane = lanes[0];
+        double dx = packet._dx[firstLane], dy = packet._dy[firstLane], dz = packet._dz[firstLane];
+        int[] stack = new int[64];
+        int top = 0;
+        int visited = 0; // for the intersection statistics
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            ++visited;
+            if (!packet.mayHit(_bounds, 6 * node))
+                continue;
+            int leafSize = _count[node];
+            if (leafSize > 0) { // leaf - the primitives are tested with the rays that hit the leaf box
+                int hits = 0;
+                for (int k = 0; k < count; k++) {
+                    int lane = lanes[k];
+                    if (hitsBox(node, ox[lane], oy[lane], oz[lane], ix[lane], iy[lane], iz[lane], distance[lane]))
+                        leafLanes[hits++] = lane;
+                }
+                int first = _offset[node];
+                for (int i = first; hits > 0 && i < first + leafSize; i++)
+                    visitor.visit(_primitives[i], leafLanes, hits);
+                continue;
+            }
+            // an inner node is visited if any of the rays hits its box
+            boolean hit = false;
+            for (int k = 0; k < count && !hit; k++) {
+                int lane = lanes[k];
+                hit = hitsBox(node, ox[lane], oy[lane], oz[lane], ix[lane], iy[lane], iz[lane], distance[lane]);
+            }
+            if (!hit)
+                continue;
+            if (top + 2 > stack.length)
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            // push the further child first so the closer one is visited first
+            int axis = _axis[node];
+            boolean positive = (axis == 0 ? dx : axis == 1 ? dy : dz) >= 0;
+            if (positive) {
+                stack[top++] = _offset[node];
+                stack[top++] = node + 1;
+            }
+            else {
+                stack[top++] = node + 1;
+                stack[top++] = _offset[node];
+            }
+        }
+        if (IntersectionStats.isCounting())
+            IntersectionStats.countNodes(visited);
+    }
+
+    /**
+     * Checks if a ray hits the box of a node before the given distance (slabs method, like in BVHBox)
+     *
+     * @param node the node index
+     * @param ox ray start point x
+     * @param oy ray start point y
+     * @param oz ray start point z
+     * @param ix 1 / ray direction x
+     * @param iy 1 / ray direction y
+     * @param iz 1 / ray direction z
+     * @param maxDistance the distance from the ray's start point to look for intersections up to
+     * @return true if the ray hits the box between its start point and the distance
+     */
+    private boolean hitsBox(int node, double ox, double oy, double oz, double ix, double iy, double iz, double maxDistance) {
+        int b = 6 * node;
+        double tMin = 0, tMax = maxDistance;
+        double t1 = (_bounds[b] - ox) * ix, t2 = (_bounds[b + 3] - ox) * ix;
+        // if the ray is parallel to an axis and starts on the box side, t is NaN and the comparisons ignore it
+        if (t1 > t2) { double temp = t1; t1 = t2; t2 = temp; }
+        if (t1 > tMin) tMin = t1;
+        if (t2 < tMax) tMax = t2;
+        t1 = (_bounds[b + 1] - oy) * iy;
+        t2 = (_bounds[b + 4] - oy) * iy;
+        if (t1 > t2) { double temp = t1; t1 = t2; t2 = temp; }
+        if (t1 > tMin) tMin = t1;
+        if (t2 < tMax) tMax = t2;
+        t1 = (_bounds[b + 2] - oz) * iz;
+        t2 = (_bounds[b + 5] - oz) * iz;
+        if (t1 > t2) { double temp = t1; t1 = t2; t2 = temp; }
+        if (t1 > tMin) tMin = t1;
+        if (t2 < tMax) tMax = t2;
+        return tMin <= tMax;
+    }
+
+    /**
+     * Returns the primitive in a position of the tree order (the leaves' primitives are consecutive in this order)
+     *
+     * @param position the position in the tree order
+     * @return index of the primitive (as it was given to the BVHTree constructor)
+     */
+    int primitive(int position) {
+        return _primitives[position];
+    }
+
+    /**
+     * Calculates the number of primitives in the biggest leaf
+     *
+     * @return the biggest number of primitives in a leaf
+     */
+    int maxLeafSize() {
+        int max = 0;
+        for (int node = 0; node < _size; node++)
+            max = Math.max(max, _count[node]);
+        return max;
+    }
+
+    /**
+     * Number of nodes getter
+     *
+     * @return the number of nodes in the tree
+     */
+    int size() {
+        return _size;
+    }
+}
@@ -29,6 +29,26 @@ public class Geometries extends Intersectable {
      */
     private List<Intersectable> _elements;
 
+    /**
+     * The BVH tree over the final elements (null if the BVH improvement is off)
+     */
+    private BVHTree _bvh;
+
+    /**
+     * The final elements in the order the BVH tree refers to them
+     */
+    private Intersectable[] _bvhElements;
+
+    /**
+     * Are the intersection kernels on or off (see IntersectionKernels)
+     */
+    private boolean _intersectionKernels = false;
+
+    /**
+     * The intersection kernels over the BVH tree (null if they are off or the BVH improvement is off)
+     */
+    private IntersectionKernels _kernels;
+
     /**
      * Geometries default constructor. Puts in elements an empty list
      */
@@ -71,6 +91,8 @@ public class Geometries extends Intersectable {
                 this._infinityElements.add(element);
             else
                 this._finalElements.add(element);
+        if (_improvementBVH) // the tree has to include the new elements
+            buildBVH();
     }
 
     /**
@@ -85,9 +107,9 @@ public class Geometries extends Intersectable {
         double maxOrMinZ = maxOrMinX;
         for (Intersectable element : _finalElements) {
             Point3D maxOrMinPoint = isMin ? element.getBox().getMin() : element.getBox().getMax();
-            double valueX = maxOrMinPoint.get_x().get();
-            double valueY = maxOrMinPoint.get_y().get();
-            double valueZ = maxOrMinPoint.get_z().get();
+            double valueX = maxOrMinPoint.getX();
+            double valueY = maxOrMinPoint.getY();
+            double valueZ = maxOrMinPoint.getZ();
             if (isMin ? valueX < maxOrMinX : valueX > maxOrMinX)
                 maxOrMinX = valueX;
             if (isMin ? valueY < maxOrMinY : valueY > maxOrMinY)
@@ -99,95 +121,28 @@ public class Geometries extends Intersectable {
     }
 
     /**
-     * Divides all the different final geometries into boxes (puts in finalElements list two Elements (two boxes))
-     * Tries to divide the geometries in the middle according to x axis, to y axis and to z axis
-     * and checks which division is the best according to the sum of the boxes volume (the smallest sum)
+     * Builds the BVH tree over all the final (non infinite) elements.
+     * The tree is built over the boxes of the elements, and replaces checking the elements one by one
      */
-    public void separateToGeometries() {
-        if (this._finalElements.size() <= 2)
+    private void buildBVH() {
+        _bvhElements = _finalElements.toArray(new Intersectable[_finalElements.size()]);
+        if (_bvhElements.length == 0) {
+            _bvh = null;
+            _kernels = null;
             return;
-        // We get a separation (cut in the middle) according to x axis, to y axis, and to z axis.
-        // The separation is a list of two "boxes" (2 Intersectable)
-        List<Intersectable> xSeparation = separateToGeometries('x');
-        List<Intersectable> ySeparation = separateToGeometries('y');
-        List<Intersectable> zSeparation = separateToGeometries('z');
-        // finds to each separation, what is the sum of the boxes volume (each separation divides the box, the geometries, into 2 boxes)
-        double xVolume = xSeparation.get(0).getBox().volume() + xSeparation.get(1).getBox().volume();
-        double yVolume = ySeparation.get(0).getBox().volume() + ySeparation.get(1).getBox().volume();
-        double zVolume = zSeparation.get(0).getBox().volume() + zSeparation.get(1).getBox().volume();
-        // sets the separation to be the one that the sum of the boxes volume is the smallest.
-        // the way it sets it is setting the _finalElements to be the separation (the list of the 2 boxes)
-        if (xVolume < yVolume)
-            if (xVolume < zVolume)
-                this._finalElements = xSeparation;
-            else
-                this._finalElements = zSeparation;
-        else
-            if (yVolume < zVolume)
-                this._finalElements = ySeparation;
-            else
-                this._finalElements = zSeparation;
-        // if the first box is Geometries type - has a lot of geometries in it
-        if (_finalElements.get(0) instanceof Geometries)
-            // set improvementBVH to be true, but as a Geometries (so it will activate separateToGeometries on the box)
-            ((Geometries) _finalElements.get(0)).set_improvementBVH(true);
-        else
-            // any way activate improvementBVH to be true
-            _finalElements.get(0).set_improvementBVH(true);
-        // if the second box is Geometries type - has a lot of geometries in it
-        if (_finalElements.get(1) instanceof Geometries)
-            // set improvementBVH to be true, but as a Geometries (so it will activate separateToGeometries on the box)
-            ((Geometries) _finalElements.get(1)).set_improvementBVH(true);
-        else
-            // any way activate improvementBVH to be true
-            _finalElements.get(1).set_improvementBVH(true);
-    }
-
-    /**
-     * Helps the separateToGeometries() function. Gets an axis letter and divides all the elements in the middle to two boxes
-     * according to their value in this specific axis.
-     *
-     * @param axis The axis to divide by. Can be x, y or z.
-     * @return a list with 2 elements - two boxes that are made after dividing the elements into two.
-     * @throws IllegalArgumentException if the axis parameter is different from 'x', 'y' or 'z'.
-     */
-    private List<Intersectable> separateToGeometries(char axis) {
-        if (axis != 'x' && axis != 'y' & axis != 'z')
-            throw new IllegalArgumentException("Axes must be x, y, z");
-        // get the value of the middle point according to the axis (x, y or z axis)
-        double middle = ((axis == 'x' ? getBox().min.get_x() : axis == 'y'? getBox().min.get_y() : getBox().min.get_z()).get() +
-                (axis == 'x'? getBox().max.get_x() : axis == 'y'? getBox().max.get_y() : getBox().max.get_z()).get()) / 2;
-        List<Intersectable> small = new LinkedList<Intersectable>(); // all the geometries that their the middle value of their box is smaller than middle value of the big box (Geometry box)
-        List<Intersectable> big = new LinkedList<Intersectable>(); // all the geometries that their the middle value of their box is bigger than middle value of the big box (Geometry box)
-        for (Intersectable element : this._finalElements) {
-            // find the geometry (element) middle value according to axis
-            double elementMid = ((axis == 'x' ? element.getBox().max.get_x() : axis == 'y' ?
-                    element.getBox().max.get_y() : element.getBox().max.get_z()).get() +
-                    (axis == 'x' ? element.getBox().min.get_x() : axis == 'y' ?
-                            element.getBox().min.get_y() : element.getBox().min.get_z()).get()) / 2d;
-            // associate the geometry to the right list
-            if (elementMid < middle)
-                small.add(element);
-            else
-                if (elementMid > middle)
-                    big.add(element);
-                else
-                    // if elementMid == middle
-                    // then chose randomly to which list to associate it to
-                    if (Math.random() < 0.5)
-                        small.add(element);
-                    else
-                        big.add(element);
-        }
-        if (small.size() == 0 || big.size() == 0) // if none of the geometries went to small or to big, then the random did not divide it good
-            return separateToGeometries(axis); // so do it again
-        if (small.size() == 1) // needs only to make big list to Geometries
-            return List.of(small.get(0), new Geometries(big.toArray(new Intersectable[big.size()])));
-        if (big.size() == 1) // needs only to make small list to Geometries
-            return List.of(big.get(0), new Geometries(small.toArray(new Intersectable[small.size()])));
-        // make both lists to Geometries
-        return List.of(new Geometries(small.toArray(new Intersectable[small.size()])),
-                new Geometries(big.toArray(new Intersectable[big.size()])));
+        }
+        double[] bounds = new double[6 * _bvhElements.length];
+        for (int i = 0; i < _bvhElements.length; i++) {
+            BVHBox box = _bvhElements[i].getBox();
+            bounds[6 * i] = box.min.getX();
+            bounds[6 * i + 1] = box.min.getY();
+            bounds[6 * i + 2] = box.min.getZ();
+            bounds[6 * i + 3] = box.max.getX();
+            bounds[6 * i + 4] = box.max.getY();
+            bounds[6 * i + 5] = box.max.getZ();
+        }
+        _bvh = new BVHTree(bounds);
+        _kernels = _intersectionKernels ? new IntersectionKernels(_bvh, _bvhElements) : null;
     }
 
     /*************** Admin *****************/
@@ -196,7 +151,6 @@ public class Geometries extends Intersectable {
         List<GeoPoint> intersections = new LinkedList<GeoPoint>();
         if (!_improvementBVH) {
             for (Intersectable element : _elements) { // check for intersections with all the elements (not in boxes)
-                element.set_improvementBVH(false); // set for each geometry the _improvementBVH to be false
                 List<GeoPoint> temp = element.findIntersections(ray); // list of intersection with the element
                 if (temp != null) // if there are intersections
                     intersections.addAll(temp); // add them to all the intersections with Geometries
@@ -209,11 +163,9 @@ public class Geometries extends Intersectable {
                 if (temp != null) // if there are intersections
                     intersections.addAll(temp); // add them to all the intersections with Geometries
             }
-            if (getBox().anyIntersections(ray)) {
-                List<GeoPoint> finalIntersections = findIntersectionsTemp(ray); // list of intersections with final elements
-                if (finalIntersections != null) // if there are intersections
-                    intersections.addAll(finalIntersections); // add them to all the intersections with the infinite elements
-            }
+            List<GeoPoint> finalIntersections = findIntersectionsTemp(ray); // list of intersections with final elements
+            if (finalIntersections != null) // if there are intersections
+                intersections.addAll(finalIntersections); // add them to all the intersections with the infinite elements
         }
         if (intersections.isEmpty()) // if there are intersections
             return null;
@@ -223,23 +175,196 @@ public class Geometries extends Intersectable {
     @Override
     public List<GeoPoint> findIntersectionsTemp(Ray ray) {
         List<GeoPoint> intersections = new LinkedList<GeoPoint>();
-        for (Intersectable element : _finalElements) {
-            // temp is list of intersection with the finite element
-            List<GeoPoint> temp = element.findIntersections(ray); // in separateToGeometries we had set for all the elements the _improvementBVH to be true,
-                                                                  // so it will calculate first (at Intersectable class) if the ray intersects with the box.
-            if (temp != null) // if there are intersections
-                intersections.addAll(temp); // add them to all the intersections with Geometries
+        if (_bvh == null) {
+            for (Intersectable element : _finalElements) {
+                List<GeoPoint> temp = element.findIntersections(ray); // list of intersection with the finite element
+                if (temp != null) // if there are intersections
+                    intersections.addAll(temp); // add them to all the intersections with Geometries
+            }
         }
+        else
+            // the tree calls us only for the elements in the boxes the ray crosses
+            _bvh.traverse(ray, Double.POSITIVE_INFINITY, (i, maxDistance) -> {
+                List<GeoPoint> temp = _bvhElements[i].findIntersections(ray); // list of intersection with the finite element
+                if (temp != null) // if there are intersections
+                    intersections.addAll(temp); // add them to all the intersections with Geometries
+                return maxDistance;
+            });
         if (intersections.isEmpty()) // if there are intersections
             return null;
         return intersections;
     }
 
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        GeoPoint closest = null;
+        Point3D startPoint = ray.get_startPoint();
+        // without the improvement check all the elements (not in boxes), with it check first the infinite elements
+        for (Intersectable element : _improvementBVH ? _infinityElements : _elements) {
+            GeoPoint temp = element.findClosestIntersection(ray, maxDistance); // closest intersection that is closer than the closest so far
+            if (temp != null) {
+                closest = temp;
+                maxDistance = temp.point.distance(startPoint);
+            }
+        }
+        if (_improvementBVH) {
+            GeoPoint temp = findClosestIntersectionTemp(ray, maxDistance);
+            if (temp != null)
+                closest = temp;
+        }
+        return closest;
+    }
+
+    @Override
+    protected GeoPoint findClosestIntersectionTemp(Ray ray, double maxDistance) {
+        Point3D startPoint = ray.get_startPoint();
+        GeoPoint[] closest = new GeoPoint[1];
+        if (_bvh == null) {
+            for (Intersectable element : _finalElements) {
+                GeoPoint temp = element.findClosestIntersection(ray, maxDistance);
+                if (temp != null) {
+                    closest[0] = temp;
+                    maxDistance = temp.point.distance(startPoint);
+                }
+            }
+        }
+        else if (_kernels != null) {
+            // each leaf the ray hits is tested at once
+            double[] scratch = _kernels.newScratch();
+            _bvh.traverseLeaves(ray, maxDistance, (first, count, currentMax) ->
+                    _kernels.findClosestIntersection(ray, first, count, currentMax, scratch, closest));
+        }
+        else
+            // the tree skips the boxes that are further than the closest intersection so far
+            _bvh.traverse(ray, maxDistance, (i, currentMax) -> {
+                GeoPoint temp = _bvhElements[i].findClosestIntersection(ray, currentMax);
+                if (temp == null)
+                    return currentMax;
+                closest[0] = temp;
+                return temp.point.distance(startPoint);
+            });
+        return closest[0];
+    }
+
+    /**
+     * Finds the closest intersections of all the rays of a packet with the elements, and keeps them in the packet
+     * (see RayPacket.getClosest). With the BVH improvement the rays of the packet traverse the tree together
+     *
+     * @param packet the packet of rays
+     */
+    public void findClosestIntersections(RayPacket packet) {
+        int[] lanes = new int[packet.size()];
+        for (int i = 0; i < lanes.length; ++i)
+            lanes[i] = i;
+        findClosestIntersections(packet, lanes, lanes.length);
+    }
+
+    @Override
+    protected void findClosestIntersections(RayPacket packet, int[] lanes, int count) {
+        // without the improvement check all the elements (not in boxes), with it check first the infinite elements
+        for (Intersectable element : _improvementBVH ? _infinityElements : _elements)
+            element.findClosestIntersections(packet, lanes, count);
+        if (!_improvementBVH)
+            return;
+        if (_bvh == null) {
+            for (Intersectable element : _finalElements)
+                element.findClosestIntersections(packet, lanes, count);
+        }
+        else
+            // the tree calls us for each element with the rays that hit its leaf box
+            _bvh.traverse(packet, lanes, count,
+                    (i, leafLanes, leafCount) -> _bvhElements[i].findClosestIntersections(packet, leafLanes, leafCount));
+    }
+
+    @Override
+    public double findTransparency(Ray ray, double maxDistance, double minK) {
+        double ktr = 1.0;
+        // without the improvement check all the elements (not in boxes), with it check first the infinite elements
+        for (Intersectable element : _improvementBVH ? _infinityElements : _elements) {
+            // the element only needs to find out if it drops the transparency level under minK / ktr
+            ktr *= element.findTransparency(ray, maxDistance, minK / ktr);
+            if (ktr < minK) // the first blockers found already decide that there is no light
+                return 0.0;
+        }
+        if (_improvementBVH) {
+            ktr *= findTransparencyTemp(ray, maxDistance, minK / ktr);
+            if (ktr < minK)
+                return 0.0;
+        }
+        return ktr;
+    }
+
+    @Override
+    protected double findTransparencyTemp(Ray ray, double maxDistance, double minK) {
+        double[] ktr = {1.0};
+        if (_bvh == null) {
+            for (Intersectable element : _finalElements) {
+                ktr[0] *= element.findTransparency(ray, maxDistance, minK / ktr[0]);
+                if (ktr[0] < minK)
+                    return 0.0;
+            }
+        }
+        else if (_kernels != null) {
+            double[] scratch = _kernels.newScratch();
+            _bvh.traverseLeaves(ray, maxDistance, (first, count, currentMax) -> {
+                ktr[0] *= _kernels.findTransparency(ray, first, count, currentMax, minK / ktr[0], scratch);
+                return ktr[0] < minK ? -1 : currentMax;
+            });
+        }
+        else
+            // the tree skips the boxes that are further than the light, and stops when the light is blocked
+            _bvh.traverse(ray, maxDistance, (i, currentMax) -> {
+                ktr[0] *= _bvhElements[i].findTransparency(ray, currentMax, minK / ktr[0]);
+                return ktr[0] < minK ? -1 : currentMax;
+            });
+        return ktr[0] < minK ? 0.0 : ktr[0];
+    }
+
+    /**
+     * _improvementBVH Setter (set BVH ray tracing improvement on or off)
+     * Builds the BVH tree over the final elements if the improvement is set on,
+     * and sets the improvement on or off in the inner Geometries
+     *
+     * @param _improvementBVH true if you want to set BVH ray tracing improvement on, otherwise false.
+     */
     @Override
     public void set_improvementBVH(boolean _improvementBVH) {
         this._improvementBVH = _improvementBVH;
+        for (Intersectable element : _elements)
+            if (element instanceof Geometries)
+                element.set_improvementBVH(_improvementBVH);
         if (_improvementBVH)
-            separateToGeometries();
+            buildBVH();
+        else {
+            _bvh = null;
+            _kernels = null;
+        }
+    }
+
+    /**
+     * Are the intersection kernels on or off (_intersectionKernels Getter)
+     *
+     * @return true if the intersection kernels are on, otherwise false
+     */
+    public boolean isIntersectionKernelsOn() {
+        return _intersectionKernels;
+    }
+
+    /**
+     * _intersectionKernels Setter (set the intersection kernels on or off, here and in the inner Geometries).
+     * When they are on (and the BVH improvement is on), the spheres and the triangles of the BVH tree are copied
+     * into arrays, and a ray is tested against all the spheres and triangles of a leaf at once
+     * (see IntersectionKernels)
+     *
+     * @param intersectionKernels true if you want to set the intersection kernels on, otherwise false
+     */
+    public void set_intersectionKernels(boolean intersectionKernels) {
+        _intersectionKernels = intersectionKernels;
+        for (Intersectable element : _elements)
+            if (element instanceof Geometries)
+                ((Geometries) element).set_intersectionKernels(intersectionKernels);
+        if (_bvh != null)
+            _kernels = intersectionKernels ? new IntersectionKernels(_bvh, _bvhElements) : null;
     }
 
     /**
@@ -64,6 +64,17 @@ public abstract class Geometry extends Intersectable {
         return new Color(_emission);
     }
 
+    /**
+     * Adds the emission color into an accumulator, without copying it (like get_emission does)
+     *
+     * @param color the accumulator to add the emission into
+     * @param k scale factor of the emission
+     * @return the accumulator for chaining calls
+     */
+    public ColorAccumulator addEmission(ColorAccumulator color, double k) {
+        return color.add(_emission, k);
+    }
+
     /**
      * _material getter
      *
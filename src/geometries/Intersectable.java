@@ -4,6 +4,8 @@ import primitives.*;
 import java.util.List;
 import java.util.Objects;
 
+import static primitives.Util.alignZero;
+
 /**
  * Intersectable interface represents a shape that a ray can cross it
  * system
@@ -38,8 +40,11 @@ public abstract class Intersectable {
      * @return a list of points where the ray "hit" the shape
      */
     public List<GeoPoint> findIntersections(Ray ray) {
-        if (!_improvementBVH || getBox().anyIntersections(ray) || getBox() == null)
+        if (!_improvementBVH || getBox().anyIntersections(ray) || getBox() == null) {
+            if (IntersectionStats.isCounting())
+                IntersectionStats.countTest(this);
             return findIntersectionsTemp(ray);
+        }
         return null;
     }
 
@@ -52,6 +57,111 @@ public abstract class Intersectable {
      */
     protected abstract List<GeoPoint> findIntersectionsTemp(Ray ray);
 
+    /**
+     * Finds the closest point (to the ray's start point) where the given ray "hit" the shape,
+     * within the given distance. Checks first if the box is hit closer than the distance, if the improvement is on
+     *
+     * @param ray the given ray
+     * @param maxDistance the distance from the ray's start point to look for intersections up to
+     * @return the closest intersection which is closer than maxDistance, or null if there is none
+     */
+    public GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        if (_improvementBVH && getBox() != null && getBox().intersectionDistance(ray) >= maxDistance)
+            return null;
+        if (IntersectionStats.isCounting())
+            IntersectionStats.countTest(this);
+        return findClosestIntersectionTemp(ray, maxDistance);
+    }
+
+    /**
+     * helps to find the closest point where the given ray "hit" the shape within the given distance
+     * according to the shape. By default picks the closest point from findIntersectionsTemp
+     *
+     * @param ray the given ray
+     * @param maxDistance the distance from the ray's start point to look for intersections up to
+     * @return the closest intersection which is closer than maxDistance, or null if there is none
+     */
+    protected GeoPoint findClosestIntersectionTemp(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = findIntersectionsTemp(ray);
+        if (intersections == null)
+            return null;
+        Point3D startPoint = ray.get_startPoint();
+        GeoPoint closest = null;
+        for (GeoPoint intersection : intersections) {
+            double distance = intersection.point.distance(startPoint);
+            if (distance < maxDistance) {
+                maxDistance = distance;
+                closest = intersection;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Calculates how much light passes through the shape along the given ray, within the given distance
+     * (the product of the transparency levels of all the intersections up to the distance).
+     * Checks first if the box is hit within the distance, if the improvement is on
+     *
+     * @param ray the given ray (from a point towards a light source)
+     * @param maxDistance the distance from the ray's start point to look for intersections up to (the light source distance)
+     * @param minK the transparency level under which the light is considered completely blocked
+     * @return the transparency level along the ray, 0 if it is less than minK
+     */
+    public double findTransparency(Ray ray, double maxDistance, double minK) {
+        if (_improvementBVH && getBox() != null && getBox().intersectionDistance(ray) > maxDistance)
+            return 1.0;
+        if (IntersectionStats.isCounting())
+            IntersectionStats.countTest(this);
+        return findTransparencyTemp(ray, maxDistance, minK);
+    }
+
+    /**
+     * helps to calculate how much light passes through the shape along the given ray, within the given distance
+     * according to the shape. By default goes over the points from findIntersectionsTemp
+     *
+     * @param ray the given ray (from a point towards a light source)
+     * @param maxDistance the distance from the ray's start point to look for intersections up to (the light source distance)
+     * @param minK the transparency level under which the light is considered completely blocked
+     * @return the transparency level along the ray, 0 if it is less than minK
+     */
+    protected double findTransparencyTemp(Ray ray, double maxDistance, double minK) {
+        List<GeoPoint> intersections = findIntersectionsTemp(ray);
+        if (intersections == null)
+            return 1.0;
+        Point3D startPoint = ray.get_startPoint();
+        double ktr = 1.0;
+        for (GeoPoint intersection : intersections) {
+            if (alignZero(intersection.point.distance(startPoint) - maxDistance) <= 0) {
+                ktr *= intersection.geometry.get_material().get_kT();
+                if (ktr < minK)
+                    return 0.0;
+            }
+        }
+        return ktr;
+    }
+
+    /**
+     * Finds the closest intersections of rays of a packet, closer than the closest intersections found so far
+     * (kept in the packet), and keeps them in the packet. By default checks the rays one by one with
+     * findClosestIntersection - the geometries that can test several rays at once override it
+     *
+     * @param packet the packet of rays
+     * @param lanes the indexes of the rays (in the packet) to check
+     * @param count the number of rays in lanes
+     */
+    protected void findClosestIntersections(RayPacket packet, int[] lanes, int count) {
+        for (int k = 0; k < count; ++k) {
+            int lane = lanes[k];
+            Ray ray = packet._rays[lane];
+            GeoPoint temp = findClosestIntersection(ray, packet._distance[lane]);
+            if (temp != null) {
+                packet._distance[lane] = temp.point.distance(ray.get_startPoint());
+                packet._geometry[lane] = temp.geometry;
+                packet._point[lane] = temp.point;
+            }
+        }
+    }
+
     /**
      * Box Getter. Provides only one calculation of box;
      *
@@ -63,6 +173,13 @@ public abstract class Intersectable {
         return box;
     }
 
+    /**
+     * Makes the box be calculated again on the next getBox - for geometries that grow
+     */
+    protected final void resetBox() {
+        box = null;
+    }
+
     /**
      * Calculates the BVHBox for the specific intersectable geometry.
      *
@@ -104,7 +221,7 @@ public abstract class Intersectable {
          */
         public GeoPoint(Geometry geometry, Point3D point) {
             this.geometry = geometry;
-            this.point = new Point3D(point);
+            this.point = point; // Point3D cannot be changed, so it is shared
         }
 
         /*************** Admin *****************/
@@ -0,0 +1,375 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.Point3D;
+import primitives.Ray;
+
+import java.util.Arrays;
+
+/**
+ * IntersectionKernels class is a structure of arrays copy of the spheres and the triangles of a BVH tree, for
+ * testing one ray against all the primitives of a leaf at once.<br/>
+ * The primitives are kept in the tree order, so the primitives of each leaf are consecutive in the arrays - a
+ * double array for each coordinate of the sphere centers, of the triangle vertices and edges etc. A leaf is tested
+ * with one loop over its range of the arrays, which calculates the hit distance of every primitive. The closest
+ * hit is picked afterwards, and its GeoPoint is made only then.<br/>
+ * When the Vector API (the jdk.incubator.vector module) is available, the loops run on several primitives at once
+ * by VectorIntersectionLoops - it is compiled separately (from the vector source folder, with
+ * --add-modules jdk.incubator.vector) and found by reflection. Otherwise the loops are scalar, with the
+ * intersections of Sphere and Triangle (see isVectorized) - each position is tested only by the intersection of
+ * its kind, while the Vector API loops calculate both kinds for every position and select the result, without
+ * branches.<br/>
+ * Other kinds of geometries (planes, polygons, inner Geometries...) are tested one by one as usual. The boxes of
+ * the BVH are not in the kernels - the tree is binary, so a node tests only the two boxes of its children, and
+ * they are tested from the flat bounds array of the tree (see BVHTree.hitsBox) without objects already
+ *
+ * @author Moriah and Shahar
+ */
+
+final class IntersectionKernels {
+    /**
+     * Numbers under this value are zero (like primitives.Util.alignZero)
+     */
+    static final double EPSILON = 0x1p-40;
+    /**
+     * The Vector API loops, or null if the Vector API is not available
+     */
+    static final Loops VECTOR_LOOPS = vectorLoops();
+    /**
+     * The primitives (that are never hit) after the end of the arrays and the help arrays, so the Vector API loops
+     * read and write whole vectors without masks
+     */
+    static final int PADDING = VECTOR_LOOPS == null ? 0 : VECTOR_LOOPS.width();
+    /**
+     * The primitives in the tree order
+     */
+    private final Intersectable[] _elements;
+    /**
+     * The sphere or triangle in each position (null for the other kinds, which are tested one by one)
+     */
+    private final Geometry[] _geometries;
+    /**
+     * Are there primitives of other kinds in the tree
+     */
+    private final boolean _hasOthers;
+    /**
+     * Sphere centers and squared radiuses (negative infinity for the positions that are not spheres, so they are
+     * never hit)
+     */
+    final double[] _cx, _cy, _cz, _r2;
+    /**
+     * Triangle first vertices and the two edges from them (zero edges for the positions that are not triangles,
+     * so they are never hit)
+     */
+    final double[] _vx, _vy, _vz;
+    final double[] _e1x, _e1y, _e1z;
+    final double[] _e2x, _e2y, _e2z;
+    /**
+     * Transparency level of the material of the sphere or triangle in each position
+     */
+    private final double[] _kT;
+    /**
+     * The number of primitives in the biggest leaf (the size of the help arrays)
+     */
+    private final int _maxLeafSize;
+
+    /**
+     * Loops is the interface of the loops of the kernels over a range of the arrays, for the loops that run on
+     * several primitives at once (see VECTOR_LOOPS). They have to find exactly what the scalar loops find
+     */
+    interface Loops {
+        /**
+         * The number of primitives that the loops calculate at once
+         *
+         * @return the number of primitives in a step of the loops
+         */
+        int width();
+
+        /**
+         * Calculates the distance of the closest intersection of a ray with every sphere and triangle in a range
+         * (see IntersectionKernels.distances)
+         *
+         * @param kernels the arrays of the primitives
+         * @param ox ray start point x
+         * @param oy ray start point y
+         * @param oz ray start point z
+         * @param dx ray direction x
+         * @param dy ray direction y
+         * @param dz ray direction z
+         * @param first the position of the first primitive of the range
+         * @param count the number of primitives in the range
+         * @param distances the result - the distance for each primitive of the range (infinity if it's not hit),
+         *                  with PADDING more cells after the range
+         */
+        void distances(IntersectionKernels kernels, double ox, double oy, double oz,
+                       double dx, double dy, double dz, int first, int count, double[] distances);
+
+        /**
+         * Counts the intersections of a ray with every sphere and triangle in a range, up to a distance
+         * (see IntersectionKernels.counts)
+         *
+         * @param kernels the arrays of the primitives
+         * @param ox ray start point x
+         * @param oy ray start point y
+         * @param oz ray start point z
+         * @param dx ray direction x
+         * @param dy ray direction y
+         * @param dz ray direction z
+         * @param maxDistance the distance from the ray's start point to count intersections up to
+         * @param first the position of the first primitive of the range
+         * @param count the number of primitives in the range
+         * @param counts the result - the number of intersections for each primitive of the range, with PADDING
+         *               more cells after the range
+         */
+        void counts(IntersectionKernels kernels, double ox, double oy, double oz,
+                    double dx, double dy, double dz, double maxDistance, int first, int count, double[] counts);
+    }
+
+    /**
+     * Finds the Vector API loops (VectorIntersectionLoops) - they are loaded only if the jdk.incubator.vector
+     * module is in the JVM (java --add-modules jdk.incubator.vector) and they were compiled
+     *
+     * @return the loops, or null if the Vector API is not available
+     */
+    private static Loops vectorLoops() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+            return null;
+        try {
+            return (Loops) Class.forName("geometries.VectorIntersectionLoops").getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Do the kernels run on several primitives at once with the Vector API
+     *
+     * @return true if the Vector API loops are used, otherwise false (the scalar loops are used)
+     */
+    static boolean isVectorized() {
+        return VECTOR_LOOPS != null;
+    }
+
+    /**
+     * IntersectionKernels constructor. Copies the spheres and the triangles into the arrays in the tree order
+     *
+     * @param bvh the BVH tree
+     * @param elements the primitives (in the order they were given to the tree)
+     */
+    IntersectionKernels(BVHTree bvh, Intersectable[] elements) {
+        int n = elements.length;
+        _elements = new Intersectable[n];
+        _geometries = new Geometry[n];
+        _cx = new double[n + PADDING];
+        _cy = new double[n + PADDING];
+        _cz = new double[n + PADDING];
+        _r2 = new double[n + PADDING];
+        _vx = new double[n + PADDING];
+        _vy = new double[n + PADDING];
+        _vz = new double[n + PADDING];
+        _e1x = new double[n + PADDING];
+        _e1y = new double[n + PADDING];
+        _e1z = new double[n + PADDING];
+        _e2x = new double[n + PADDING];
+        _e2y = new double[n + PADDING];
+        _e2z = new double[n + PADDING];
+        _kT = new double[n];
+        boolean hasOthers = false;
+        Arrays.fill(_r2, Double.NEGATIVE_INFINITY);
+        for (int i = 0; i < n; i++) {
+            Intersectable element = elements[bvh.primitive(i)];
+            _elements[i] = element;
+            if (element instanceof Sphere) {
+                Sphere sphere = (Sphere) element;
+                _cx[i] = sphere._center.getX();
+                _cy[i] = sphere._center.getY();
+                _cz[i] = sphere._center.getZ();
+                _r2[i] = sphere._radius * sphere._radius;
+            }
+            else if (element instanceof Triangle) {
+                Triangle triangle = (Triangle) element;
+                _vx[i] = triangle._v0x;
+                _vy[i] = triangle._v0y;
+                _vz[i] = triangle._v0z;
+                _e1x[i] = triangle._e1x;
+                _e1y[i] = triangle._e1y;
+                _e1z[i] = triangle._e1z;
+                _e2x[i] = triangle._e2x;
+                _e2y[i] = triangle._e2y;
+                _e2z[i] = triangle._e2z;
+            }
+            else {
+                hasOthers = true;
+                continue;
+            }
+            _geometries[i] = (Geometry) element;
+            _kT[i] = _geometries[i].get_material().get_kT();
+        }
+        _hasOthers = hasOthers;
+        _maxLeafSize = bvh.maxLeafSize();
+    }
+
+    /**
+     * Creates a help array for the calculations of one ray (an array for each ray, so rays can be traced in
+     * parallel)
+     *
+     * @return the help array
+     */
+    double[] newScratch() {
+        return new double[_maxLeafSize + PADDING];
+    }
+
+    /**
+     * Calculates the distance of the closest intersection of a ray with every sphere and triangle in a range.
+     * The spheres and the triangles are hit by Sphere.intersectionDistance and Triangle.intersectionDistance, and
+     * a miss (or a position of another kind) is infinity
+     *
+     * @param ox ray start point x
+     * @param oy ray start point y
+     * @param oz ray start point z
+     * @param dx ray direction x
+     * @param dy ray direction y
+     * @param dz ray direction z
+     * @param first the position of the first primitive of the range
+     * @param count the number of primitives in the range
+     * @param distances the result - the distance for each primitive of the range (infinity if it's not hit)
+     */
+    void distances(double ox, double oy, double oz, double dx, double dy, double dz,
+                   int first, int count, double[] distances) {
+        for (int k = 0; k < count; k++) {
+            int i = first + k;
+            if (_r2[i] != Double.NEGATIVE_INFINITY) // a sphere
+                distances[k] = Sphere.intersectionDistance(_cx[i], _cy[i], _cz[i], _r2[i], ox, oy, oz, dx, dy, dz, 0);
+            else if (_geometries[i] != null) // a triangle
+                distances[k] = Triangle.intersectionDistance(_vx[i], _vy[i], _vz[i], _e1x[i], _e1y[i], _e1z[i],
+                        _e2x[i], _e2y[i], _e2z[i], ox, oy, oz, dx, dy, dz);
+            else
+                distances[k] = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Counts the intersections of a ray with every sphere and triangle in a range, up to a distance.
+     * The second intersection of a sphere is looked for (by calling Sphere.intersectionDistance again after the
+     * first one) only if the first one is closer than the distance
+     *
+     * @param ox ray start point x
+     * @param oy ray start point y
+     * @param oz ray start point z
+     * @param dx ray direction x
+     * @param dy ray direction y
+     * @param dz ray direction z
+     * @param maxDistance the distance from the ray's start point to count intersections up to
+     * @param first the position of the first primitive of the range
+     * @param count the number of primitives in the range
+     * @param counts the result - the number of intersections for each primitive of the range
+     */
+    void counts(double ox, double oy, double oz, double dx, double dy, double dz, double maxDistance,
+                int first, int count, double[] counts) {
+        double limit = maxDistance + EPSILON;
+        for (int k = 0; k < count; k++) {
+            int i = first + k;
+            if (_r2[i] != Double.NEGATIVE_INFINITY) { // a sphere
+                double near = Sphere.intersectionDistance(_cx[i], _cy[i], _cz[i], _r2[i], ox, oy, oz, dx, dy, dz, 0);
+                if (near < limit)
+                    counts[k] = Sphere.intersectionDistance(_cx[i], _cy[i], _cz[i], _r2[i], ox, oy, oz, dx, dy, dz,
+                            near) < limit ? 2 : 1;
+                else
+                    counts[k] = 0;
+            }
+            else if (_geometries[i] != null) // a triangle
+                counts[k] = Triangle.intersectionDistance(_vx[i], _vy[i], _vz[i], _e1x[i], _e1y[i], _e1z[i],
+                        _e2x[i], _e2y[i], _e2z[i], ox, oy, oz, dx, dy, dz) < limit ? 1 : 0;
+            else
+                counts[k] = 0;
+        }
+    }
+
+    /**
+     * Finds the closest intersection of a ray with the primitives of a leaf, closer than the given distance
+     *
+     * @param ray the ray
+     * @param first the position of the leaf's first primitive
+     * @param count the number of the leaf's primitives
+     * @param maxDistance the distance from the ray's start point to look for intersections up to
+     * @param scratch a help array (from newScratch)
+     * @param closest the result - the closest intersection is put in its first cell if one is found
+     * @return the distance of the closest intersection, or maxDistance if none is found
+     */
+    double findClosestIntersection(Ray ray, int first, int count, double maxDistance, double[] scratch,
+                                   GeoPoint[] closest) {
+        if (IntersectionStats.isCounting())
+            for (int i = first; i < first + count; i++)
+                IntersectionStats.countTest(_elements[i]);
+        Point3D start = ray.get_startPoint();
+        if (VECTOR_LOOPS != null)
+            VECTOR_LOOPS.distances(this, start.getX(), start.getY(), start.getZ(), ray.getDirectionX(),
+                    ray.getDirectionY(), ray.getDirectionZ(), first, count, scratch);
+        else
+            distances(start.getX(), start.getY(), start.getZ(), ray.getDirectionX(), ray.getDirectionY(),
+                    ray.getDirectionZ(), first, count, scratch);
+        int best = -1;
+        for (int k = 0; k < count; k++)
+            if (scratch[k] < maxDistance) {
+                maxDistance = scratch[k];
+                best = k;
+            }
+        if (best >= 0)
+            closest[0] = new GeoPoint(_geometries[first + best], ray.getPoint(maxDistance));
+        if (!_hasOthers)
+            return maxDistance;
+        for (int i = first; i < first + count; i++) {
+            if (_geometries[i] != null)
+                continue;
+            GeoPoint temp = _elements[i].findClosestIntersection(ray, maxDistance);
+            if (temp != null) {
+                closest[0] = temp;
+                maxDistance = temp.point.distance(start);
+            }
+        }
+        return maxDistance;
+    }
+
+    /**
+     * Calculates how much light passes through the primitives of a leaf along a ray, within a distance
+     * (the product of the transparency levels of all the intersections up to the distance)
+     *
+     * @param ray the ray (from a point towards a light source)
+     * @param first the position of the leaf's first primitive
+     * @param count the number of the leaf's primitives
+     * @param maxDistance the distance from the ray's start point to look for intersections up to
+     * @param minK the transparency level under which the light is considered completely blocked
+     * @param scratch a help array (from newScratch)
+     * @return the transparency level along the ray, 0 if it is less than minK
+     */
+    double findTransparency(Ray ray, int first, int count, double maxDistance, double minK, double[] scratch) {
+        if (IntersectionStats.isCounting())
+            for (int i = first; i < first + count; i++)
+                IntersectionStats.countTest(_elements[i]);
+        Point3D start = ray.get_startPoint();
+        if (VECTOR_LOOPS != null)
+            VECTOR_LOOPS.counts(this, start.getX(), start.getY(), start.getZ(), ray.getDirectionX(),
+                    ray.getDirectionY(), ray.getDirectionZ(), maxDistance, first, count, scratch);
+        else
+            counts(start.getX(), start.getY(), start.getZ(), ray.getDirectionX(), ray.getDirectionY(),
+                    ray.getDirectionZ(), maxDistance, first, count, scratch);
+        double ktr = 1.0;
+        for (int k = 0; k < count; k++) {
+            double kT = _kT[first + k];
+            ktr *= scratch[k] == 0 ? 1 : scratch[k] == 1 ? kT : kT * kT;
+        }
+        if (ktr < minK)
+            return 0.0;
+        if (!_hasOthers)
+            return ktr;
+        for (int i = first; i < first + count; i++) {
+            if (_geometries[i] != null)
+                continue;
+            ktr *= _elements[i].findTransparency(ray, maxDistance, minK / ktr);
+            if (ktr < minK)
+                return 0.0;
+        }
+        return ktr;
+    }
+}
@@ -0,0 +1,157 @@
+package geometries;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * IntersectionStats class counts the work of the intersection calculations of one thread - the BVH tree nodes
+ * visited and the intersection tests of each kind of geometry.<br/>
+ * Counting is turned on and off for each thread by itself, so renderings that run at the same time don't affect
+ * each other. Each thread counts into its own IntersectionStats object, so the threads don't need any
+ * synchronization. When no thread counts, the geometries only check one shared number
+ *
+ * @author Moriah and Shahar
+ */
+
+public class IntersectionStats {
+    /**
+     * Number of threads that count now (when it's 0 the geometries don't look for the counters of their thread)
+     */
+    private static final AtomicInteger COUNTING_THREADS = new AtomicInteger();
+    /**
+     * The counters of each thread
+     */
+    private static final ThreadLocal<IntersectionStats> COUNTERS = ThreadLocal.withInitial(IntersectionStats::new);
+
+    /**
+     * Is counting on for the thread
+     */
+    private boolean _enabled = false;
+    /**
+     * Number of BVH tree nodes visited
+     */
+    private long _nodesVisited = 0;
+    /**
+     * Number of intersection tests of each kind of geometry (by the class)
+     */
+    private final Map<Class<?>, long[]> _tests = new HashMap<>();
+    /**
+     * Number of intersection tests of all the kinds together
+     */
+    private long _totalTests = 0;
+
+    /**
+     * Sets counting on or off for the current thread
+     *
+     * @param enabled true for counting, otherwise false
+     */
+    public static void setEnabled(boolean enabled) {
+        IntersectionStats counters = COUNTERS.get();
+        if (counters._enabled == enabled)
+            return;
+        counters._enabled = enabled;
+        COUNTING_THREADS.addAndGet(enabled ? 1 : -1);
+    }
+
+    /**
+     * Is counting on for the current thread (_enabled getter)
+     *
+     * @return true if counting is on, otherwise false
+     */
+    public static boolean isEnabled() {
+        return COUNTERS.get()._enabled;
+    }
+
+    /**
+     * Checks if the current thread counts - quickly when no thread counts
+     *
+     * @return true if counting is on for the current thread, otherwise false
+     */
+    static boolean isCounting() {
+        return COUNTING_THREADS.get() != 0 && COUNTERS.get()._enabled;
+    }
+
+    /**
+     * Returns the counters of the current thread
+     *
+     * @return the IntersectionStats object of the current thread
+     */
+    public static IntersectionStats current() {
+        return COUNTERS.get();
+    }
+
+    /**
+     * Counts BVH tree nodes visited by the current thread
+     *
+     * @param nodes number of nodes visited
+     */
+    static void countNodes(int nodes) {
+        COUNTERS.get()._nodesVisited += nodes;
+    }
+
+    /**
+     * Counts an intersection test of a geometry by the current thread
+     *
+     * @param geometry the geometry that is tested
+     */
+    static void countTest(Intersectable geometry) {
+        IntersectionStats counters = COUNTERS.get();
+        ++counters._tests.computeIfAbsent(geometry.getClass(), type -> new long[1])[0];
+        ++counters._totalTests;
+    }
+
+    /**
+     * Counts intersection tests of a geometry with several rays (of a packet) by the current thread
+     *
+     * @param geometry the geometry that is tested
+     * @param rays number of rays
+     */
+    static void countTests(Intersectable geometry, int rays) {
+        IntersectionStats counters = COUNTERS.get();
+        counters._tests.computeIfAbsent(geometry.getClass(), type -> new long[1])[0] += rays;
+        counters._totalTests += rays;
+    }
+
+    /**
+     * Resets the counters to zero
+     *
+     * @return the IntersectionStats object itself for chaining calls
+     */
+    public IntersectionStats reset() {
+        _nodesVisited = 0;
+        _tests.clear();
+        _totalTests = 0;
+        return this;
+    }
+
+    /**
+     * _nodesVisited getter
+     *
+     * @return number of BVH tree nodes visited
+     */
+    public long getNodesVisited() {
+        return _nodesVisited;
+    }
+
+    /**
+     * _totalTests getter
+     *
+     * @return number of intersection tests of all the kinds of geometries
+     */
+    public long getTotalTests() {
+        return _totalTests;
+    }
+
+    /**
+     * Returns the intersection tests of each kind of geometry
+     *
+     * @return a map from the simple class name of the geometry to its number of intersection tests
+     */
+    public Map<String, Long> getPrimitiveTests() {
+        Map<String, Long> tests = new HashMap<>();
+        for (Map.Entry<Class<?>, long[]> entry : _tests.entrySet())
+            tests.merge(entry.getKey().getSimpleName(), entry.getValue()[0], Long::sum);
+        return tests;
+    }
+}
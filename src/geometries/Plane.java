@@ -3,6 +3,7 @@ import primitives.*;
 
 import java.util.List;
 
+import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
 /**
@@ -166,20 +167,21 @@ public class Plane extends Geometry {
 
     @Override
     public List<GeoPoint> findIntersectionsTemp(Ray ray) {
-        double denominator = _normal.dotProduct(ray.get_direction());
+        double denominator = ray.dotDirection(_normal);
         // If ray is parallel to the plane
         if (isZero(denominator))
             return null;
-        try {
-            double t = _normal.dotProduct(_p.subtract(ray.get_startPoint())) / denominator;
-            if (t <= 0)
-                return null;
-            return List.of(new GeoPoint(this, ray.getPoint(t)));
-        }
-        catch (IllegalArgumentException e) {
-            // _p is the same point as ray.get_startPoint()
+        // the vector from the ray start point to _p (calculated on the coordinate values, with no objects)
+        Point3D p0 = ray.get_startPoint();
+        double x = alignZero(_p.getX() - p0.getX());
+        double y = alignZero(_p.getY() - p0.getY());
+        double z = alignZero(_p.getZ() - p0.getZ());
+        if (x == 0 && y == 0 && z == 0) // _p is the same point as ray.get_startPoint()
             return null;
-        }
+        double t = (_normal.getX() * x + _normal.getY() * y + _normal.getZ() * z) / denominator;
+        if (t <= 0)
+            return null;
+        return List.of(new GeoPoint(this, ray.getPoint(t)));
     }
 
     /**
@@ -1,6 +1,5 @@
 package geometries;
 
-import java.util.LinkedList;
 import java.util.List;
 import primitives.*;
 import static primitives.Util.*;
@@ -152,9 +151,9 @@ public class Polygon extends Geometry {
         double maxOrMinY = maxOrMinX;
         double maxOrMinZ = maxOrMinX;
         for (Point3D vertex : _vertices) {
-            double valueX = vertex.get_x().get();
-            double valueY = vertex.get_y().get();
-            double valueZ = vertex.get_z().get();
+            double valueX = vertex.getX();
+            double valueY = vertex.getY();
+            double valueZ = vertex.getZ();
             if (isMin ? valueX < maxOrMinX : valueX > maxOrMinX)
                 maxOrMinX = valueX;
             if (isMin ? valueY < maxOrMinY : valueY > maxOrMinY)
@@ -176,20 +175,23 @@ public class Polygon extends Geometry {
         List<GeoPoint> point = _plane.findIntersections(ray);
         if (point == null)
             return null;
-        List<Vector> v = new LinkedList<Vector>();
-        for (Point3D thisV : _vertices)
-            v.add(thisV.subtract(ray.get_startPoint()));
-        List<Vector> N = new LinkedList<Vector>();
-        for (int i = 0; i < _vertices.size() - 1; i++)
-            N.add(v.get(i).crossProduct(v.get(i + 1)).normalize());
-        N.add(v.get(_vertices.size() - 1).crossProduct(v.get(0)).normalize());
-        double first = ray.get_direction().dotProduct(N.get(0));
-        if (isZero(first))
-            return null;
-        double sign = first/Math.abs(first);
-        for (int i = 1; i < N.size(); i++) {
-            if (sign * alignZero(ray.get_direction().dotProduct(N.get(i))) <= 0)
+        // goes over the edges one by one, with vectors from the ray start point to the two edge vertices
+        Point3D p0 = ray.get_startPoint();
+        int size = _vertices.size();
+        Vector v0 = _vertices.get(0).subtract(p0);
+        Vector v1 = v0;
+        double sign = 0;
+        for (int i = 0; i < size; i++) {
+            Vector v2 = i == size - 1 ? v0 : _vertices.get(i + 1).subtract(p0);
+            double dot = ray.dotDirection(v1.crossProduct(v2).normalize());
+            if (i == 0) {
+                if (isZero(dot))
+                    return null;
+                sign = dot / Math.abs(dot);
+            }
+            else if (sign * alignZero(dot) <= 0)
                 return null;
+            v1 = v2;
         }
         return List.of(new GeoPoint(this, point.get(0).point));
     }
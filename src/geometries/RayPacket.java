@@ -0,0 +1,224 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.Point3D;
+import primitives.Ray;
+
+/**
+ * RayPacket class is a bundle of rays that are traced together (e.g. the camera rays of a block of neighbouring
+ * pixels), for finding their closest intersections in one traversal of the BVH tree.<br/>
+ * The rays are kept as structure of arrays - an array of doubles for each coordinate of the start points and the
+ * directions - so the geometries test all the rays of the packet in tight loops over the arrays. For each ray the
+ * packet keeps also the closest intersection found so far (its distance and geometry).<br/>
+ * A packet is reused - reset it and add the rays of the next bundle
+ *
+ * @author Moriah and Shahar
+ */
+
+public class RayPacket {
+    /**
+     * The rays of the packet
+     */
+    final Ray[] _rays;
+    /**
+     * Start points and directions of the rays, and 1 / direction for the box tests
+     */
+    final double[] _ox, _oy, _oz;
+    final double[] _dx, _dy, _dz;
+    final double[] _ix, _iy, _iz;
+    /**
+     * The closest intersection of each ray so far - its distance from the ray start point (infinity if none),
+     * its geometry (null if none), and its point (null if it wasn't calculated yet)
+     */
+    final double[] _distance;
+    final Geometry[] _geometry;
+    final Point3D[] _point;
+    /**
+     * Number of rays in the packet
+     */
+    int _size = 0;
+    /**
+     * Do all the rays start at the same point, and the range of 1 / direction of all the rays in each axis
+     * (min x, min y, min z, max x, max y, max z) - for testing a box against the whole packet at once. When the
+     * directions in an axis have different signs the range is not used
+     */
+    boolean _sameStart = true;
+    final double[] _inverseRange = new double[6];
+    boolean _rangeReady = false;
+
+    /**
+     * RayPacket constructor
+     *
+     * @param capacity the maximal number of rays in the packet
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    public RayPacket(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Packet capacity must be 1 or higher");
+        _rays = new Ray[capacity];
+        _ox = new double[capacity];
+        _oy = new double[capacity];
+        _oz = new double[capacity];
+        _dx = new double[capacity];
+        _dy = new double[capacity];
+        _dz = new double[capacity];
+        _ix = new double[capacity];
+        _iy = new double[capacity];
+        _iz = new double[capacity];
+        _distance = new double[capacity];
+        _geometry = new Geometry[capacity];
+        _point = new Point3D[capacity];
+    }
+
+    /**
+     * Removes all the rays from the packet
+     *
+     * @return the packet itself for chaining calls
+     */
+    public RayPacket reset() {
+        for (int i = 0; i < _size; ++i)
+            _rays[i] = null;
+        _size = 0;
+        _sameStart = true;
+        _rangeReady = false;
+        return this;
+    }
+
+    /**
+     * Adds a ray to the packet, with no intersection found yet
+     *
+     * @param ray the ray
+     * @return the packet itself for chaining calls
+     * @throws IllegalStateException if the packet is full
+     */
+    public RayPacket add(Ray ray) {
+        if (_size == _rays.length)
+            throw new IllegalStateException("The packet is full");
+        int i = _size++;
+        Point3D start = ray.get_startPoint();
+        _rays[i] = ray;
+        _ox[i] = start.getX();
+        _oy[i] = start.getY();
+        _oz[i] = start.getZ();
+        _dx[i] = ray.getDirectionX();
+        _dy[i] = ray.getDirectionY();
+        _dz[i] = ray.getDirectionZ();
+        _ix[i] = 1 / _dx[i];
+        _iy[i] = 1 / _dy[i];
+        _iz[i] = 1 / _dz[i];
+        _distance[i] = Double.POSITIVE_INFINITY;
+        _geometry[i] = null;
+        _point[i] = null;
+        if (i > 0 && (_ox[i] != _ox[0] || _oy[i] != _oy[0] || _oz[i] != _oz[0]))
+            _sameStart = false;
+        _rangeReady = false;
+        return this;
+    }
+
+    /**
+     * Number of rays getter
+     *
+     * @return the number of rays in the packet
+     */
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * Ray getter
+     *
+     * @param i the index of the ray in the packet
+     * @return the ray
+     */
+    public Ray getRay(int i) {
+        return _rays[i];
+    }
+
+    /**
+     * Returns the closest intersection found for a ray of the packet
+     *
+     * @param i the index of the ray in the packet
+     * @return the closest intersection, or null if the ray doesn't hit anything
+     */
+    public GeoPoint getClosest(int i) {
+        if (_geometry[i] == null)
+            return null;
+        if (_point[i] == null)
+            _point[i] = _rays[i].getPoint(_distance[i]);
+        return new GeoPoint(_geometry[i], _point[i]);
+    }
+
+    /**
+     * Keeps an intersection of a ray if it's closer than the closest intersection of the ray so far
+     * (for the geometries that calculate the distance only - the point is calculated when it's needed)
+     *
+     * @param i the index of the ray in the packet
+     * @param distance the distance of the intersection from the ray start point
+     * @param geometry the geometry of the intersection
+     */
+    void hit(int i, double distance, Geometry geometry) {
+        if (distance < _distance[i]) {
+            _distance[i] = distance;
+            _geometry[i] = geometry;
+            _point[i] = null;
+        }
+    }
+
+    /**
+     * Checks if a box may be hit by any ray of the packet, with one test for the whole packet (interval test).
+     * Possible only when all the rays start at the same point and their directions have the same sign in each
+     * axis - otherwise it always answers true. The answer false is certain, true means the rays have to be tested
+     * one by one
+     *
+     * @param bounds the array of the box (min x, min y, min z, max x, max y, max z)
+     * @param b where the box is in its array
+     * @return false if no ray of the packet hits the box, otherwise true
+     */
+    boolean mayHit(double[] bounds, int b) {
+        if (!_sameStart)
+            return true;
+        if (!_rangeReady)
+            calcRange();
+        // the latest possible entering distance and the earliest possible exiting distance of all the rays
+        double enter = 0, exit = Double.POSITIVE_INFINITY;
+        for (int axis = 0; axis < 3; ++axis) {
+            double low = _inverseRange[axis], high = _inverseRange[3 + axis];
+            if (Double.isNaN(low)) // different signs in this axis
+                continue;
+            double origin = axis == 0 ? _ox[0] : axis == 1 ? _oy[0] : _oz[0];
+            double near = (high < 0 ? bounds[b + 3 + axis] : bounds[b + axis]) - origin;
+            double far = (high < 0 ? bounds[b + axis] : bounds[b + 3 + axis]) - origin;
+            // the distances are linear in 1 / direction, so their extremes are at the ends of the range.
+            // infinity * 0 is NaN (a ray parallel to the axis starts on the box side) and the comparisons ignore it
+            double enterAxis = Math.min(near * low, near * high);
+            double exitAxis = Math.max(far * low, far * high);
+            if (enterAxis > enter)
+                enter = enterAxis;
+            if (exitAxis < exit)
+                exit = exitAxis;
+        }
+        return enter <= exit;
+    }
+
+    /**
+     * Calculates the range of 1 / direction of all the rays in each axis (NaN where the signs are different)
+     */
+    private void calcRange() {
+        double[][] inverses = { _ix, _iy, _iz };
+        for (int axis = 0; axis < 3; ++axis) {
+            double[] inverse = inverses[axis];
+            double low = inverse[0], high = inverse[0];
+            for (int i = 1; i < _size; ++i) {
+                if (inverse[i] < low)
+                    low = inverse[i];
+                if (inverse[i] > high)
+                    high = inverse[i];
+            }
+            if (low < 0 != high < 0)
+                low = high = Double.NaN;
+            _inverseRange[axis] = low;
+            _inverseRange[3 + axis] = high;
+        }
+        _rangeReady = true;
+    }
+}
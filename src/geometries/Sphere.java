@@ -84,38 +84,124 @@ public class Sphere extends RadialGeometry {
 
     @Override
     public List<GeoPoint> findIntersectionsTemp(Ray ray) {
-        Vector u;
-        try {
-            u = _center.subtract(ray.get_startPoint());
+        double[] distances = new double[2];
+        switch (intersectionDistances(_center.getX(), _center.getY(), _center.getZ(), _radius, ray, distances)) {
+            case 0:
+                return null;
+            case 1:
+                return List.of(new GeoPoint(this, ray.getPoint(distances[0])));
+            default:
+                return List.of(new GeoPoint(this, ray.getPoint(distances[0])),
+                        new GeoPoint(this, ray.getPoint(distances[1])));
         }
-        catch (IllegalArgumentException e) {
-            return List.of(new GeoPoint(this, ray.getPoint(_radius)));
+    }
+
+    /**
+     * Calculates the distances of the intersections of a ray with a sphere - the calculation of
+     * findIntersectionsTemp on the coordinate values, shared with the sphere sets
+     *
+     * @param cx center x
+     * @param cy center y
+     * @param cz center z
+     * @param radius the radius
+     * @param ray the ray
+     * @param distances the result - the distances of the intersections (the far one first)
+     * @return the number of intersections (0, 1 or 2)
+     */
+    static int intersectionDistances(double cx, double cy, double cz, double radius, Ray ray, double[] distances) {
+        // u is the vector from the ray start point to the center (calculated on the coordinate values, with no objects)
+        Point3D p0 = ray.get_startPoint();
+        double ux = alignZero(cx - p0.getX());
+        double uy = alignZero(cy - p0.getY());
+        double uz = alignZero(cz - p0.getZ());
+        if (ux == 0 && uy == 0 && uz == 0) { // the ray starts at the center
+            distances[0] = radius;
+            return 1;
         }
-        double tm = alignZero(ray.get_direction().dotProduct(u));
-        double d = alignZero(Math.sqrt(u.lengthSquared() - tm * tm));
-        if (d >= _radius)
-            return null;
-        double th = alignZero(Math.sqrt(_radius * _radius - d * d));
+        double tm = alignZero(ray.getDirectionX() * ux + ray.getDirectionY() * uy + ray.getDirectionZ() * uz);
+        double d = alignZero(Math.sqrt(ux * ux + uy * uy + uz * uz - tm * tm));
+        if (d >= radius)
+            return 0;
+        double th = alignZero(Math.sqrt(radius * radius - d * d));
         if (tm - th <= 0) {
             if (tm + th <= 0)
-                return null;
-            else
-                return List.of(new GeoPoint(this, ray.getPoint(tm + th)));
+                return 0;
+            distances[0] = tm + th;
+            return 1;
+        }
+        if (tm + th <= 0) {
+            distances[0] = tm - th;
+            return 1;
+        }
+        if (th == 0) {
+            distances[0] = tm;
+            return 1;
         }
-        if (tm + th <= 0)
-            return List.of(new GeoPoint(this, ray.getPoint(tm - th)));
-        if (th == 0)
-            return List.of(new GeoPoint(this, ray.getPoint(tm)));
-        return List.of(new GeoPoint(this, ray.getPoint(tm + th)), new GeoPoint(this, ray.getPoint(tm - th)));
+        distances[0] = tm + th;
+        distances[1] = tm - th;
+        return 2;
+    }
+
+    @Override
+    protected void findClosestIntersections(RayPacket packet, int[] lanes, int count) {
+        if (IntersectionStats.isCounting())
+            IntersectionStats.countTests(this, count);
+        double cx = _center.getX(), cy = _center.getY(), cz = _center.getZ();
+        double r2 = _radius * _radius;
+        double[] ox = packet._ox, oy = packet._oy, oz = packet._oz;
+        double[] dx = packet._dx, dy = packet._dy, dz = packet._dz;
+        for (int k = 0; k < count; ++k) {
+            int lane = lanes[k];
+            double t = intersectionDistance(cx, cy, cz, r2, ox[lane], oy[lane], oz[lane],
+                    dx[lane], dy[lane], dz[lane], 0);
+            if (t != Double.POSITIVE_INFINITY)
+                packet.hit(lane, t, this);
+        }
+    }
+
+    /**
+     * Calculates the distance of the first intersection of a ray with a sphere after a given distance - the same
+     * calculation as findIntersectionsTemp, on the coordinate values and without objects. It is shared by the
+     * packets, the sphere sets and the intersection kernels, so they all hit the same points.<br/>
+     * The second intersection of a ray is found by calling again with the distance of the first one
+     *
+     * @param cx center x
+     * @param cy center y
+     * @param cz center z
+     * @param r2 the squared radius (negative infinity for a sphere that is never hit)
+     * @param ox ray start point x
+     * @param oy ray start point y
+     * @param oz ray start point z
+     * @param dx ray direction x
+     * @param dy ray direction y
+     * @param dz ray direction z
+     * @param minDistance the distance from the ray's start point that the intersection has to be after (0 for
+     *                    the closest intersection)
+     * @return the distance of the intersection, or positive infinity if there is none
+     */
+    static double intersectionDistance(double cx, double cy, double cz, double r2,
+                                       double ox, double oy, double oz, double dx, double dy, double dz,
+                                       double minDistance) {
+        // u is the vector from the ray start point to the center, tm - the projection of the center on the ray,
+        // and th - half of the chord
+        double ux = cx - ox, uy = cy - oy, uz = cz - oz;
+        double tm = dx * ux + dy * uy + dz * uz;
+        double h = r2 - (ux * ux + uy * uy + uz * uz - tm * tm);
+        if (h <= 0)
+            return Double.POSITIVE_INFINITY;
+        double th = Math.sqrt(h);
+        if (alignZero(tm - th - minDistance) > 0)
+            return tm - th;
+        return alignZero(tm + th - minDistance) > 0 ? tm + th : Double.POSITIVE_INFINITY;
     }
 
     @Override
     protected BVHBox calcBox() {
-        return new BVHBox(new Point3D(_center.get_x().get() - _radius,
-                _center.get_y().get() - _radius,
-                _center.get_z().get() - _radius),
-                new Point3D(_center.get_x().get() + _radius,
-                        _center.get_y().get() + _radius,
-                        _center.get_z().get() + _radius));
+        return new BVHBox(new Point3D(_center.getX() - _radius,
+                _center.getY() - _radius,
+                _center.getZ() - _radius),
+                new Point3D(_center.getX() + _radius,
+                        _center.getY() + _radius,
+                        _center.getZ() + _radius));
     }
 }
@@ -0,0 +1,405 @@
+package geometries;
+
+import primitives.Color;
+import primitives.Material;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static primitives.Util.alignZero;
+
+/**
+ * SphereSet class represents a big group of spheres, kept compactly for sphere-heavy scenes.<br/>
+ * Instead of a Sphere object for each sphere (with its center point, color, material and box objects), the set
+ * keeps the centers and the radiuses in arrays of doubles, and for each sphere the index of its color and material
+ * in a table (spheres with the same color object and the same material values share the index). The set has its
+ * own BVH tree, built when the set is first intersected, and the arrays are reordered to the tree order so the
+ * spheres of each leaf are consecutive in memory.<br/>
+ * A geometry object is made only for an intersection (a Member - a view of the sphere in the set, for the color,
+ * material and normal of the hit point), so the GeoPoints of the same sphere don't share the geometry object.<br/>
+ * All the spheres have to be added before the set is intersected. The set may be added to geometries before that,
+ * but the BVH of the geometries has to be built after all the spheres are added
+ *
+ * @author Moriah and Shahar
+ */
+
+public class SphereSet extends Intersectable {
+    /**
+     * Initial capacity of the arrays
+     */
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * Centers and radiuses of the spheres
+     */
+    private double[] _cx, _cy, _cz, _radius;
+    /**
+     * Index of the color and the material of each sphere in _emissions and _materials
+     */
+    private int[] _materialIndex;
+    /**
+     * Number of spheres in the set
+     */
+    private int _size = 0;
+    /**
+     * The colors and the materials of the spheres
+     */
+    private final List<Color> _emissions = new ArrayList<>();
+    private final List<Material> _materials = new ArrayList<>();
+    /**
+     * The same colors and materials as arrays (made when the set is first intersected)
+     */
+    private Color[] _emissionArray;
+    private Material[] _materialArray;
+    /**
+     * Index of each color and material in the table - the color by its object, the material by its values
+     * (kD, kS, nShininess, kT, kR)
+     */
+    private final Map<Color, Map<List<Double>, Integer>> _materialIndexes = new IdentityHashMap<>();
+    /**
+     * The BVH tree over the spheres (null until the set is first intersected)
+     */
+    private volatile BVHTree _bvh = null;
+
+    /**
+     * SphereSet default constructor. Makes an empty set
+     */
+    public SphereSet() {
+        _cx = new double[INITIAL_CAPACITY];
+        _cy = new double[INITIAL_CAPACITY];
+        _cz = new double[INITIAL_CAPACITY];
+        _radius = new double[INITIAL_CAPACITY];
+        _materialIndex = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds a sphere to the set
+     *
+     * @param emission the sphere's color
+     * @param material the sphere's material
+     * @param radius the sphere's radius
+     * @param center the sphere's center
+     * @return the set itself for chaining calls
+     * @throws IllegalStateException if the set was intersected already
+     * @throws IllegalArgumentException if the radius is not positive
+     */
+    public synchronized SphereSet add(Color emission, Material material, double radius, Point3D center) {
+        if (_bvh != null)
+            throw new IllegalStateException("Spheres cannot be added to a set that was intersected");
+        if (alignZero(radius) <= 0)
+            throw new IllegalArgumentException("Sphere radius must be positive");
+        if (_size == _cx.length) {
+            int capacity = 2 * _size;
+            _cx = Arrays.copyOf(_cx, capacity);
+            _cy = Arrays.copyOf(_cy, capacity);
+            _cz = Arrays.copyOf(_cz, capacity);
+            _radius = Arrays.copyOf(_radius, capacity);
+            _materialIndex = Arrays.copyOf(_materialIndex, capacity);
+        }
+        _cx[_size] = center.getX();
+        _cy[_size] = center.getY();
+        _cz[_size] = center.getZ();
+        _radius[_size] = radius;
+        _materialIndex[_size] = materialIndex(emission, material);
+        ++_size;
+        resetBox();
+        return this;
+    }
+
+    /**
+     * Adds a sphere to the set (copies its values - the Sphere object itself is not kept)
+     *
+     * @param sphere the sphere
+     * @return the set itself for chaining calls
+     * @throws IllegalStateException if the set was intersected already
+     */
+    public SphereSet add(Sphere sphere) {
+        return add(sphere.get_emission(), sphere.get_material(), sphere._radius, sphere._center);
+    }
+
+    /**
+     * Finds the index of a color and a material in the table, and adds them if they are not there
+     *
+     * @param emission the color
+     * @param material the material
+     * @return the index in the table
+     */
+    private int materialIndex(Color emission, Material material) {
+        Map<List<Double>, Integer> materials = _materialIndexes.computeIfAbsent(emission, e -> new HashMap<>());
+        List<Double> values = List.of(material.get_kD(), material.get_kS(), (double) material.get_nShininess(),
+                material.get_kT(), material.get_kR());
+        return materials.computeIfAbsent(values, v -> {
+            _emissions.add(emission);
+            _materials.add(material);
+            return _emissions.size() - 1;
+        });
+    }
+
+    /**
+     * Number of spheres getter
+     *
+     * @return the number of spheres in the set
+     */
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * Makes a Sphere object of a sphere in the set. After the set is intersected the spheres are in the tree order
+     *
+     * @param i the index of the sphere
+     * @return a new Sphere with the sphere's values
+     */
+    public Sphere get(int i) {
+        if (i < 0 || i >= _size)
+            throw new IndexOutOfBoundsException("No sphere " + i + " in the set");
+        int index = _materialIndex[i];
+        return new Sphere(_emissions.get(index), _materials.get(index), _radius[i], new Point3D(_cx[i], _cy[i], _cz[i]));
+    }
+
+    /**
+     * Returns the BVH tree of the spheres, and builds it if the set is intersected for the first time.
+     * When the tree is built the arrays are reordered to the tree order
+     *
+     * @return the BVH tree
+     */
+    private BVHTree tree() {
+        BVHTree bvh = _bvh;
+        if (bvh != null)
+            return bvh;
+        synchronized (this) {
+            if (_bvh != null)
+                return _bvh;
+            double[] bounds = new double[6 * _size];
+            for (int i = 0; i < _size; i++) {
+                double r = _radius[i];
+                bounds[6 * i] = _cx[i] - r;
+                bounds[6 * i + 1] = _cy[i] - r;
+                bounds[6 * i + 2] = _cz[i] - r;
+                bounds[6 * i + 3] = _cx[i] + r;
+                bounds[6 * i + 4] = _cy[i] + r;
+                bounds[6 * i + 5] = _cz[i] + r;
+            }
+            bvh = new BVHTree(bounds);
+            double[] cx = new double[_size], cy = new double[_size], cz = new double[_size];
+            double[] radius = new double[_size];
+            int[] index = new int[_size];
+            for (int position = 0; position < _size; position++) {
+                int i = bvh.primitive(position);
+                cx[position] = _cx[i];
+                cy[position] = _cy[i];
+                cz[position] = _cz[i];
+                radius[position] = _radius[i];
+                index[position] = _materialIndex[i];
+            }
+            _cx = cx;
+            _cy = cy;
+            _cz = cz;
+            _radius = radius;
+            _materialIndex = index;
+            _emissionArray = _emissions.toArray(new Color[0]);
+            _materialArray = _materials.toArray(new Material[0]);
+            _materialIndexes.clear();
+            _bvh = bvh;
+            return bvh;
+        }
+    }
+
+    /*************** Admin *****************/
+    @Override
+    protected List<GeoPoint> findIntersectionsTemp(Ray ray) {
+        List<GeoPoint> intersections = new ArrayList<>();
+        double[] distances = new double[2];
+        tree().traverseLeaves(ray, Double.POSITIVE_INFINITY, (first, count, maxDistance) -> {
+            for (int i = first; i < first + count; i++) {
+                int found = Sphere.intersectionDistances(_cx[i], _cy[i], _cz[i], _radius[i], ray, distances);
+                if (found == 0)
+                    continue;
+                Member member = new Member(this, i);
+                for (int k = 0; k < found; k++)
+                    intersections.add(new GeoPoint(member, ray.getPoint(distances[k])));
+            }
+            return maxDistance;
+        });
+        return intersections.isEmpty() ? null : intersections;
+    }
+
+    @Override
+    protected GeoPoint findClosestIntersectionTemp(Ray ray, double maxDistance) {
+        Point3D start = ray.get_startPoint();
+        double ox = start.getX(), oy = start.getY(), oz = start.getZ();
+        double dx = ray.getDirectionX(), dy = ray.getDirectionY(), dz = ray.getDirectionZ();
+        int[] closest = { -1 };
+        // the leaf's spheres are consecutive in the arrays, and only the closest one hit becomes a geometry object
+        double distance = visitLeaves(ray, maxDistance, (first, count, currentMax) -> {
+            for (int i = first; i < first + count; i++) {
+                double t = Sphere.intersectionDistance(_cx[i], _cy[i], _cz[i], _radius[i] * _radius[i],
+                        ox, oy, oz, dx, dy, dz, 0);
+                if (t < currentMax) {
+                    currentMax = t;
+                    closest[0] = i;
+                }
+            }
+            return currentMax;
+        });
+        return closest[0] < 0 ? null : new GeoPoint(new Member(this, closest[0]), ray.getPoint(distance));
+    }
+
+    @Override
+    protected double findTransparencyTemp(Ray ray, double maxDistance, double minK) {
+        Point3D start = ray.get_startPoint();
+        double ox = start.getX(), oy = start.getY(), oz = start.getZ();
+        double dx = ray.getDirectionX(), dy = ray.getDirectionY(), dz = ray.getDirectionZ();
+        double[] ktr = { 1.0 };
+        // each intersection up to the light source (one or two for each sphere) multiplies by the sphere's kT
+        visitLeaves(ray, maxDistance, (first, count, currentMax) -> {
+            for (int i = first; i < first + count; i++) {
+                double r2 = _radius[i] * _radius[i];
+                double t = Sphere.intersectionDistance(_cx[i], _cy[i], _cz[i], r2, ox, oy, oz, dx, dy, dz, 0);
+                if (alignZero(t - currentMax) > 0)
+                    continue;
+                double kT = _materialArray[_materialIndex[i]].get_kT();
+                ktr[0] *= kT;
+                t = Sphere.intersectionDistance(_cx[i], _cy[i], _cz[i], r2, ox, oy, oz, dx, dy, dz, t);
+                if (alignZero(t - currentMax) <= 0)
+                    ktr[0] *= kT;
+                if (ktr[0] < minK)
+                    return -1;
+            }
+            return currentMax;
+        });
+        return ktr[0] < minK ? 0.0 : ktr[0];
+    }
+
+    /**
+     * Traverses the leaves of the tree that the ray hits, and counts the spheres that are tested
+     *
+     * @param ray the ray
+     * @param maxDistance the distance from the ray's start point to look for intersections up to
+     * @param visitor the test of the leaf's spheres
+     * @return the distance the traversal ended with
+     */
+    private double visitLeaves(Ray ray, double maxDistance, BVHTree.LeafVisitor visitor) {
+        double[] distance = { maxDistance };
+        tree().traverseLeaves(ray, maxDistance, (first, count, currentMax) -> {
+            if (IntersectionStats.isCounting())
+                IntersectionStats.countTests(this, count);
+            return distance[0] = visitor.visit(first, count, currentMax);
+        });
+        return distance[0];
+    }
+
+    @Override
+    protected synchronized BVHBox calcBox() {
+        double minX = Double.POSITIVE_INFINITY, minY = minX, minZ = minX;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = maxX, maxZ = maxX;
+        for (int i = 0; i < _size; i++) {
+            double r = _radius[i];
+            minX = Math.min(minX, _cx[i] - r);
+            minY = Math.min(minY, _cy[i] - r);
+            minZ = Math.min(minZ, _cz[i] - r);
+            maxX = Math.max(maxX, _cx[i] + r);
+            maxY = Math.max(maxY, _cy[i] + r);
+            maxZ = Math.max(maxZ, _cz[i] + r);
+        }
+        return new BVHBox(new Point3D(minX, minY, minZ), new Point3D(maxX, maxY, maxZ));
+    }
+
+    /**
+     * Member class is a sphere of a set as a geometry - the geometry of the intersections with the set. It refers to
+     * the set and the index of the sphere, instead of copying the sphere's values into a Sphere object
+     */
+    public static class Member extends Geometry {
+        /**
+         * The set of the sphere
+         */
+        private final SphereSet _set;
+        /**
+         * The index of the sphere in the set (in the tree order)
+         */
+        private final int _sphere;
+
+        /**
+         * Member constructor (the set is intersected already, so its colors and materials are in the arrays)
+         *
+         * @param set the set of the sphere
+         * @param sphere the index of the sphere in the set
+         */
+        private Member(SphereSet set, int sphere) {
+            super(set._emissionArray[set._materialIndex[sphere]], set._materialArray[set._materialIndex[sphere]]);
+            _set = set;
+            _sphere = sphere;
+        }
+
+        /**
+         * _set getter
+         *
+         * @return the set of the sphere
+         */
+        public SphereSet getSet() {
+            return _set;
+        }
+
+        /**
+         * _sphere getter
+         *
+         * @return the index of the sphere in the set
+         */
+        public int getIndex() {
+            return _sphere;
+        }
+
+        /**
+         * Makes the center of the sphere
+         *
+         * @return the center point
+         */
+        public Point3D getCenter() {
+            return new Point3D(_set._cx[_sphere], _set._cy[_sphere], _set._cz[_sphere]);
+        }
+
+        /**
+         * Radius getter
+         *
+         * @return the radius of the sphere
+         */
+        public double getRadius() {
+            return _set._radius[_sphere];
+        }
+
+        @Override
+        public Vector getNormal(Point3D point) {
+            return point.subtract(getCenter()).normalize();
+        }
+
+        @Override
+        protected List<GeoPoint> findIntersectionsTemp(Ray ray) {
+            double[] distances = new double[2];
+            int found = Sphere.intersectionDistances(_set._cx[_sphere], _set._cy[_sphere], _set._cz[_sphere],
+                    getRadius(), ray, distances);
+            if (found == 0)
+                return null;
+            return found == 1 ? List.of(new GeoPoint(this, ray.getPoint(distances[0])))
+                    : List.of(new GeoPoint(this, ray.getPoint(distances[0])),
+                    new GeoPoint(this, ray.getPoint(distances[1])));
+        }
+
+        @Override
+        protected BVHBox calcBox() {
+            double r = getRadius();
+            return new BVHBox(new Point3D(_set._cx[_sphere] - r, _set._cy[_sphere] - r, _set._cz[_sphere] - r),
+                    new Point3D(_set._cx[_sphere] + r, _set._cy[_sphere] + r, _set._cz[_sphere] + r));
+        }
+
+        @Override
+        public String toString() {
+            return "Sphere {center = " + getCenter() + ", R = " + getRadius() + '}';
+        }
+    }
+}
@@ -5,6 +5,9 @@ import primitives.Material;
 import primitives.Point3D;
 import java.util.List;
 
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
 /**
  * Triangle class represents two-dimensional triangle in 3D Cartesian coordinate
  * system
@@ -13,6 +16,13 @@ import java.util.List;
  */
 
 public class Triangle extends Polygon {
+    /**
+     * The first vertex and the two edges from it (to the second and the third vertices),
+     * for the Moller-Trumbore intersection of ray packets and of the intersection kernels
+     */
+    final double _v0x, _v0y, _v0z;
+    final double _e1x, _e1y, _e1z;
+    final double _e2x, _e2y, _e2z;
 
     /**
      * Triangle constructor receiving 3 3D points that are the vertices of the triangle
@@ -53,6 +63,15 @@ public class Triangle extends Polygon {
      */
     public Triangle(Color _emission, Material _material, Point3D p1, Point3D p2, Point3D p3) {
         super(_emission, _material, p1, p2, p3);
+        _v0x = p1.getX();
+        _v0y = p1.getY();
+        _v0z = p1.getZ();
+        _e1x = p2.getX() - _v0x;
+        _e1y = p2.getY() - _v0y;
+        _e1z = p2.getZ() - _v0z;
+        _e2x = p3.getX() - _v0x;
+        _e2y = p3.getY() - _v0y;
+        _e2z = p3.getZ() - _v0z;
     }
 
     /**
@@ -65,6 +84,68 @@ public class Triangle extends Polygon {
     }
 
     /*************** Admin *****************/
+    @Override
+    protected void findClosestIntersections(RayPacket packet, int[] lanes, int count) {
+        if (IntersectionStats.isCounting())
+            IntersectionStats.countTests(this, count);
+        double[] ox = packet._ox, oy = packet._oy, oz = packet._oz;
+        double[] dx = packet._dx, dy = packet._dy, dz = packet._dz;
+        for (int k = 0; k < count; ++k) {
+            int lane = lanes[k];
+            double t = intersectionDistance(_v0x, _v0y, _v0z, _e1x, _e1y, _e1z, _e2x, _e2y, _e2z,
+                    ox[lane], oy[lane], oz[lane], dx[lane], dy[lane], dz[lane]);
+            if (t != Double.POSITIVE_INFINITY)
+                packet.hit(lane, t, this);
+        }
+    }
+
+    /**
+     * Calculates the distance of the intersection of a ray with a triangle, on the coordinate values and without
+     * objects (Moller-Trumbore - solves start + t * direction = v0 + u * e1 + v * e2). On the edges is not a hit.
+     * It is shared by the packets, the triangle meshes and the intersection kernels, so they all hit the same
+     * points
+     *
+     * @param v0x first vertex x
+     * @param v0y first vertex y
+     * @param v0z first vertex z
+     * @param e1x the edge to the second vertex x
+     * @param e1y the edge to the second vertex y
+     * @param e1z the edge to the second vertex z
+     * @param e2x the edge to the third vertex x
+     * @param e2y the edge to the third vertex y
+     * @param e2z the edge to the third vertex z
+     * @param ox ray start point x
+     * @param oy ray start point y
+     * @param oz ray start point z
+     * @param dx ray direction x
+     * @param dy ray direction y
+     * @param dz ray direction z
+     * @return the distance from the ray's start point to the intersection, or positive infinity if there is none
+     */
+    static double intersectionDistance(double v0x, double v0y, double v0z,
+                                       double e1x, double e1y, double e1z, double e2x, double e2y, double e2z,
+                                       double ox, double oy, double oz, double dx, double dy, double dz) {
+        double px = dy * e2z - dz * e2y;
+        double py = dz * e2x - dx * e2z;
+        double pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det)) // the ray is parallel to the triangle
+            return Double.POSITIVE_INFINITY;
+        double inverse = 1 / det;
+        double sx = ox - v0x, sy = oy - v0y, sz = oz - v0z;
+        double u = (sx * px + sy * py + sz * pz) * inverse;
+        if (alignZero(u) <= 0 || alignZero(u - 1) >= 0)
+            return Double.POSITIVE_INFINITY;
+        double qx = sy * e1z - sz * e1y;
+        double qy = sz * e1x - sx * e1z;
+        double qz = sx * e1y - sy * e1x;
+        double v = (dx * qx + dy * qy + dz * qz) * inverse;
+        if (alignZero(v) <= 0 || alignZero(u + v - 1) >= 0)
+            return Double.POSITIVE_INFINITY;
+        double t = (e2x * qx + e2y * qy + e2z * qz) * inverse;
+        return alignZero(t) > 0 ? t : Double.POSITIVE_INFINITY;
+    }
+
     @Override
     public String toString() {
         return "{" +
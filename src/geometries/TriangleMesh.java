@@ -0,0 +1,334 @@
+package geometries;
+
+import primitives.Color;
+import primitives.Material;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import static primitives.Util.alignZero;
+
+/**
+ * TriangleMesh class represents a model made of many triangles with one color and material, kept compactly for
+ * big models (millions of triangles).<br/>
+ * The vertices are kept in one array of doubles (x, y, z of each vertex), and each triangle (face) is three
+ * indexes of its vertices in an array of ints - the faces share their vertices, and no object is made for a face.
+ * The mesh has its own BVH tree, and the faces are reordered to the tree order so the faces of each leaf are
+ * consecutive in memory. The faces are intersected with Moller-Trumbore, by Triangle.intersectionDistance.<br/>
+ * A Face object (a light geometry that refers to the mesh) is made only for an intersection, for the normal of
+ * the hit point
+ *
+ * @author Moriah and Shahar
+ */
+
+public class TriangleMesh extends Intersectable {
+    /**
+     * The color and the material of all the faces
+     */
+    private final Color _emission;
+    private final Material _material;
+    /**
+     * The vertices - x, y, z of each vertex
+     */
+    private final double[] _vertices;
+    /**
+     * The faces in the tree order - the indexes of the three vertices of each face
+     */
+    private final int[] _indices;
+    /**
+     * The BVH tree over the faces
+     */
+    private final BVHTree _bvh;
+
+    /**
+     * TriangleMesh constructor receiving the vertices and the faces.
+     * Sets the mesh's color (_emission) to black, and the material to (0, 0, 0)
+     *
+     * @param vertices x, y, z of each vertex
+     * @param indices the indexes of the three vertices of each face (counter clockwise from the normal's side)
+     * @throws IllegalArgumentException if the arrays are not of whole vertices and faces, or an index is not
+     *                                  of a vertex
+     */
+    public TriangleMesh(double[] vertices, int[] indices) {
+        this(Color.BLACK, new Material(0, 0, 0), vertices, indices);
+    }
+
+    /**
+     * TriangleMesh constructor receiving the color and the material of the faces, the vertices and the faces.
+     * The arrays are copied, and the BVH tree of the faces is built
+     *
+     * @param emission the faces' color
+     * @param material the faces' material
+     * @param vertices x, y, z of each vertex
+     * @param indices the indexes of the three vertices of each face (counter clockwise from the normal's side)
+     * @throws IllegalArgumentException if the arrays are not of whole vertices and faces, or an index is not
+     *                                  of a vertex
+     */
+    public TriangleMesh(Color emission, Material material, double[] vertices, int[] indices) {
+        if (vertices.length % 3 != 0)
+            throw new IllegalArgumentException("The vertices array must have 3 coordinates for each vertex");
+        if (indices.length % 3 != 0)
+            throw new IllegalArgumentException("The indices array must have 3 vertices for each face");
+        int vertexCount = vertices.length / 3;
+        for (int index : indices)
+            if (index < 0 || index >= vertexCount)
+                throw new IllegalArgumentException("Vertex index " + index + " is not of a vertex");
+        _emission = emission;
+        _material = material;
+        _vertices = vertices.clone();
+        int faces = indices.length / 3;
+        double[] bounds = new double[6 * faces];
+        for (int f = 0; f < faces; f++)
+            for (int axis = 0; axis < 3; axis++) {
+                double a = vertices[3 * indices[3 * f] + axis];
+                double b = vertices[3 * indices[3 * f + 1] + axis];
+                double c = vertices[3 * indices[3 * f + 2] + axis];
+                bounds[6 * f + axis] = Math.min(a, Math.min(b, c));
+                bounds[6 * f + 3 + axis] = Math.max(a, Math.max(b, c));
+            }
+        _bvh = new BVHTree(bounds);
+        _indices = new int[indices.length];
+        for (int position = 0; position < faces; position++)
+            System.arraycopy(indices, 3 * _bvh.primitive(position), _indices, 3 * position, 3);
+    }
+
+    /**
+     * _emission getter
+     *
+     * @return the color of the faces
+     */
+    public Color get_emission() {
+        return _emission;
+    }
+
+    /**
+     * _material getter
+     *
+     * @return the material of the faces
+     */
+    public Material get_material() {
+        return _material;
+    }
+
+    /**
+     * Number of faces getter
+     *
+     * @return the number of faces in the mesh
+     */
+    public int size() {
+        return _indices.length / 3;
+    }
+
+    /**
+     * Makes a Face object of a face of the mesh (the faces are in the tree order)
+     *
+     * @param face the index of the face
+     * @return a new Face
+     */
+    public Face getFace(int face) {
+        if (face < 0 || face >= size())
+            throw new IndexOutOfBoundsException("No face " + face + " in the mesh");
+        return new Face(this, face);
+    }
+
+    /**
+     * Calculates the distance of the intersection of a ray with a face (see Triangle.intersectionDistance)
+     *
+     * @param face the index of the face
+     * @param ox ray start point x
+     * @param oy ray start point y
+     * @param oz ray start point z
+     * @param dx ray direction x
+     * @param dy ray direction y
+     * @param dz ray direction z
+     * @return the distance from the ray's start point to the intersection, or positive infinity if there is none
+     */
+    private double intersect(int face, double ox, double oy, double oz, double dx, double dy, double dz) {
+        int a = 3 * _indices[3 * face], b = 3 * _indices[3 * face + 1], c = 3 * _indices[3 * face + 2];
+        double v0x = _vertices[a], v0y = _vertices[a + 1], v0z = _vertices[a + 2];
+        double e1x = _vertices[b] - v0x, e1y = _vertices[b + 1] - v0y, e1z = _vertices[b + 2] - v0z;
+        double e2x = _vertices[c] - v0x, e2y = _vertices[c + 1] - v0y, e2z = _vertices[c + 2] - v0z;
+        return Triangle.intersectionDistance(v0x, v0y, v0z, e1x, e1y, e1z, e2x, e2y, e2z, ox, oy, oz, dx, dy, dz);
+    }
+
+    /**
+     * Calculates the distance of the intersection of a ray with a face
+     *
+     * @param face the index of the face
+     * @param ray the ray
+     * @return the distance from the ray's start point to the intersection, or positive infinity if there is none
+     */
+    private double intersect(int face, Ray ray) {
+        Point3D start = ray.get_startPoint();
+        return intersect(face, start.getX(), start.getY(), start.getZ(),
+                ray.getDirectionX(), ray.getDirectionY(), ray.getDirectionZ());
+    }
+
+    /*************** Admin *****************/
+    @Override
+    protected List<GeoPoint> findIntersectionsTemp(Ray ray) {
+        List<GeoPoint> intersections = new LinkedList<>();
+        _bvh.traverseLeaves(ray, Double.POSITIVE_INFINITY, (first, count, maxDistance) -> {
+            if (IntersectionStats.isCounting())
+                IntersectionStats.countTests(this, count);
+            for (int face = first; face < first + count; face++) {
+                double t = intersect(face, ray);
+                if (t != Double.POSITIVE_INFINITY)
+                    intersections.add(new GeoPoint(new Face(this, face), ray.getPoint(t)));
+            }
+            return maxDistance;
+        });
+        return intersections.isEmpty() ? null : intersections;
+    }
+
+    @Override
+    protected GeoPoint findClosestIntersectionTemp(Ray ray, double maxDistance) {
+        Point3D start = ray.get_startPoint();
+        double ox = start.getX(), oy = start.getY(), oz = start.getZ();
+        double dx = ray.getDirectionX(), dy = ray.getDirectionY(), dz = ray.getDirectionZ();
+        int[] closest = { -1 };
+        double[] distance = { maxDistance };
+        // only the closest face hit becomes a Face object
+        _bvh.traverseLeaves(ray, maxDistance, (first, count, currentMax) -> {
+            if (IntersectionStats.isCounting())
+                IntersectionStats.countTests(this, count);
+            for (int face = first; face < first + count; face++) {
+                double t = intersect(face, ox, oy, oz, dx, dy, dz);
+                if (t < currentMax) {
+                    currentMax = t;
+                    closest[0] = face;
+                }
+            }
+            return distance[0] = currentMax;
+        });
+        return closest[0] < 0 ? null : new GeoPoint(new Face(this, closest[0]), ray.getPoint(distance[0]));
+    }
+
+    @Override
+    protected double findTransparencyTemp(Ray ray, double maxDistance, double minK) {
+        Point3D start = ray.get_startPoint();
+        double ox = start.getX(), oy = start.getY(), oz = start.getZ();
+        double dx = ray.getDirectionX(), dy = ray.getDirectionY(), dz = ray.getDirectionZ();
+        double kT = _material.get_kT();
+        double[] ktr = { 1.0 };
+        // each face up to the light source multiplies by the mesh's kT
+        _bvh.traverseLeaves(ray, maxDistance, (first, count, currentMax) -> {
+            if (IntersectionStats.isCounting())
+                IntersectionStats.countTests(this, count);
+            for (int face = first; face < first + count; face++) {
+                double t = intersect(face, ox, oy, oz, dx, dy, dz);
+                if (alignZero(t - currentMax) <= 0) {
+                    ktr[0] *= kT;
+                    if (ktr[0] < minK)
+                        return -1;
+                }
+            }
+            return currentMax;
+        });
+        return ktr[0] < minK ? 0.0 : ktr[0];
+    }
+
+    @Override
+    protected BVHBox calcBox() {
+        double minX = Double.POSITIVE_INFINITY, minY = minX, minZ = minX;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = maxX, maxZ = maxX;
+        // only the vertices of faces count
+        for (int index : _indices) {
+            minX = Math.min(minX, _vertices[3 * index]);
+            minY = Math.min(minY, _vertices[3 * index + 1]);
+            minZ = Math.min(minZ, _vertices[3 * index + 2]);
+            maxX = Math.max(maxX, _vertices[3 * index]);
+            maxY = Math.max(maxY, _vertices[3 * index + 1]);
+            maxZ = Math.max(maxZ, _vertices[3 * index + 2]);
+        }
+        return new BVHBox(new Point3D(minX, minY, minZ), new Point3D(maxX, maxY, maxZ));
+    }
+
+    /**
+     * Face class is a face of a triangle mesh - the geometry of an intersection with the mesh. It's a light object
+     * that refers to the mesh and the index of the face, with the mesh's color and material
+     */
+    public static class Face extends Geometry {
+        /**
+         * The mesh of the face
+         */
+        private final TriangleMesh _mesh;
+        /**
+         * The index of the face in the mesh
+         */
+        private final int _face;
+
+        /**
+         * Face constructor
+         *
+         * @param mesh the mesh of the face
+         * @param face the index of the face in the mesh
+         */
+        private Face(TriangleMesh mesh, int face) {
+            super(mesh._emission, mesh._material);
+            _mesh = mesh;
+            _face = face;
+        }
+
+        /**
+         * _mesh getter
+         *
+         * @return the mesh of the face
+         */
+        public TriangleMesh getMesh() {
+            return _mesh;
+        }
+
+        /**
+         * _face getter
+         *
+         * @return the index of the face in the mesh
+         */
+        public int getIndex() {
+            return _face;
+        }
+
+        /**
+         * Makes a vertex of the face
+         *
+         * @param vertex 0, 1 or 2
+         * @return the vertex point
+         */
+        public Point3D getVertex(int vertex) {
+            int v = 3 * _mesh._indices[3 * _face + vertex];
+            return new Point3D(_mesh._vertices[v], _mesh._vertices[v + 1], _mesh._vertices[v + 2]);
+        }
+
+        @Override
+        public Vector getNormal(Point3D point) {
+            Point3D v0 = getVertex(0);
+            return getVertex(1).subtract(v0).crossProduct(getVertex(2).subtract(v0)).normalize();
+        }
+
+        @Override
+        protected List<GeoPoint> findIntersectionsTemp(Ray ray) {
+            double t = _mesh.intersect(_face, ray);
+            return t != Double.POSITIVE_INFINITY ? List.of(new GeoPoint(this, ray.getPoint(t))) : null;
+        }
+
+        @Override
+        protected BVHBox calcBox() {
+            Point3D a = getVertex(0), b = getVertex(1), c = getVertex(2);
+            return new BVHBox(
+                    new Point3D(Math.min(a.getX(), Math.min(b.getX(), c.getX())),
+                            Math.min(a.getY(), Math.min(b.getY(), c.getY())),
+                            Math.min(a.getZ(), Math.min(b.getZ(), c.getZ()))),
+                    new Point3D(Math.max(a.getX(), Math.max(b.getX(), c.getX())),
+                            Math.max(a.getY(), Math.max(b.getY(), c.getY())),
+                            Math.max(a.getZ(), Math.max(b.getZ(), c.getZ()))));
+        }
+
+        @Override
+        public String toString() {
+            return "{" + getVertex(0) + ", " + getVertex(1) + ", " + getVertex(2) + '}';
+        }
+    }
+}
@@ -11,9 +11,9 @@ package primitives;
 public class Color {
     /**
      * The internal fields tx`o maintain RGB components as double numbers from 0 to
-     * whatever...
+     * whatever... (package access for ColorAccumulator)
      */
-    private double _r = 0.0, _g = 0.0, _b = 0.0;
+    double _r = 0.0, _g = 0.0, _b = 0.0;
 
     public final static Color BLACK = new Color();
 
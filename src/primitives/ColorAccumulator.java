@@ -0,0 +1,142 @@
+package primitives;
+
+/**
+ * ColorAccumulator class is a mutable color sum, for summing light colors without creating new Color objects.
+ * All the operations change the accumulator itself and return it for chaining calls
+ *
+ * @author Moriah and Shahar
+ */
+
+public class ColorAccumulator {
+    /**
+     * The RGB components of the sum (from 0 to whatever...)
+     */
+    private double _r = 0.0, _g = 0.0, _b = 0.0;
+
+    /**
+     * Default constructor - starts with an empty (black) sum
+     */
+    public ColorAccumulator() {}
+
+    /**
+     * Resets the sum to black
+     *
+     * @return the accumulator itself for chaining calls
+     */
+    public ColorAccumulator reset() {
+        _r = 0.0;
+        _g = 0.0;
+        _b = 0.0;
+        return this;
+    }
+
+    /**
+     * Adds a color to the sum (by component)
+     *
+     * @param color the color to add
+     * @return the accumulator itself for chaining calls
+     */
+    public ColorAccumulator add(Color color) {
+        _r += color._r;
+        _g += color._g;
+        _b += color._b;
+        return this;
+    }
+
+    /**
+     * Adds a color scaled by a scalar to the sum (by component), without creating the scaled color
+     *
+     * @param color the color to add
+     * @param k scale factor of the color
+     * @return the accumulator itself for chaining calls
+     * @throws IllegalArgumentException if the scale factor is negative
+     */
+    public ColorAccumulator add(Color color, double k) {
+        if (k < 0)
+            throw new IllegalArgumentException("Can't scale a color by a negative number");
+        _r += color._r * k;
+        _g += color._g * k;
+        _b += color._b * k;
+        return this;
+    }
+
+    /**
+     * Adds another sum to this sum (by component)
+     *
+     * @param other the sum to add
+     * @return the accumulator itself for chaining calls
+     */
+    public ColorAccumulator add(ColorAccumulator other) {
+        _r += other._r;
+        _g += other._g;
+        _b += other._b;
+        return this;
+    }
+
+    /**
+     * Adds another sum scaled by a scalar to this sum (by component)
+     *
+     * @param other the sum to add
+     * @param k scale factor of the other sum
+     * @return the accumulator itself for chaining calls
+     * @throws IllegalArgumentException if the scale factor is negative
+     */
+    public ColorAccumulator add(ColorAccumulator other, double k) {
+        if (k < 0)
+            throw new IllegalArgumentException("Can't scale a color by a negative number");
+        _r += other._r * k;
+        _g += other._g * k;
+        _b += other._b * k;
+        return this;
+    }
+
+    /**
+     * Calculates how different this sum and another sum look - the biggest difference between their components,
+     * when any component bigger than 255 is taken as 255 (like in getColor())
+     *
+     * @param other the other sum
+     * @return the biggest difference between the components of the two sums, from 0 to 255
+     */
+    public double difference(ColorAccumulator other) {
+        double r = Math.abs(Math.min(_r, 255) - Math.min(other._r, 255));
+        double g = Math.abs(Math.min(_g, 255) - Math.min(other._g, 255));
+        double b = Math.abs(Math.min(_b, 255) - Math.min(other._b, 255));
+        return Math.max(r, Math.max(g, b));
+    }
+
+    /**
+     * Scale the sum by (1 / reduction factor)
+     *
+     * @param k reduction factor
+     * @return the accumulator itself for chaining calls
+     * @throws IllegalArgumentException if the reduction factor is lower than 1
+     */
+    public ColorAccumulator reduce(double k) {
+        if (k < 1)
+            throw new IllegalArgumentException("Can't scale a color by a by a number lower than 1");
+        _r /= k;
+        _g /= k;
+        _b /= k;
+        return this;
+    }
+
+    /**
+     * Creates a Color with the sum value
+     *
+     * @return new Color object with the sum RGB components
+     */
+    public Color toColor() {
+        return new Color(_r, _g, _b);
+    }
+
+    /**
+     * Returns the sum after converting it into java.awt.Color object (like Color.getColor())
+     * During the conversion any component bigger than 255 is set to 255
+     *
+     * @return java.awt.Color object based on the sum RGB components
+     */
+    public java.awt.Color getColor() {
+        int r = (int)_r, g = (int)_g, b = (int)_b;
+        return new java.awt.Color(r > 255 ? 255 : r, g > 255 ? 255 : g, b > 255 ? 255 : b);
+    }
+}
@@ -1,5 +1,7 @@
 package primitives;
 
+import static primitives.Util.*;
+
 /**
  * Class Point3D is the basic class representing a 3-Dimensional point of Euclidean geometry in Cartesian
  * 3-Dimensional coordinate system.
@@ -8,14 +10,15 @@ package primitives;
 
 public class Point3D {
     /**
-     * The 3 Coordinates that make a 3D point.
+     * The 3 coordinate values that make a 3D point.
      * _x is the x axis
      * _y is the y axis
      * _z is the z axis
+     * The values are final (a point cannot be changed), so points can be shared without copying them
      */
-    Coordinate _x;
-    Coordinate _y;
-    Coordinate _z;
+    final double _x;
+    final double _y;
+    final double _z;
     final static public Point3D ZERO = new Point3D(0, 0, 0);
 
     /**
@@ -26,9 +29,9 @@ public class Point3D {
      * @param _z coordinate z
      */
     public Point3D(Coordinate _x, Coordinate _y, Coordinate _z) {
-        this._x = new Coordinate(_x);
-        this._y = new Coordinate(_y);
-        this._z = new Coordinate(_z);
+        this._x = _x._coord;
+        this._y = _y._coord;
+        this._z = _z._coord;
     }
 
     /**
@@ -39,9 +42,10 @@ public class Point3D {
      * @param _z coordinate z value
      */
     public Point3D(double _x, double _y, double _z) {
-        this._x = new Coordinate(_x);
-        this._y = new Coordinate(_y);
-        this._z = new Coordinate(_z);
+        // if a value is too close to zero make it zero (like Coordinate)
+        this._x = alignZero(_x);
+        this._y = alignZero(_y);
+        this._z = alignZero(_z);
     }
 
     /**
@@ -50,9 +54,9 @@ public class Point3D {
      * @param other
      */
     public Point3D(Point3D other) {
-        this._x = new Coordinate(other._x);
-        this._y = new Coordinate(other._y);
-        this._z = new Coordinate(other._z);
+        this._x = other._x;
+        this._y = other._y;
+        this._z = other._z;
     }
 
     /**
@@ -82,6 +86,33 @@ public class Point3D {
         return new Coordinate(_z);
     }
 
+    /**
+     * _x value getter, without creating a Coordinate
+     *
+     * @return _x value
+     */
+    public double getX() {
+        return _x;
+    }
+
+    /**
+     * _y value getter, without creating a Coordinate
+     *
+     * @return _y value
+     */
+    public double getY() {
+        return _y;
+    }
+
+    /**
+     * _z value getter, without creating a Coordinate
+     *
+     * @return _z value
+     */
+    public double getZ() {
+        return _z;
+    }
+
     /**
      * Gets another 3D point and returns the vector from the other point to this point
      *
@@ -89,7 +120,7 @@ public class Point3D {
      * @return a Vector
      */
     public Vector subtract(Point3D point3D) {
-        return new Vector(this._x.get() - point3D._x.get(), this._y.get() - point3D._y.get(), this._z.get() - point3D._z.get());
+        return new Vector(this._x - point3D._x, this._y - point3D._y, this._z - point3D._z);
     }
 
     /**
@@ -99,7 +130,7 @@ public class Point3D {
      * @return a 3D point
      */
     public Point3D add(Vector vec) {
-        return new Point3D(vec.get_point()._x.get() + this._x.get(), vec.get_point()._y.get() + this._y.get(), vec.get_point()._z.get() + this._z.get());
+        return new Point3D(vec._x + this._x, vec._y + this._y, vec._z + this._z);
     }
 
     /**
@@ -109,9 +140,9 @@ public class Point3D {
      * @return a double that represents the distance squared
      */
     public double distanceSquared(Point3D point3D) {
-        double distanceX = this._x.get() - point3D._x.get();
-        double distanceY = this._y.get() - point3D._y.get();
-        double distanceZ = this._z.get() - point3D._z.get();
+        double distanceX = this._x - point3D._x;
+        double distanceY = this._y - point3D._y;
+        double distanceZ = this._z - point3D._z;
         return distanceX*distanceX + distanceY*distanceY + distanceZ*distanceZ;
     }
 
@@ -131,9 +162,9 @@ public class Point3D {
         if (this == o) return true;
         if (!(o instanceof Point3D)) return false;
         Point3D point3D = (Point3D) o;
-        return _x.equals(point3D._x) &&
-                _y.equals(point3D._y) &&
-                _z.equals(point3D._z);
+        return isZero(_x - point3D._x) &&
+                isZero(_y - point3D._y) &&
+                isZero(_z - point3D._z);
     }
 
     @Override
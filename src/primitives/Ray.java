@@ -1,5 +1,7 @@
 package primitives;
 
+import static primitives.Util.alignZero;
+
 /**
  * Class Ray is the basic class representing a line from a 3-Dimensional point to the infinity, with a start point and direction of Euclidean geometry in Cartesian
  * 3-Dimensional coordinate system.
@@ -8,13 +10,13 @@ package primitives;
 
 public class Ray {
     /**
-     * The start point of the ray
+     * The start point of the ray (Point3D is immutable, so it is shared without copying)
      */
-    Point3D _startPoint;
+    final Point3D _startPoint;
     /**
      * A normalized vector the represents the ray direction
      */
-    Vector _direction;
+    final Vector _direction;
     /**
      * Const for how much to move the beginning of the ray for shading, transparency and reflection rays
      */
@@ -27,8 +29,8 @@ public class Ray {
      * @param _direction vector of the ray
      */
     public Ray(Point3D _startPoint, Vector _direction) {
-        this._startPoint = new Point3D(_startPoint);
-        this._direction = new Vector(_direction.normalized());
+        this._startPoint = _startPoint;
+        this._direction = _direction.normalized();
     }
 
     /**
@@ -39,7 +41,7 @@ public class Ray {
      * @throws IllegalArgumentException if the points are the same point
      */
     public Ray(Point3D _startPoint, Point3D pointOnTheRay) {
-        this._startPoint = new Point3D(_startPoint);
+        this._startPoint = _startPoint;
         try {
             this._direction = pointOnTheRay.subtract(_startPoint).normalize();
         }
@@ -67,17 +69,17 @@ public class Ray {
      * @param other
      */
     public Ray(Ray other) {
-        this._startPoint = new Point3D(other._startPoint);
-        this._direction = new Vector(other._direction);
+        this._startPoint = other._startPoint;
+        this._direction = other._direction; // the direction is never changed, so it can be shared
     }
 
     /**
      * _startPoint value getter
      *
-     * @return a point that is _startPoint
+     * @return a point that is _startPoint (the point itself, a point cannot be changed)
      */
     public Point3D get_startPoint() {
-        return new Point3D(_startPoint);
+        return _startPoint;
     }
 
     /**
@@ -89,6 +91,43 @@ public class Ray {
         return new Vector(_direction);
     }
 
+    /**
+     * _direction x value getter, without copying the direction vector
+     *
+     * @return x value of the direction vector
+     */
+    public double getDirectionX() {
+        return _direction._x;
+    }
+
+    /**
+     * _direction y value getter, without copying the direction vector
+     *
+     * @return y value of the direction vector
+     */
+    public double getDirectionY() {
+        return _direction._y;
+    }
+
+    /**
+     * _direction z value getter, without copying the direction vector
+     *
+     * @return z value of the direction vector
+     */
+    public double getDirectionZ() {
+        return _direction._z;
+    }
+
+    /**
+     * Does a dot product between the ray direction and a received vector, without copying the direction vector
+     *
+     * @param vec the vector
+     * @return double, the value of the dot production between the ray direction and the vector
+     */
+    public double dotDirection(Vector vec) {
+        return _direction.dotProduct(vec);
+    }
+
     /**
      * Gets a scalar and returns the point on the ray according to the scalar (P0 + tv)
      *
@@ -98,13 +137,12 @@ public class Ray {
     public Point3D getPoint(double t) {
         if (t < 0)
             throw new IllegalArgumentException("t (the scalar) cannot be negative");
-        try
-        {
-            return _startPoint.add(_direction.scale(t));
-        }
-        catch (IllegalArgumentException e) {
-            return get_startPoint();
-        }
+        double x = alignZero(t * _direction._x);
+        double y = alignZero(t * _direction._y);
+        double z = alignZero(t * _direction._z);
+        if (x == 0 && y == 0 && z == 0) // tv is the zero vector
+            return _startPoint;
+        return new Point3D(x + _startPoint._x, y + _startPoint._y, z + _startPoint._z);
     }
 
     /*************** Admin *****************/
@@ -1,5 +1,7 @@
 package primitives;
 
+import static primitives.Util.*;
+
 /**
  * Class Vector is the basic class representing a line between a 3-Dimensional point and the ZERO point, with length and direction of Euclidean geometry in Cartesian
  * 3-Dimensional coordinate system.
@@ -8,9 +10,12 @@ package primitives;
 
 public class Vector {
     /**
-     * The end point of the vector
+     * The end point of the vector (its coordinate values)
+     * The values are not final because normalize() changes this vector
      */
-    Point3D _point;
+    double _x;
+    double _y;
+    double _z;
 
     /**
      * Vector constructor receiving point coordinates
@@ -21,10 +26,7 @@ public class Vector {
      * @throws IllegalArgumentException if the point from the coordinates is the ZERO point
      */
     public Vector(Coordinate x, Coordinate y, Coordinate z) {
-        Point3D temp = new Point3D(x, y ,z);
-        if(temp.equals(Point3D.ZERO))
-            throw new IllegalArgumentException("Vector cannot be zero");
-        this._point = temp;
+        this(x._coord, y._coord, z._coord);
     }
 
     /**
@@ -36,10 +38,15 @@ public class Vector {
      * @throws IllegalArgumentException if the point from the coordinates value is the ZERO point
      */
     public Vector(double x, double y, double z) {
-        Point3D temp = new Point3D(x, y ,z);
-        if(temp.equals(Point3D.ZERO))
+        // if a value is too close to zero make it zero (like Coordinate)
+        x = alignZero(x);
+        y = alignZero(y);
+        z = alignZero(z);
+        if (x == 0 && y == 0 && z == 0)
             throw new IllegalArgumentException("Vector cannot be zero");
-        this._point = temp;
+        this._x = x;
+        this._y = y;
+        this._z = z;
     }
 
     /**
@@ -49,9 +56,7 @@ public class Vector {
      * @throws IllegalArgumentException if the point is the ZERO point
      */
     public Vector(Point3D _point) {
-        if(_point.equals(Point3D.ZERO))
-            throw new IllegalArgumentException("Vector cannot be zero");
-        this._point = new Point3D(_point);
+        this(_point._x, _point._y, _point._z);
     }
 
     /**
@@ -60,7 +65,9 @@ public class Vector {
      * @param other
      */
     public Vector(Vector other) {
-        this._point = new Point3D(other._point);
+        this._x = other._x;
+        this._y = other._y;
+        this._z = other._z;
     }
 
     /**
@@ -69,7 +76,34 @@ public class Vector {
      * @return point value
      */
     public Point3D get_point() {
-        return new Point3D(_point);
+        return new Point3D(_x, _y, _z);
+    }
+
+    /**
+     * x value getter, without creating a point
+     *
+     * @return x value of the vector point
+     */
+    public double getX() {
+        return _x;
+    }
+
+    /**
+     * y value getter, without creating a point
+     *
+     * @return y value of the vector point
+     */
+    public double getY() {
+        return _y;
+    }
+
+    /**
+     * z value getter, without creating a point
+     *
+     * @return z value of the vector point
+     */
+    public double getZ() {
+        return _z;
     }
 
     /**
@@ -79,7 +113,7 @@ public class Vector {
      * @return a new vector with the new point
      */
     public Vector subtract(Vector vec) {
-        return this._point.subtract(vec._point);
+        return new Vector(this._x - vec._x, this._y - vec._y, this._z - vec._z);
     }
 
     /**
@@ -89,7 +123,7 @@ public class Vector {
      * @return a new vector with the new point
      */
     public Vector add(Vector vec) {
-        return new Vector(this._point.add(vec));
+        return new Vector(vec._x + this._x, vec._y + this._y, vec._z + this._z);
     }
 
     /**
@@ -99,7 +133,7 @@ public class Vector {
      * @return a new vector the is multiplied with the scale
      */
     public Vector scale(double num) {
-        return new Vector(num * this._point.get_x().get(), num * this._point.get_y().get(), num * this._point.get_z().get());
+        return new Vector(num * this._x, num * this._y, num * this._z);
     }
 
     /**
@@ -109,9 +143,9 @@ public class Vector {
      * @return double, the value of the dot production between the vectors
      */
     public double dotProduct(Vector vec) {
-        return this._point.get_x().get() * vec._point.get_x().get() +
-                this._point.get_y().get() * vec._point.get_y().get() +
-                this._point.get_z().get() * vec._point.get_z().get();
+        return this._x * vec._x +
+                this._y * vec._y +
+                this._z * vec._z;
     }
 
     /**
@@ -121,9 +155,9 @@ public class Vector {
      * @return a new vector, which is the outcome of the cross production between the vectors
      */
     public Vector crossProduct(Vector vec) {
-        return new Vector(this._point.get_y().get() * vec._point.get_z().get() - this._point.get_z().get() * vec._point.get_y().get(),
-                this._point.get_z().get() * vec._point.get_x().get() - this._point.get_x().get() * vec._point.get_z().get(),
-                this._point.get_x().get() * vec._point.get_y().get() - this._point.get_y().get() * vec._point.get_x().get());
+        return new Vector(this._y * vec._z - this._z * vec._y,
+                this._z * vec._x - this._x * vec._z,
+                this._x * vec._y - this._y * vec._x);
     }
 
     /**
@@ -132,7 +166,7 @@ public class Vector {
      * @return a double that is the squared length
      */
     public double lengthSquared() {
-        return this._point.distanceSquared(Point3D.ZERO);
+        return _x * _x + _y * _y + _z * _z;
     }
 
     /**
@@ -150,7 +184,15 @@ public class Vector {
      * @return this vector normalized
      */
     public Vector normalize() {
-        this._point = scale(1/this.length())._point;
+        double num = 1 / this.length();
+        double x = alignZero(num * _x);
+        double y = alignZero(num * _y);
+        double z = alignZero(num * _z);
+        if (x == 0 && y == 0 && z == 0)
+            throw new IllegalArgumentException("Vector cannot be zero");
+        _x = x;
+        _y = y;
+        _z = z;
         return this;
     }
 
@@ -169,11 +211,16 @@ public class Vector {
         if (this == o) return true;
         if (!(o instanceof Vector)) return false;
         Vector vector = (Vector) o;
-        return _point.equals(vector._point);
+        return isZero(_x - vector._x) &&
+                isZero(_y - vector._y) &&
+                isZero(_z - vector._z);
     }
 
     @Override
     public String toString() {
-        return _point.toString();
+        return "(" + _x +
+                ", " + _y +
+                ", " + _z +
+                ')';
     }
 }
@@ -92,9 +92,75 @@ public class ImageWriter {
 	 * pixel color matrix in the directory of the project
 	 */
 	public void writeToImage() {
+		write(_image, _imageName);
+	}
+
+	/**
+	 * Function writePreview produces png file of the image as it is now (while
+	 * rendering), named as the image with "_preview" suffix
+	 */
+	public void writePreview() {
+		write(_image, _imageName + "_preview");
+	}
+
+	/**
+	 * Function writeHeatmap produces png file of a false-color image of the cost of
+	 * each pixel (time, intersection tests etc.), named as the image with
+	 * "_heatmap" suffix. The costs are scaled by the highest cost - the cheapest
+	 * pixels are blue, and through cyan, green and yellow the most expensive pixels
+	 * are red
+	 *
+	 * @param costs the cost of each pixel, row after row (nX * nY values)
+	 * @throws IllegalArgumentException if the number of costs is not the number of
+	 *                                  pixels
+	 */
+	public void writeHeatmap(long[] costs) {
+		if (costs.length != _nX * _nY)
+			throw new IllegalArgumentException("The number of costs must be the number of pixels");
+		long max = 1;
+		for (long cost : costs)
+			if (cost > max)
+				max = cost;
+		BufferedImage heatmap = new BufferedImage(_nX, _nY, BufferedImage.TYPE_INT_RGB);
+		for (int i = 0; i < _nY; ++i)
+			for (int j = 0; j < _nX; ++j)
+				heatmap.setRGB(j, i, heatColor(Math.max(0, (double) costs[i * _nX + j] / max)));
+		write(heatmap, _imageName + "_heatmap");
+	}
+
+	/**
+	 * The function heatColor calculates the false color of a relative cost - from
+	 * blue (0) through cyan, green and yellow to red (1)
+	 *
+	 * @param t the relative cost, from 0 to 1
+	 * @return the RGB value of the color
+	 */
+	private static int heatColor(double t) {
+		double x = t * 4;
+		int segment = Math.min((int) x, 3);
+		int c = (int) Math.round((x - segment) * 255);
+		switch (segment) {
+		case 0: // blue to cyan
+			return new Color(0, c, 255).getRGB();
+		case 1: // cyan to green
+			return new Color(0, 255, 255 - c).getRGB();
+		case 2: // green to yellow
+			return new Color(c, 255, 0).getRGB();
+		default: // yellow to red
+			return new Color(255, 255 - c, 0).getRGB();
+		}
+	}
+
+	/**
+	 * Function write produces png file of an image in the directory of the project
+	 *
+	 * @param image the image
+	 * @param name  the name of the file (without the extension)
+	 */
+	private void write(BufferedImage image, String name) {
 		try {
-			File file = new File(FOLDER_PATH + '/' + _imageName + ".png");
-			ImageIO.write(_image, "png", file);
+			File file = new File(FOLDER_PATH + '/' + name + ".png");
+			ImageIO.write(image, "png", file);
 		} catch (IOException e) {
 			_logger.log(Level.SEVERE, "I/O error", e);
 		}
@@ -111,4 +177,16 @@ public class ImageWriter {
 	public void writePixel(int xIndex, int yIndex, Color color) {
 		_image.setRGB(xIndex, yIndex, color.getRGB());
 	}
+
+	/**
+	 * The function getPixel reads the color of a specific pixel from the pixel
+	 * color matrix (e.g. for showing a preview while rendering)
+	 *
+	 * @param xIndex X axis index of the pixel
+	 * @param yIndex Y axis index of the pixel
+	 * @return the color of the pixel
+	 */
+	public Color getPixel(int xIndex, int yIndex) {
+		return new Color(_image.getRGB(xIndex, yIndex));
+	}
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package renderer;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * PoolRenderExecutor class runs the rendering workers on a shared thread pool, with as many workers as the
+ * pool parallelism (the number of threads set in the Render is ignored). Several renderings that share one pool
+ * share its threads instead of each one taking its own threads
+ *
+ * @author Moriah and Shahar
+ */
+
+public class PoolRenderExecutor implements RenderExecutor {
+    /**
+     * The thread pool
+     */
+    private final Executor _pool;
+    /**
+     * The number of threads of the pool that a rendering uses
+     */
+    private final int _parallelism;
+
+    /**
+     * Constructor for the common ForkJoinPool
+     */
+    public PoolRenderExecutor() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for a ForkJoinPool, with its parallelism
+     *
+     * @param pool the pool
+     */
+    public PoolRenderExecutor(ForkJoinPool pool) {
+        this(pool, pool.getParallelism());
+    }
+
+    /**
+     * Constructor for any thread pool (e.g. a fixed thread pool from Executors)
+     *
+     * @param pool the pool
+     * @param parallelism the number of threads of the pool that a rendering uses
+     * @throws IllegalArgumentException if the parallelism is less than 1
+     */
+    public PoolRenderExecutor(Executor pool, int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be 1 or higher");
+        _pool = pool;
+        _parallelism = parallelism;
+    }
+
+    @Override
+    public Executor getExecutor() {
+        return _pool;
+    }
+
+    @Override
+    public int getWorkers(int threads, int tiles) {
+        return Math.min(_parallelism, tiles);
+    }
+}
@@ -2,14 +2,27 @@ package renderer;
 
 import elements.*;
 import geometries.Geometries;
+import geometries.Geometry;
 import primitives.*;
 import primitives.Color;
 import geometries.Intersectable.GeoPoint;
+import geometries.IntersectionStats;
+import geometries.RayPacket;
 import scene.*;
 
-import java.util.List;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
 
-import static primitives.Util.alignZero;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
 
 /**
  * Renderer class is responsible for generating pixel color map from a graphic scene, using ImageWriter class
@@ -32,6 +45,15 @@ public class Render {
      */
     private static final int MAX_CALC_COLOR_LEVEL = 10;
     private static final double MIN_CALC_COLOR_K = 0.001;
+    /**
+     * The recursion level of the primary pass of time budgeted rendering - only the point the camera ray hits
+     * is shaded (with its lights and shadows), without reflection and refraction
+     */
+    private static final int PRIMARY_PASS_LEVEL = 2;
+    /**
+     * The deadline for time budgeted rendering (in milliseconds like System.currentTimeMillis), 0 - no deadline
+     */
+    private long _deadline = 0;
     /**
      * Is depth of field feature on or off
      */
@@ -42,102 +64,209 @@ public class Render {
      */
     int _numOfRays;
 
+    /**
+     * Number of rays to trace between checks of the average color in adaptive depth of field
+     */
+    private static final int DEPTH_FIELD_BATCH = 16;
+    /**
+     * The biggest change of the average color (of a component, from 0 to 255) after a batch of rays, that stops
+     * tracing more rays of the pixel in depth of field feature. 0 - adaptive depth of field is off
+     */
+    private double _depthFieldTolerance = 0;
+
+    /**
+     * Is adaptive super sampling (anti aliasing) feature on or off
+     */
+    private boolean _adaptiveSuperSampling = false;
+    /**
+     * The maximal number of times a pixel is divided in adaptive super sampling
+     */
+    private int _maxSamplingDepth = 3;
+    /**
+     * Number of samples that a square keeps while its 4 squares are calculated in adaptive super sampling
+     * (middle, average, and the middles of the 4 edges)
+     */
+    private static final int ADAPTIVE_SAMPLES = 6;
+    /**
+     * The biggest color difference (of a component, from 0 to 255) between the samples in a square
+     * and their average, that doesn't require dividing the square in adaptive super sampling
+     */
+    private double _samplingThreshold = 8;
+
+    /**
+     * The counters of the last rendering
+     */
+    private RenderStats _stats = new RenderStats();
+    /**
+     * Completed when the workers of the last rendering are done - the next rendering starts after it, so the
+     * workers of a cancelled rendering don't write into the image of the next one
+     */
+    private CompletableFuture<?> _lastRendering = CompletableFuture.completedFuture(null);
+    /**
+     * Are the BVH nodes and the intersection tests counted while rendering (see IntersectionStats)
+     */
+    private boolean _intersectionStats = false;
+    /**
+     * The BVH building time (with the intersection kernels), summed over the calls that built it, in nanoseconds
+     */
+    private long _bvhBuildNanos = 0;
+    /**
+     * What is measured for the cost of each pixel in the cost heatmap. The cost of a pixel is measured on the
+     * thread that calculates it, and the costs of the corners of a tile in adaptive super sampling are divided
+     * between the pixels of the tile. Intersection tests are counted only in the threads of the rendering that
+     * asks for them, so other renderings at the same time don't change its heatmap, and pay nothing for it
+     */
+    public enum PixelCost {
+        /**
+         * No cost heatmap (the default)
+         */
+        NONE,
+        /**
+         * The calculation time of the pixel in nanoseconds
+         */
+        TIME,
+        /**
+         * The number of intersection tests of geometries (turns intersection statistics on while rendering)
+         */
+        INTERSECTION_TESTS
+    }
+
+    /**
+     * What is measured in the cost heatmap, and the cost of each pixel (row after row) in the last rendering
+     */
+    private PixelCost _pixelCost = PixelCost.NONE;
+    private long[] _pixelCosts = null;
+
+    /**
+     * Is progressive rendering on - the image is rendered in passes, starting with every PROGRESSIVE_STEP-th
+     * pixel and halving the step in each pass
+     */
+    private boolean _progressive = false;
+    private static final int PROGRESSIVE_STEP = 8;
+    /**
+     * Is a preview image written after each pass of progressive rendering (except the final one)
+     */
+    private boolean _preview = false;
+    /**
+     * The listener that is called after each pass of rendering, or null
+     */
+    private RenderListener _listener = null;
+
+    /**
+     * The name of the statistics MBean of this Render, if it's registered in the platform MBean server
+     */
+    private ObjectName _statsMBean = null;
+
+    /**
+     * The scene background and ambient light colors, taken once for each rendering
+     */
+    private Color _background;
+    private Color _ambient;
+
     /**
      * For multithreading
      */
     private int _threads = 1; // Number of threads to activate
     private final int SPARE_THREADS = 2; // Spare threads if trying to use all the cores
     private boolean _print = false; // printing progress percentage
+    private static final int DEFAULT_TILE_SIZE = 16;
+    private int _tileSize = DEFAULT_TILE_SIZE; // Number of pixel rows and columns in a tile that a thread calculates at once
+    private RenderExecutor _renderExecutor = new ThreadRenderExecutor(); // Where the threads run and how many
 
     /**
-     * Pixel is an internal helper class whose objects are associated with a Render object that
+     * Is packet tracing on - the camera rays of each PACKET_SIDE x PACKET_SIDE pixels block are traced together
+     */
+    private boolean _packetTracing = false;
+    private static final int PACKET_SIDE = 4;
+
+    /**
+     * Tile is an internal helper class whose objects are associated with a Render object that
      * they are generated in scope of. It is used for multithreading in the Renderer and for follow up
      * its progress.<br/>
+     * The image is divided into square tiles of pixels, and the threads take the tiles one by one through an
+     * atomic counter - so there is no lock, and the pixels of a tile are calculated together by one thread.<br/>
      * There is a main follow up object and several secondary objects - one in each thread.
-     * @author Dan
      *
      */
-    private class Pixel {
-        private long _maxRows = 0;
-        private long _maxCols = 0;
+    private class Tile {
+        private int _maxRows = 0;
+        private int _maxCols = 0;
+        private int _size = 0;
+        private int _tilesInRow = 0;
+        private int _tiles = 0;
         private long _pixels = 0;
-        public volatile int row = 0;
-        public volatile int col = -1;
-        private long _counter = 0;
-        private int _percents = 0;
-        private long _nextCounter = 0;
+        private final AtomicInteger _nextTile = new AtomicInteger(0);
+        private final AtomicLong _counter = new AtomicLong(0);
+        private final AtomicInteger _percents = new AtomicInteger(0);
+        private IntConsumer _progress = null;
+        /**
+         * The pixels of the tile (for secondary objects) - rows from startRow to endRow (not included),
+         * columns from startCol to endCol (not included)
+         */
+        public int startRow = 0, endRow = 0;
+        public int startCol = 0, endCol = 0;
 
         /**
-         * The constructor for initializing the main follow up Pixel object
+         * The constructor for initializing the main follow up Tile object
          * @param maxRows the amount of pixel rows
          * @param maxCols the amount of pixel columns
+         * @param size the amount of pixel rows and columns in a tile
+         * @param progress the callback for the progress percentage, or null
          */
-        public Pixel(int maxRows, int maxCols) {
+        public Tile(int maxRows, int maxCols, int size, IntConsumer progress) {
             _maxRows = maxRows;
             _maxCols = maxCols;
-            _pixels = maxRows * maxCols;
-            _nextCounter = _pixels / 100;
-            if (Render.this._print) System.out.printf("\r %02d%%", _percents);
+            _size = size;
+            _tilesInRow = (maxCols + size - 1) / size;
+            _tiles = _tilesInRow * ((maxRows + size - 1) / size);
+            _pixels = (long) maxRows * maxCols;
+            _progress = progress;
+            if (Render.this._print) System.out.printf("\r %02d%%", 0);
+            if (_progress != null) _progress.accept(0);
         }
 
         /**
-         *  Default constructor for secondary Pixel objects
+         *  Default constructor for secondary Tile objects
          */
-        public Pixel() {}
+        public Tile() {}
 
         /**
-         * Internal function for thread-safe manipulating of main follow up Pixel object - this function is
-         * critical section for all the threads, and main Pixel object data is the shared data of this critical
-         * section.<br/>
-         * The function provides next pixel number each call.
-         * @param target target secondary Pixel object to copy the row/column of the next pixel
-         * @return the progress percentage for follow up: if it is 0 - nothing to print, if it is -1 - the task is
-         * finished, any other value - the progress percentage (only when it changes)
+         * Function for getting next tile into secondary Tile object. Thread-safe without locking -
+         * the next tile number is taken from an atomic counter.
+         * @param target target secondary Tile object to copy the pixels range of the next tile
+         * @return true if the work still in progress, false if it's done
          */
-        private synchronized int nextP(Pixel target) {
-            ++col;
-            ++_counter;
-            if (col < _maxCols) {
-                target.row = this.row;
-                target.col = this.col;
-                if (_counter == _nextCounter) {
-                    ++_percents;
-                    _nextCounter = _pixels * (_percents + 1) / 100;
-                    return _percents;
-                }
-                return 0;
-            }
-            ++row;
-            if (row < _maxRows) {
-                col = 0;
-                target.row = this.row;
-                target.col = this.col;
-                if (_counter == _nextCounter) {
-                    ++_percents;
-                    _nextCounter = _pixels * (_percents + 1) / 100;
-                    return _percents;
-                }
-                return 0;
-            }
-            return -1;
+        public boolean nextTile(Tile target) {
+            int tile = _nextTile.getAndIncrement();
+            if (tile >= _tiles)
+                return false;
+            target.startRow = tile / _tilesInRow * _size;
+            target.startCol = tile % _tilesInRow * _size;
+            target.endRow = Math.min(target.startRow + _size, _maxRows);
+            target.endCol = Math.min(target.startCol + _size, _maxCols);
+            return true;
         }
 
         /**
-         * Public function for getting next pixel number into secondary Pixel object.
-         * The function prints also progress percentage in the console window.
-         * @param target target secondary Pixel object to copy the row/column of the next pixel
-         * @return true if the work still in progress, -1 if it's done
+         * Function for reporting that all the pixels of a secondary Tile object are done.
+         * The function prints also progress percentage in the console window and reports it to the progress
+         * callback (only when it changes).
+         * @param target the secondary Tile object that is done
          */
-        public boolean nextPixel(Pixel target) {
-            int percents = nextP(target);
-            if (percents > 0)
-                if (Render.this._print) System.out.printf("\r %02d%%", percents);
-            if (percents >= 0)
-                return true;
-            if (Render.this._print) System.out.printf("\r %02d%%", 100);
-            return false;
+        public void tileDone(Tile target) {
+            long counter = _counter.addAndGet((long) (target.endRow - target.startRow) * (target.endCol - target.startCol));
+            int percents = (int) (counter * 100 / _pixels);
+            int old = _percents.get();
+            while (percents > old) {
+                if (_percents.compareAndSet(old, percents)) {
+                    if (Render.this._print) System.out.printf("\r %02d%%", percents);
+                    if (_progress != null) _progress.accept(percents);
+                    return;
+                }
+                old = _percents.get();
+            }
         }
-    } // end pixel class
+    } // end tile class
 
     /**
      * Render constructor. gets the elements for the render - imageWriter and scene
@@ -154,150 +283,644 @@ public class Render {
     }
 
     /**
-     * This function renders image's pixel color map from the scene included with the Renderer object
+     * RenderJob is an internal helper class that holds the state of one rendering (of renderImage or renderAsync) -
+     * the view plane, the counters, the deadline and the result to complete. The passes of the rendering run one
+     * after the other, each one by several workers on an executor, and the workers stop as soon as the result is
+     * completed (by cancellation or by a failure of another worker). The future of the caller is completed only
+     * when the workers are done
      */
-    public void renderImage() {
-        final int nX = _imageWriter.getNx();
-        final int nY = _imageWriter.getNy();
-        final double dist = _scene.getDistance();
-        final double width = _imageWriter.getWidth();
-        final double height = _imageWriter.getHeight();
-        final Camera camera = _scene.getCamera();
-        final Pixel thePixel = new Pixel(nY, nX);
-
-        // Generate threads
-        Thread[] threads = new Thread[_threads];
-        for (int i = _threads - 1; i >= 0; --i) {
-            threads[i] = new Thread(() -> {
-                Pixel pixel = new Pixel();
-                while (thePixel.nextPixel(pixel)) {
-                    Ray ray = camera.constructRayThroughPixel(nX, nY, pixel.col, pixel.row, //
-                            dist, width, height);
-                    _imageWriter.writePixel(pixel.col, pixel.row, calcColor(ray).getColor());
+    private class RenderJob {
+        private final ViewPlane _viewPlane;
+        private final RenderStats _renderStats = new RenderStats();
+        // the costs are written by the workers each in its own pixels, and read when the passes are done
+        private final long[] _costs;
+        // what the cost heatmap measures, and are the intersection statistics kept - taken once for the rendering
+        private final PixelCost _costKind;
+        private final boolean _keepIntersections;
+        // the workers count the intersections (each one in its own thread) for the statistics or the heatmap
+        private final boolean _counting;
+        private final long _start;
+        // is there a deadline, and the deadline in System.nanoTime terms (for a deadline in the past the rendering
+        // stops after the coarse primary pass) - taken once for the rendering
+        private final boolean _hasDeadline;
+        private final long _deadlineNanos;
+        private final IntConsumer _progress;
+        // the result is the stop flag of the workers, and the future of the caller is completed after the workers
+        // are done - completing it before (by cancelling it) stops the workers
+        private final CompletableFuture<RenderStats> _result = new CompletableFuture<>();
+        private final CompletableFuture<RenderStats> _future = new CompletableFuture<>();
+        // is the current pass a primary pass of time budgeted rendering (one ray per pixel, without depth of field
+        // and adaptive super sampling), and is it the coarse one that is not stopped by the deadline - both are
+        // changed only between the passes, before the workers of the next pass are started
+        private boolean _primaryPass;
+        private boolean _coarsePass;
+
+        /**
+         * Prepares a rendering of the image - calculates the view plane and takes the scene colors
+         *
+         * @param progress the progress callback, or null
+         */
+        public RenderJob(IntConsumer progress) {
+            int nX = _imageWriter.getNx();
+            int nY = _imageWriter.getNy();
+            // the view plane is calculated once for all the pixels
+            _viewPlane = _scene.getCamera().getViewPlane(nX, nY, _scene.getDistance(),
+                    _imageWriter.getWidth(), _imageWriter.getHeight());
+            // the scene colors are the same for the whole image - take them once instead of copying per ray
+            _background = _scene.getBackground();
+            _ambient = _scene.getAmbientLight().getIntensity();
+
+            _renderStats._sceneBuildNanos = _scene.getBuildNanos();
+            _renderStats._bvhBuildNanos = _bvhBuildNanos;
+            _costKind = _pixelCost;
+            _keepIntersections = _intersectionStats;
+            _counting = _keepIntersections || _costKind == PixelCost.INTERSECTION_TESTS;
+            _costs = _costKind == PixelCost.NONE ? null : new long[nX * nY];
+            _progress = progress;
+            _start = System.nanoTime();
+            _hasDeadline = _deadline != 0;
+            _deadlineNanos = _start + (_deadline - System.currentTimeMillis()) * 1_000_000;
+            _primaryPass = _hasDeadline;
+            _future.whenComplete((stats, failure) -> _result.cancel(false));
+        }
+
+        /**
+         * Checks if the workers have to stop - the result is completed (cancelled or failed) or the deadline passed.
+         * The coarse primary pass of time budgeted rendering is not stopped by the deadline, so there is always a
+         * whole (coarse) image
+         *
+         * @return true if the workers have to stop, otherwise false
+         */
+        private boolean isStopped() {
+            return _result.isDone() || !_coarsePass && !timeLeft();
+        }
+
+        /**
+         * Checks if there is time left for rendering
+         *
+         * @return true if there is no deadline or it hasn't passed yet, otherwise false
+         */
+        private boolean timeLeft() {
+            return !_hasDeadline || System.nanoTime() - _deadlineNanos < 0;
+        }
+
+        /**
+         * Starts one pass of the image on the executor (see renderTiles)
+         *
+         * @param step the distance between the pixels that are calculated, a power of 2 (1 - all the pixels)
+         * @param first true if it's the first pass
+         * @param renderExecutor where the workers run and how many
+         * @return a future that is completed with true when all the workers are done, or with false at once if the
+         * rendering has stopped already
+         */
+        public CompletableFuture<Boolean> runPass(int step, boolean first, RenderExecutor renderExecutor) {
+            _coarsePass = first && _primaryPass;
+            if (isStopped())
+                return CompletableFuture.completedFuture(false);
+            Tile theTile = new Tile(_imageWriter.getNy(), _imageWriter.getNx(), _tileSize, _progress);
+            Executor executor = renderExecutor.getExecutor();
+            CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.max(1,
+                    renderExecutor.getWorkers(_threads, theTile._tiles))];
+            for (int i = 0; i < workers.length; ++i)
+                workers[i] = CompletableFuture.runAsync(() -> {
+                    // counting is turned on only in the worker's thread, so other renderings are not affected
+                    boolean wasCounting = IntersectionStats.isEnabled();
+                    IntersectionStats.setEnabled(_counting);
+                    try {
+                        renderTiles(theTile, step, first);
+                    }
+                    catch (Throwable e) {
+                        // stops the other workers
+                        _result.completeExceptionally(e);
+                        throw e;
+                    }
+                    finally {
+                        IntersectionStats.setEnabled(wasCounting);
+                    }
+                }, executor);
+            return CompletableFuture.allOf(workers).thenApply(v -> true);
+        }
+
+        /**
+         * Renders tiles of one pass of the image until there are no more tiles - calculates the pixels whose row
+         * and column are multiples of the step, and fills the step x step block of each one with its color.<br/>
+         * The pixels of the previous pass (multiples of 2 * step) are not calculated again, unless it's the first
+         * pass, or it's the final pass (step 1) with adaptive super sampling - then all the pixels are super sampled.
+         * The pixels of the passes before the final one (and of the primary passes of time budgeted rendering) are
+         * calculated without adaptive super sampling.<br/>
+         * When the rendering stops (see isStopped) the worker stops calculating pixels - the rest of the pixels keep
+         * their colors from the previous passes
+         *
+         * @param theTile the main follow up Tile object of the pass
+         * @param step the distance between the pixels that are calculated, a power of 2 (1 - all the pixels)
+         * @param first true if it's the first pass
+         */
+        private void renderTiles(Tile theTile, int step, boolean first) {
+            final boolean adaptive = _adaptiveSuperSampling && step == 1 && !_primaryPass;
+            // the pixels of the previous pass are on the grid of twice the step
+            final int skip = first || adaptive ? 0 : 2 * step;
+            Tile tile = new Tile();
+            ColorAccumulator color = new ColorAccumulator();
+            RenderStats stats = new RenderStats();
+            IntersectionStats intersections = IntersectionStats.current().reset();
+            // the colors in the pixels corners of a tile, and the samples of each division depth,
+            // for adaptive super sampling
+            ColorAccumulator[] corners = null, samples = null;
+            if (adaptive) {
+                corners = new ColorAccumulator[(_tileSize + 1) * (_tileSize + 1)];
+                for (int k = 0; k < corners.length; ++k)
+                    corners[k] = new ColorAccumulator();
+                samples = new ColorAccumulator[ADAPTIVE_SAMPLES * (_maxSamplingDepth + 1)];
+                for (int k = 0; k < samples.length; ++k)
+                    samples[k] = new ColorAccumulator();
+            }
+            // the packet for packet tracing, with the pixels of its rays (one camera ray for each pixel)
+            RayPacket packet = null;
+            int[] cols = null, rows = null;
+            if (_packetTracing && !adaptive && (!_depthField || _primaryPass)) {
+                packet = new RayPacket(PACKET_SIDE * PACKET_SIDE);
+                cols = new int[PACKET_SIDE * PACKET_SIDE];
+                rows = new int[PACKET_SIDE * PACKET_SIDE];
+            }
+            tiles:
+            while (theTile.nextTile(tile)) {
+                long tileCost = 0;
+                if (corners != null) {
+                    long before = _costs == null ? 0 : pixelCost(intersections);
+                    if (!calcCornersColors(tile, corners, stats))
+                        break;
+                    if (_costs != null)
+                        tileCost = (pixelCost(intersections) - before)
+                                / ((tile.endRow - tile.startRow) * (tile.endCol - tile.startCol));
                 }
-            });
+                if (packet != null) {
+                    if (!renderPackets(tile, step, skip, packet, cols, rows, color, stats, intersections))
+                        break;
+                    theTile.tileDone(tile);
+                    continue;
+                }
+                for (int row = (tile.startRow + step - 1) / step * step; row < tile.endRow; row += step)
+                    for (int col = (tile.startCol + step - 1) / step * step; col < tile.endCol; col += step) {
+                        if (skip != 0 && row % skip == 0 && col % skip == 0)
+                            continue;
+                        if (isStopped())
+                            break tiles;
+                        long before = _costs == null ? 0 : pixelCost(intersections);
+                        color.reset();
+                        if (corners == null) {
+                            calcColor(_viewPlane.constructRayThroughPixel(col, row), _primaryPass, color, stats);
+                        }
+                        else {
+                            int corner = (row - tile.startRow) * (_tileSize + 1) + col - tile.startCol;
+                            calcAdaptiveColor(_viewPlane, col, row, 1, corners[corner], corners[corner + 1], //
+                                    corners[corner + _tileSize + 1], corners[corner + _tileSize + 2], 0, 1, samples, color, stats);
+                        }
+                        writePixel(col, row, step, color,
+                                _costs == null ? 0 : tileCost + pixelCost(intersections) - before);
+                    }
+                theTile.tileDone(tile);
+            }
+            if (_keepIntersections)
+                stats.add(intersections);
+            synchronized (_renderStats) {
+                _renderStats.add(stats);
+            }
+        }
+
+        /**
+         * Renders the pixels of a tile with packet tracing - the camera rays of each PACKET_SIDE x PACKET_SIDE block
+         * of the pixels of the pass find their closest intersections together, and then each pixel is colored
+         * (with its reflections, refractions and shadows) by itself
+         *
+         * @param tile the tile
+         * @param step the distance between the pixels that are calculated
+         * @param skip the grid of the pixels of the previous pass that are not calculated again (0 - none)
+         * @param packet the packet of the worker
+         * @param cols the array for the column of the pixel of each ray in the packet
+         * @param rows the array for the row of the pixel of each ray in the packet
+         * @param color the accumulator of the worker
+         * @param stats the counters of the worker
+         * @param intersections the intersection counters of the worker
+         * @return true if the tile is done, false if the rendering stopped
+         */
+        private boolean renderPackets(Tile tile, int step, int skip, RayPacket packet, int[] cols, int[] rows,
+                                      ColorAccumulator color, RenderStats stats, IntersectionStats intersections) {
+            int firstRow = (tile.startRow + step - 1) / step * step;
+            int firstCol = (tile.startCol + step - 1) / step * step;
+            int blockSide = PACKET_SIDE * step;
+            for (int blockRow = firstRow; blockRow < tile.endRow; blockRow += blockSide)
+                for (int blockCol = firstCol; blockCol < tile.endCol; blockCol += blockSide) {
+                    if (isStopped())
+                        return false;
+                    long before = _costs == null ? 0 : pixelCost(intersections);
+                    packet.reset();
+                    int size = 0;
+                    for (int row = blockRow; row < blockRow + blockSide && row < tile.endRow; row += step)
+                        for (int col = blockCol; col < blockCol + blockSide && col < tile.endCol; col += step) {
+                            if (skip != 0 && row % skip == 0 && col % skip == 0)
+                                continue;
+                            cols[size] = col;
+                            rows[size++] = row;
+                            packet.add(_viewPlane.constructRayThroughPixel(col, row));
+                        }
+                    if (size == 0)
+                        continue;
+                    stats._primaryRays += size;
+                    _scene.getGeometries().findClosestIntersections(packet);
+                    // the cost of tracing the packet is divided between its pixels
+                    long packetCost = _costs == null ? 0 : (pixelCost(intersections) - before) / size;
+                    for (int lane = 0; lane < size; ++lane) {
+                        long pixelBefore = _costs == null ? 0 : pixelCost(intersections);
+                        color.reset();
+                        GeoPoint closestPoint = packet.getClosest(lane);
+                        if (closestPoint == null)
+                            color.add(_background);
+                        else
+                            calcColor(closestPoint, packet.getRay(lane), _primaryPass, color, stats);
+                        writePixel(cols[lane], rows[lane], step, color,
+                                _costs == null ? 0 : packetCost + pixelCost(intersections) - pixelBefore);
+                    }
+                }
+            return true;
+        }
+
+        /**
+         * Writes the color of a calculated pixel into its step x step block of the image (block fill - the blocks of
+         * the pixels of a pass don't overlap), and adds its cost for the cost heatmap
+         *
+         * @param col the column of the pixel
+         * @param row the row of the pixel
+         * @param step the distance between the pixels of the pass
+         * @param color the color of the pixel
+         * @param cost the cost of the pixel (ignored if no cost heatmap)
+         */
+        private void writePixel(int col, int row, int step, ColorAccumulator color, long cost) {
+            int nX = _imageWriter.getNx();
+            int nY = _imageWriter.getNy();
+            java.awt.Color pixelColor = color.getColor();
+            for (int y = row; y < row + step && y < nY; ++y)
+                for (int x = col; x < col + step && x < nX; ++x)
+                    _imageWriter.writePixel(x, y, pixelColor);
+            if (_costs != null)
+                _costs[row * nX + col] += cost;
+        }
+
+        /**
+         * Reports a pass that is done - writes the preview and calls the listener
+         *
+         * @param pass the number of the pass, from 1
+         * @param step the distance between the pixels calculated in the pass
+         */
+        public void passDone(int pass, int step) {
+            if (_print) System.out.printf("\r100%%\n");
+            if ((step > 1 || _primaryPass) && _preview)
+                _imageWriter.writePreview();
+            if (_listener != null)
+                _listener.passDone(pass, step, _imageWriter);
         }
 
-        // Start threads
-        for (Thread thread : threads) thread.start();
+        /**
+         * Calculates the colors in all the pixels corners of a tile (for adaptive super sampling).
+         * The corners are kept row after row, with (tile size + 1) corners in a row. The rendering is checked
+         * after each row of corners (with depth of field a corner is many rays) - a stopped tile is dropped
+         *
+         * @param tile the tile to calculate its corners
+         * @param corners the accumulators to put the colors into
+         * @param stats the counters of the rendering thread
+         * @return true if the corners are done, false if the rendering stopped
+         */
+        private boolean calcCornersColors(Tile tile, ColorAccumulator[] corners, RenderStats stats) {
+            for (int row = tile.startRow; row <= tile.endRow; ++row) {
+                if (isStopped())
+                    return false;
+                for (int col = tile.startCol; col <= tile.endCol; ++col)
+                    calcColor(_viewPlane.constructRayThroughPoint(col - 0.5, row - 0.5), false,
+                            corners[(row - tile.startRow) * (_tileSize + 1) + col - tile.startCol].reset(), stats);
+            }
+            return true;
+        }
 
-        // Wait for all threads to finish
-        for (Thread thread : threads)
-            try {
-                thread.join();
+        /**
+         * Reads the current cost counter of the rendering thread for the cost heatmap
+         *
+         * @param intersections the intersection counters of the rendering thread
+         * @return the time (in nanoseconds) or the number of intersection tests so far
+         */
+        private long pixelCost(IntersectionStats intersections) {
+            return _costKind == PixelCost.TIME ? System.nanoTime() : intersections.getTotalTests();
+        }
+
+        /**
+         * Finishes the rendering when the workers of the passes are done - keeps the counters and completes the
+         * future of the caller. A cancelled or failed rendering doesn't replace the counters of the last one
+         *
+         * @param failure the failure of the passes, or null
+         */
+        public void finish(Throwable failure) {
+            _renderStats._renderNanos = System.nanoTime() - _start;
+            if (failure == null && _result.complete(_renderStats)) {
+                _stats = _renderStats;
+                _pixelCosts = _costs;
+                _future.complete(_renderStats);
+                return;
             }
-            catch (Exception e) {}
-        if (_print) System.out.printf("\r100%%\n");
+            if (failure == null) // stopped by the caller - the future is completed already
+                return;
+            failure = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            _result.completeExceptionally(failure);
+            _future.completeExceptionally(failure);
+        }
+    } // end render job class
+
+    /**
+     * This function renders image's pixel color map from the scene included with the Renderer object.
+     * In progressive mode the image is rendered in passes (see setProgressive), otherwise in one pass.
+     * The rendering threads run on the render executor (see setRenderExecutor - by default new threads are
+     * created for each pass), and a failure of a thread is thrown here
+     */
+    public void renderImage() {
+        try {
+            renderAsync(_renderExecutor, null).join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * Renders the image asynchronously on the render executor (see renderAsync(RenderExecutor, IntConsumer))
+     *
+     * @return a future of the statistics of the rendering
+     */
+    public CompletableFuture<RenderStats> renderAsync() {
+        return renderAsync(_renderExecutor, null);
+    }
+
+    /**
+     * Renders the image asynchronously on an executor (see renderAsync(RenderExecutor, IntConsumer))
+     *
+     * @param executor the executor to run the rendering workers on
+     * @return a future of the statistics of the rendering
+     */
+    public CompletableFuture<RenderStats> renderAsync(Executor executor) {
+        return renderAsync(executor, null);
+    }
+
+    /**
+     * Renders the image asynchronously on an executor, with the number of workers set by setMultithreading
+     * (see renderAsync(RenderExecutor, IntConsumer))
+     *
+     * @param executor the executor to run the rendering workers on
+     * @param progress a callback for the progress percentage of the current pass, or null
+     * @return a future of the statistics of the rendering
+     */
+    public CompletableFuture<RenderStats> renderAsync(Executor executor, IntConsumer progress) {
+        return renderAsync(new PoolRenderExecutor(executor, _threads), progress);
+    }
+
+    /**
+     * Renders the image asynchronously - each pass of the image is rendered by several workers that run on the
+     * render executor, without blocking any thread while waiting for them.<br/>
+     * The rendering is cancelled by cancelling the returned future (or completing it in another way, like
+     * orTimeout) - the workers stop at the next pixel, or at the next row of tile corners in adaptive super
+     * sampling, and the next rendering of this Render starts only after they are done.
+     * If a worker (or the listener) fails, the other workers stop and the future is completed with the failure
+     * when they are done. A Render object renders one image at a time, so it must not be changed before the
+     * future is completed
+     *
+     * @param renderExecutor where the rendering workers run and how many
+     * @param progress a callback for the progress percentage of the current pass (called by the workers when it
+     *                 changes), or null
+     * @return a future of the statistics of the rendering, completed when the image is done
+     */
+    public CompletableFuture<RenderStats> renderAsync(RenderExecutor renderExecutor, IntConsumer progress) {
+        RenderJob job = new RenderJob(progress);
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<?> last;
+        synchronized (this) {
+            last = _lastRendering;
+            _lastRendering = done;
+        }
+        // with a deadline the image is rendered first progressively in primary passes, for having a whole
+        // image as soon as possible, and then all the pixels are refined in full quality while there is time
+        int firstStep = _progressive || _deadline != 0 ? PROGRESSIVE_STEP : 1;
+        // the workers of the last rendering may still be running if it was cancelled
+        CompletableFuture<Boolean> passes = last.handle((v, failure) -> true);
+        int pass = 1;
+        for (int step = firstStep; step >= 1; step /= 2, ++pass) {
+            final int thisStep = step, thisPass = pass;
+            final boolean first = step == firstStep;
+            passes = passes.thenCompose(ran -> job.runPass(thisStep, first, renderExecutor)).thenApply(ran -> {
+                if (ran) job.passDone(thisPass, thisStep);
+                return ran;
+            });
+        }
+        if (job._primaryPass) {
+            final int thisPass = pass;
+            passes = passes.thenCompose(ran -> {
+                job._primaryPass = false;
+                return job.runPass(1, true, renderExecutor);
+            }).thenApply(ran -> {
+                if (ran) job.passDone(thisPass, 1);
+                return ran;
+            });
+        }
+        passes.whenComplete((ran, failure) -> {
+            job.finish(failure);
+            done.complete(null);
+        });
+        return job._future;
     }
 
     /**
      * Calculates the color that the ray hits in accordance to if the depth of field feature is on.
      * If it's on, it calculates according to the aperture.
+     * The color is summed into the given accumulator, so no color objects are created on the way
      *
      * @param ray the ray the color is all about
-     * @return the color according to the ray and depth of field feature if on
+     * @param primary true in the primary passes of time budgeted rendering - one ray, without reflection and
+     *                refraction
+     * @param color the accumulator to add the color (according to the ray and depth of field feature if on) into
+     * @param stats the counters of the rendering thread
      */
-    private Color calcColor(Ray ray)
+    private void calcColor(Ray ray, boolean primary, ColorAccumulator color, RenderStats stats)
     {
-        if (!_depthField) {
+        if (!_depthField || primary) {
+            ++stats._primaryRays;
             GeoPoint closestPoint = findClosestIntersection(ray);
-            return closestPoint == null ? _scene.getBackground() : calcColor(closestPoint, ray);
+            if (closestPoint == null)
+                color.add(_background);
+            else
+                calcColor(closestPoint, ray, primary, color, stats);
         }
         else {
-            Color sumColor = Color.BLACK;
-            List<Ray> rays = _scene.getCamera().constructRaysFromAperture(_scene.getDistance(), ray, _numOfRays);
-            for (Ray apertureRay : rays) {
+            ApertureRays rays = _scene.getCamera().constructApertureRays(_scene.getDistance(), ray, _numOfRays);
+            // the average color after the last batches of rays, for stopping when it doesn't change anymore
+            ColorAccumulator average = new ColorAccumulator(), previousAverage = null;
+            int count = 0;
+            while (rays.hasNext()) {
+                Ray apertureRay = rays.next();
+                ++stats._primaryRays;
                 GeoPoint closestPoint = findClosestIntersection(apertureRay);
-                sumColor = sumColor.add(closestPoint == null ? _scene.getBackground() : calcColor(closestPoint, apertureRay));
+                if (closestPoint == null)
+                    color.add(_background);
+                else
+                    calcColor(closestPoint, apertureRay, false, color, stats);
+                ++count;
+                if (_depthFieldTolerance > 0 && count % DEPTH_FIELD_BATCH == 0) {
+                    average.reset().add(color, 1d / count);
+                    if (previousAverage == null)
+                        previousAverage = new ColorAccumulator();
+                    else if (average.difference(previousAverage) <= _depthFieldTolerance)
+                        break;
+                    ColorAccumulator temp = previousAverage;
+                    previousAverage = average;
+                    average = temp;
+                }
             }
-            return sumColor.reduce(_numOfRays);
+            color.reduce(count);
+        }
+    }
+
+    /**
+     * Calculates the color of a square on the view plane by adaptive super sampling, and adds it into the
+     * accumulator multiplied by a weight.<br/>
+     * The color is sampled in the middle of the square, and if the colors in the corners and the middle are too
+     * different from their average - the square is divided into 4 squares that are calculated the same way
+     * (until the max sampling depth). Otherwise the average is the color of the square.
+     *
+     * @param viewPlane the view plane to construct the rays through its points
+     * @param x x coordinate of the middle of the square (in pixels)
+     * @param y y coordinate of the middle of the square (in pixels)
+     * @param size the square's edge length (in pixels)
+     * @param topLeft the color in the top left corner of the square
+     * @param topRight the color in the top right corner of the square
+     * @param bottomLeft the color in the bottom left corner of the square
+     * @param bottomRight the color in the bottom right corner of the square
+     * @param depth how many times the pixel was divided to get to this square
+     * @param weight the factor to multiply the color of the square by before adding it
+     * @param samples the accumulators of the worker for the samples, ADAPTIVE_SAMPLES for each depth
+     * @param color the accumulator to add the color of the square into
+     * @param stats the counters of the rendering thread
+     */
+    private void calcAdaptiveColor(ViewPlane viewPlane, double x, double y, double size,
+                                   ColorAccumulator topLeft, ColorAccumulator topRight,
+                                   ColorAccumulator bottomLeft, ColorAccumulator bottomRight, int depth, double weight,
+                                   ColorAccumulator[] samples, ColorAccumulator color, RenderStats stats) {
+        // the samples of this depth are kept until the 4 squares (of the next depth) are done
+        int sample = ADAPTIVE_SAMPLES * depth;
+        ColorAccumulator middle = samples[sample].reset();
+        calcColor(viewPlane.constructRayThroughPoint(x, y), false, middle, stats);
+        ColorAccumulator average = samples[sample + 1].reset().add(topLeft).add(topRight)
+                .add(bottomLeft).add(bottomRight).add(middle).reduce(5);
+        if (depth >= _maxSamplingDepth
+                || average.difference(topLeft) <= _samplingThreshold
+                && average.difference(topRight) <= _samplingThreshold
+                && average.difference(bottomLeft) <= _samplingThreshold
+                && average.difference(bottomRight) <= _samplingThreshold
+                && average.difference(middle) <= _samplingThreshold) {
+            color.add(average, weight);
+            return;
         }
+        // divide the square into 4 squares - sample the middles of its edges
+        double half = size / 2, quarter = size / 4;
+        ColorAccumulator top = samples[sample + 2].reset(), bottom = samples[sample + 3].reset();
+        ColorAccumulator left = samples[sample + 4].reset(), right = samples[sample + 5].reset();
+        calcColor(viewPlane.constructRayThroughPoint(x, y - half), false, top, stats);
+        calcColor(viewPlane.constructRayThroughPoint(x, y + half), false, bottom, stats);
+        calcColor(viewPlane.constructRayThroughPoint(x - half, y), false, left, stats);
+        calcColor(viewPlane.constructRayThroughPoint(x + half, y), false, right, stats);
+        calcAdaptiveColor(viewPlane, x - quarter, y - quarter, half, topLeft, top, left, middle,
+                depth + 1, weight / 4, samples, color, stats);
+        calcAdaptiveColor(viewPlane, x + quarter, y - quarter, half, top, topRight, middle, right,
+                depth + 1, weight / 4, samples, color, stats);
+        calcAdaptiveColor(viewPlane, x - quarter, y + quarter, half, left, middle, bottomLeft, bottom,
+                depth + 1, weight / 4, samples, color, stats);
+        calcAdaptiveColor(viewPlane, x + quarter, y + quarter, half, middle, right, bottom, bottomRight,
+                depth + 1, weight / 4, samples, color, stats);
     }
 
     /**
-     * Calculates the color of a point on the object
+     * Calculates the color of a point on the object and adds it into the accumulator
      *
      * @param gp The point we need to calculate the color on
      * @param ray The ray from the camera throw a pixel at view plane that we are calculating the color at
-     * @return The color in that point
+     * @param primary true in the primary passes of time budgeted rendering - without reflection and refraction
+     * @param color the accumulator to add the color in that point into
+     * @param stats the counters of the rendering thread
      */
-    private Color calcColor(GeoPoint gp, Ray ray) {
-        return calcColor(gp, ray, MAX_CALC_COLOR_LEVEL, 1.0).add(
-                _scene.getAmbientLight().getIntensity());
+    private void calcColor(GeoPoint gp, Ray ray, boolean primary, ColorAccumulator color, RenderStats stats) {
+        calcColor(gp, ray, primary ? PRIMARY_PASS_LEVEL : MAX_CALC_COLOR_LEVEL, 1, 1.0, 1.0, color, stats);
+        color.add(_ambient);
     }
 
     /**
-     * Calculates the color of a point on the object without the ambient light
+     * Calculates the color of a point on the object without the ambient light, and adds it into the
+     * accumulator multiplied by a weight (the product of the reflection / refraction factors on the way to the point)
      *
      * @param intersection The point we need to calculate the color on
      * @param inRay The ray from the camera threw a pixel at view plane that we are calculating the color at
      * @param level Recursion level (for calculating the reflection and refraction)
+     * @param depth the depth of the point in the recursion, from 1 (for the statistics)
      * @param k dimming level
-     * @return The color without ambient light, in that point
+     * @param weight the factor to multiply the color in that point by before adding it
+     * @param color the accumulator to add the color without ambient light, in that point into
+     * @param stats the counters of the rendering thread
      */
-    private Color calcColor(GeoPoint intersection, Ray inRay, int level, double k) {
-        Color color = intersection.geometry.get_emission();
+    private void calcColor(GeoPoint intersection, Ray inRay, int level, int depth, double k, double weight,
+                           ColorAccumulator color, RenderStats stats) {
+        if (level == 1)
+            return;
+        if (depth > stats._maxDepth)
+            stats._maxDepth = depth;
+        Geometry geometry = intersection.geometry;
+        geometry.addEmission(color, weight);
         Vector v = intersection.point.subtract(_scene.getCamera().get_p0()).normalize();
-        Vector n = intersection.geometry.getNormal(intersection.point);
-        Material material = intersection.geometry.get_material();
+        Vector n = geometry.getNormal(intersection.point);
+        Material material = geometry.get_material();
         int nShininess = material.get_nShininess();
         double kd = material.get_kD();
         double ks = material.get_kS();
         for (LightSource lightSource : _scene.getLights()) {
             Vector l = lightSource.getL(intersection.point);
             if (n.dotProduct(l) * n.dotProduct(v) > 0) {
-                double ktr = transparency(lightSource, l, n, intersection);
+                double ktr = transparency(lightSource, l, n, intersection, stats);
                 if (ktr * k > MIN_CALC_COLOR_K) {
-                    Color lightIntensity = lightSource.getIntensity(intersection.point).scale(ktr);
-                    color = color.add(calcDiffusive(kd, l, n, lightIntensity),
-                            calcSpecular(ks, l, n, v, nShininess, lightIntensity));
+                    double factor = calcDiffusive(kd, l, n) + calcSpecular(ks, l, n, v, nShininess);
+                    lightSource.addIntensity(intersection.point, color, weight * ktr * factor);
                 }
             }
         }
-        if (level == 1)
-            return Color.BLACK;
-        double kr = intersection.geometry.get_material().get_kR();
+        // the colors of the next level are not calculated - no need for the reflected and refracted rays
+        if (level == 2)
+            return;
+        double kr = material.get_kR();
         double kkr = k * kr;
         if (kkr > MIN_CALC_COLOR_K) {
             Ray reflectedRay = constructReflectedRay(n, intersection.point, inRay);
+            ++stats._reflectionRays;
             GeoPoint reflectedPoint = findClosestIntersection(reflectedRay);
             if (reflectedPoint != null)
-                color = color.add(calcColor(reflectedPoint, reflectedRay,
-                        level-1, kkr).scale(kr));
+                calcColor(reflectedPoint, reflectedRay, level - 1, depth + 1, kkr, weight * kr, color, stats);
         }
-        double kt = intersection.geometry.get_material().get_kT();
+        else if (kr > 0)
+            ++stats._kTerminations;
+        double kt = material.get_kT();
         double kkt = k * kt;
         if (kkt > MIN_CALC_COLOR_K) {
             Ray refractedRay = constructRefractedRay(n, intersection.point, inRay) ;
+            ++stats._refractionRays;
             GeoPoint refractedPoint = findClosestIntersection(refractedRay);
             if (refractedPoint != null)
-                color = color.add(calcColor(refractedPoint, refractedRay,
-                        level-1, kkt).scale(kt));
+                calcColor(refractedPoint, refractedRay, level - 1, depth + 1, kkt, weight * kt, color, stats);
         }
-        return color;
-    }
-
-    /**
-     * Checks if a point is in shadow from the light or not
-     *
-     * @param light the light source we are checking if the point is blocked from
-     * @param l a vector from the light to the point
-     * @param n normal vector to the geometry in the specific point
-     * @param gp the point (GeoPoint - the point and it's geometry)
-     * @return false if the point is blocked from the light, true if not
-     */
-    private boolean unshaded(LightSource light, Vector l, Vector n, GeoPoint gp) {
-        Vector lightDirection = l.scale(-1); // from point to light source
-        Ray lightRay = new Ray(gp.point, lightDirection, n);
-        List<GeoPoint> intersections = _scene.getGeometries().findIntersections(lightRay);
-        if (intersections == null)
-            return true;
-        double lightDistance = light.getDistance(gp.point);
-        for (GeoPoint thisGp : intersections) {
-            if (thisGp.geometry.get_material().get_kT() == 0 && alignZero(thisGp.point.distance(gp.point) - lightDistance) <= 0)
-                return false;
-        }
-        return true;
+        else if (kt > 0)
+            ++stats._kTerminations;
     }
 
     /**
@@ -307,25 +930,17 @@ public class Render {
      * @param l a vector from the light to the point
      * @param n normal vector to the geometry in the specific point
      * @param geopoint the point (GeoPoint - the point and it's geometry)
+     * @param stats the counters of the rendering thread
      * @return a double that represents how much shadow should be.
      * (how much should we multiply the color, when 0 if completely shadow, 1 if no shadow, and in between for a partly shadow (according to level of shadow))
      */
-    private double transparency(LightSource ls, Vector l, Vector n, GeoPoint geopoint) {
+    private double transparency(LightSource ls, Vector l, Vector n, GeoPoint geopoint, RenderStats stats) {
         Vector lightDirection = l.scale(-1); // from point to light source
         Ray lightRay = new Ray(geopoint.point, lightDirection, n);
-        List<GeoPoint> intersections = _scene.getGeometries().findIntersections(lightRay);
-        if (intersections == null)
-            return 1.0;
-        double lightDistance = ls.getDistance(geopoint.point);
-        double ktr = 1.0;
-        for (GeoPoint gp : intersections) {
-            if (alignZero(gp.point.distance(geopoint.point) - lightDistance) <= 0) {
-                ktr *= gp.geometry.get_material().get_kT();
-                if (ktr < MIN_CALC_COLOR_K)
-                    return 0.0;
-            }
-        }
-        return ktr;
+        ++stats._shadowRays;
+        double lightDistance = ls.getDistance(lightRay.get_startPoint());
+        // stops as soon as the blockers found make the transparency level lower than MIN_CALC_COLOR_K
+        return _scene.getGeometries().findTransparency(lightRay, lightDistance, MIN_CALC_COLOR_K);
     }
 
     /**
@@ -354,74 +969,133 @@ public class Render {
     }
 
     /**
-     * Calculates the diffusive component for the light on the element in a specific point
+     * Calculates the diffusive factor for the light on the element in a specific point
      *
      * @param kd diffusion Level of the material
      * @param l a direction vector from the light to the point
      * @param n a normal to the element
-     * @param lightIntensity the color that the light makes on the element on a specific point
-     * @return The diffusive component for the light on the element in the specific point
+     * @return The diffusive factor to scale the light intensity by on the element in the specific point
      */
-    private Color calcDiffusive(double kd, Vector l, Vector n, Color lightIntensity) {
-        return lightIntensity.scale(kd * Math.abs(l.dotProduct(n)));
+    private double calcDiffusive(double kd, Vector l, Vector n) {
+        return kd * Math.abs(l.dotProduct(n));
     }
 
     /**
-     * Calculates the specular component for the light on the element in a specific point
+     * Calculates the specular factor for the light on the element in a specific point
      *
      * @param ks Specular Level of the material
      * @param l a direction vector from the light to the point
      * @param n a normal to the element
      * @param v a direction vector from the camera to the point
      * @param nShininess Shininess Level of the material
-     * @param lightIntensity the color that the light makes on the element on a specific point
-     * @return The specular component for the light on the element in a specific point
+     * @return The specular factor to scale the light intensity by on the element in a specific point
      */
-    private Color calcSpecular(double ks, Vector l, Vector n, Vector v, int nShininess, Color lightIntensity) {
+    private double calcSpecular(double ks, Vector l, Vector n, Vector v, int nShininess) {
         Vector r;
         try {
             r = l.subtract(n.scale(2 * (l.dotProduct(n))));
         }
         catch (IllegalArgumentException e) {
-            return Color.BLACK;
+            return 0;
         }
-        return lightIntensity.scale(ks * Math.pow(Math.max(0, -v.dotProduct(r)), nShininess));
+        return ks * Math.pow(Math.max(0, -v.dotProduct(r)), nShininess);
+    }
+
+    /**
+     * Finds the closest intersection (that the given ray has with any geometry in the scene)
+     * to the starting point of the ray
+     *
+     * @param ray the given ray in the scene
+     * @return The closest intersection to the ray's starting point
+     */
+    private GeoPoint findClosestIntersection(Ray ray) {
+        return _scene.getGeometries().findClosestIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Returns the counters of the last rendering (rays of each kind and the times of the phases)
+     *
+     * @return the statistics of the last renderImage call
+     */
+    public RenderStats getStats() {
+        return _stats;
     }
 
     /**
-     * Get the closest point to the camera from a list of intersections
+     * Sets counting of the BVH nodes and the intersection tests while rendering on or off.
+     * Counting costs some rendering time, so it's off by default
      *
-     * @param points the list of intersections
-     * @return the closest point
+     * @param intersectionStats true for counting, otherwise false
+     * @return the Render object itself for chaining calls
      */
-    private GeoPoint getClosestPoint(List<GeoPoint> points) {
-        if (points == null)
-            return null;
-        GeoPoint closest = points.get(0);
-        for (GeoPoint thisPoint : points) {
-            if (thisPoint.point.distance(_scene.getCamera().get_p0()) < closest.point.distance(_scene.getCamera().get_p0()))
-                closest = thisPoint;
+    public Render setIntersectionStats(boolean intersectionStats) {
+        _intersectionStats = intersectionStats;
+        return this;
+    }
+
+    /**
+     * Sets what is measured for the cost heatmap of the next renderings (see PixelCost).
+     * When it's not NONE, writeToImage writes also the heatmap image
+     *
+     * @param pixelCost what to measure, NONE for no heatmap
+     * @return the Render object itself for chaining calls
+     */
+    public Render setPixelCost(PixelCost pixelCost) {
+        _pixelCost = pixelCost;
+        return this;
+    }
+
+    /**
+     * Returns the cost of each pixel in the last rendering (see setPixelCost)
+     *
+     * @return the costs row after row, or null if the last rendering had no cost heatmap
+     */
+    public long[] getPixelCosts() {
+        return _pixelCosts;
+    }
+
+    /**
+     * Registers the statistics of this Render in the platform MBean server (for JConsole, VisualVM etc.).
+     * The MBean shows always the statistics of the last rendering
+     *
+     * @return the name of the MBean
+     * @throws IllegalStateException if the MBean can't be registered
+     */
+    public ObjectName registerStatsMBean() {
+        if (_statsMBean != null)
+            return _statsMBean;
+        // the proxy reads the current statistics object on each call, so the MBean follows the renderings
+        RenderStatsMXBean stats = (RenderStatsMXBean) Proxy.newProxyInstance(RenderStatsMXBean.class.getClassLoader(),
+                new Class<?>[] { RenderStatsMXBean.class }, (proxy, method, args) -> method.invoke(_stats, args));
+        try {
+            ObjectName name = new ObjectName("renderer:type=RenderStats,id=" + System.identityHashCode(this));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                    new StandardMBean(stats, RenderStatsMXBean.class, true), name);
+            _statsMBean = name;
+            return name;
+        }
+        catch (JMException e) {
+            throw new IllegalStateException("Can't register the render statistics MBean", e);
         }
-        return closest;
     }
 
     /**
-     * Finds the closest intersection (that the given ray has with any geometry in the scene)
-     * to the starting point of the ray
+     * Removes the statistics MBean of this Render from the platform MBean server (if it was registered)
      *
-     * @param ray the given ray in the scene
-     * @return The closest intersection to the ray's starting point
+     * @throws IllegalStateException if the MBean can't be removed
      */
-    private GeoPoint findClosestIntersection(Ray ray) {
-        List<GeoPoint> intersections = _scene.getGeometries().findIntersections(ray);
-        if (intersections == null)
-            return null;
-        GeoPoint closest = intersections.get(0);
-        for (GeoPoint intersection : intersections) {
-            if (intersection.point.distance(ray.get_startPoint()) < closest.point.distance(ray.get_startPoint()))
-                closest = intersection;
+    public void unregisterStatsMBean() {
+        if (_statsMBean == null)
+            return;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(_statsMBean))
+                server.unregisterMBean(_statsMBean);
+            _statsMBean = null;
+        }
+        catch (JMException e) {
+            throw new IllegalStateException("Can't remove the render statistics MBean", e);
         }
-        return closest;
     }
 
     /**
@@ -439,10 +1113,14 @@ public class Render {
     }
 
     /**
-     * Creates the image as a JPG file
+     * Creates the image as a JPG file, and the cost heatmap image next to it if it was measured
      */
     public void writeToImage() {
+        long start = System.nanoTime();
         _imageWriter.writeToImage();
+        _stats._encodeNanos = System.nanoTime() - start;
+        if (_pixelCosts != null)
+            _imageWriter.writeHeatmap(_pixelCosts);
     }
 
     /**
@@ -487,9 +1165,87 @@ public class Render {
         this._numOfRays = _numOfRays;
     }
 
+    /**
+     * _depthFieldTolerance getter
+     *
+     * @return the biggest change of the average color after a batch of rays that stops the depth of field
+     * calculation of a pixel (0 if adaptive depth of field is off)
+     */
+    public double get_depthFieldTolerance() {
+        return _depthFieldTolerance;
+    }
+
+    /**
+     * Set adaptive depth of field - the aperture rays of a pixel are traced in batches, and the tracing stops
+     * when a batch changes the average color by no more than the tolerance (in any component).
+     * The number of rays (_numOfRays) is the maximum
+     *
+     * @param depthFieldTolerance the tolerance (components are from 0 to 255). 0 - always trace all the rays
+     * @return the Render object itself
+     * @throws IllegalArgumentException if depthFieldTolerance is negative
+     */
+    public Render setDepthFieldTolerance(double depthFieldTolerance) {
+        if (depthFieldTolerance < 0)
+            throw new IllegalArgumentException("Depth of field tolerance cannot be negative");
+        _depthFieldTolerance = depthFieldTolerance;
+        return this;
+    }
+
+    /**
+     * Is adaptive super sampling feature on or off (_adaptiveSuperSampling Getter)
+     *
+     * @return _adaptiveSuperSampling value. True if on, otherwise false
+     */
+    public boolean isAdaptiveSuperSamplingOn() {
+        return _adaptiveSuperSampling;
+    }
+
+    /**
+     * Set adaptive super sampling (anti aliasing) feature on or off.
+     * When it's on, each pixel is sampled in its corners and middle, and divided again only where the colors
+     * are too different
+     *
+     * @param adaptiveSuperSampling true if you want to set adaptive super sampling feature on, otherwise false
+     * @return the Render object itself
+     */
+    public Render setAdaptiveSuperSampling(boolean adaptiveSuperSampling) {
+        _adaptiveSuperSampling = adaptiveSuperSampling;
+        return this;
+    }
+
+    /**
+     * Set the maximal number of times a pixel is divided in adaptive super sampling
+     *
+     * @param maxSamplingDepth the maximal depth of dividing (0 - samples only the corners and middle of the pixel)
+     * @return the Render object itself
+     * @throws IllegalArgumentException if maxSamplingDepth is negative
+     */
+    public Render setMaxSamplingDepth(int maxSamplingDepth) {
+        if (maxSamplingDepth < 0)
+            throw new IllegalArgumentException("Sampling depth cannot be negative");
+        _maxSamplingDepth = maxSamplingDepth;
+        return this;
+    }
+
+    /**
+     * Set the color difference threshold of adaptive super sampling - a square is divided only if the color of any
+     * of its samples is different from their average by more than the threshold (in any component)
+     *
+     * @param samplingThreshold the threshold (components are from 0 to 255)
+     * @return the Render object itself
+     * @throws IllegalArgumentException if samplingThreshold is negative
+     */
+    public Render setSamplingThreshold(double samplingThreshold) {
+        if (samplingThreshold < 0)
+            throw new IllegalArgumentException("Sampling threshold cannot be negative");
+        _samplingThreshold = samplingThreshold;
+        return this;
+    }
+
     /**
      * Set multithreading <br>
-     * - if the parameter is 0 - number of cores less 2 is taken
+     * - if the parameter is 0 - number of cores less 2 is taken <br>
+     * The render executor decides how the threads are used (see setRenderExecutor)
      *
      * @param threads number of threads
      * @return the Render object itself
@@ -509,6 +1265,168 @@ public class Render {
         return this;
     }
 
+    /**
+     * _renderExecutor Getter
+     *
+     * @return where the rendering threads run and how many
+     */
+    public RenderExecutor get_renderExecutor() {
+        return _renderExecutor;
+    }
+
+    /**
+     * Set where the rendering threads run and how many (for renderImage and renderAsync()) - e.g. a new thread
+     * for each of the threads set by setMultithreading (ThreadRenderExecutor, the default), a shared thread pool
+     * (PoolRenderExecutor) or a virtual thread for each tile (VirtualThreadRenderExecutor)
+     *
+     * @param renderExecutor the render executor
+     * @return the Render object itself
+     */
+    public Render setRenderExecutor(RenderExecutor renderExecutor) {
+        _renderExecutor = renderExecutor;
+        return this;
+    }
+
+    /**
+     * Is packet tracing on or off (_packetTracing Getter)
+     *
+     * @return true if packet tracing is on, otherwise false
+     */
+    public boolean isPacketTracingOn() {
+        return _packetTracing;
+    }
+
+    /**
+     * Set packet tracing on or off.
+     * When it's on, the camera rays of each 4x4 block of pixels find their closest intersections together
+     * (see RayPacket) - the rays traverse the BVH tree once for the whole block, and spheres and triangles test
+     * all of them in a loop. It's used for one camera ray per pixel - with depth of field or adaptive super
+     * sampling the pixels are calculated one by one
+     *
+     * @param packetTracing true if you want to set packet tracing on, otherwise false
+     * @return the Render object itself
+     */
+    public Render setPacketTracing(boolean packetTracing) {
+        _packetTracing = packetTracing;
+        return this;
+    }
+
+    /**
+     * Are the intersection kernels on or off
+     *
+     * @return true if the intersection kernels are on, otherwise false
+     */
+    public boolean isIntersectionKernelsOn() {
+        return _scene.getGeometries().isIntersectionKernelsOn();
+    }
+
+    /**
+     * Set the intersection kernels on or off.
+     * When they are on (with the BVH improvement), a ray is tested against all the spheres and triangles of a BVH
+     * leaf at once, on arrays of their coordinates (see geometries.IntersectionKernels). Copying the primitives into
+     * the arrays is counted in the BVH building time
+     *
+     * @param intersectionKernels true if you want to set the intersection kernels on, otherwise false
+     * @return the Render object itself
+     */
+    public Render setIntersectionKernels(boolean intersectionKernels) {
+        long start = System.nanoTime();
+        _scene.getGeometries().set_intersectionKernels(intersectionKernels);
+        _bvhBuildNanos += System.nanoTime() - start;
+        return this;
+    }
+
+    /**
+     * Is progressive rendering on or off (_progressive Getter)
+     *
+     * @return true if progressive rendering is on, otherwise false
+     */
+    public boolean isProgressiveOn() {
+        return _progressive;
+    }
+
+    /**
+     * Set progressive rendering on or off.
+     * When it's on, the image is rendered in passes - first every 8th pixel of every 8th row, each filling
+     * its 8x8 block, and then every 4th, 2nd and finally all the pixels. After each pass the whole image has
+     * a (coarser) color, for a preview (see setPreview and setRenderListener)
+     *
+     * @param progressive true if you want to set progressive rendering on, otherwise false
+     * @return the Render object itself
+     */
+    public Render setProgressive(boolean progressive) {
+        _progressive = progressive;
+        return this;
+    }
+
+    /**
+     * Set writing a preview image after each pass of progressive rendering (except the final one) on or off.
+     * The preview is written by ImageWriter.writePreview
+     *
+     * @param preview true if you want the preview images, otherwise false
+     * @return the Render object itself
+     */
+    public Render setPreview(boolean preview) {
+        _preview = preview;
+        return this;
+    }
+
+    /**
+     * _deadline Getter
+     *
+     * @return the deadline for time budgeted rendering (in milliseconds like System.currentTimeMillis),
+     * 0 if there is no deadline
+     */
+    public long get_deadline() {
+        return _deadline;
+    }
+
+    /**
+     * Set time budgeted rendering - renderImage returns by the deadline with the best image it had time for.
+     * The image is rendered first progressively (like in setProgressive) with one ray per pixel and only the
+     * lights and shadows of the points the rays hit. Then the pixels are calculated again tile after tile with
+     * all the features on (reflections, refractions, depth of field, adaptive super sampling).
+     * When the deadline passes the threads stop - the pixels that were not refined keep their primary colors.
+     * The first (coarse) primary pass is always finished, even after the deadline, so the image is never left
+     * with black blocks - the rendering may take a bit longer than the deadline for it.
+     * The listener is called also after the refinement pass
+     *
+     * @param deadline the deadline in milliseconds (like System.currentTimeMillis), 0 for no deadline
+     * @return the Render object itself
+     * @throws IllegalArgumentException if the deadline is negative
+     */
+    public Render setDeadline(long deadline) {
+        if (deadline < 0)
+            throw new IllegalArgumentException("Deadline can't be negative");
+        _deadline = deadline;
+        return this;
+    }
+
+    /**
+     * Set the listener that is called after each pass of rendering (one pass if progressive rendering is off)
+     *
+     * @param listener the listener, or null for no listener
+     * @return the Render object itself
+     */
+    public Render setRenderListener(RenderListener listener) {
+        _listener = listener;
+        return this;
+    }
+
+    /**
+     * Set the tile size - the threads calculate the image in square tiles of tileSize x tileSize pixels
+     *
+     * @param tileSize number of pixel rows and columns in a tile
+     * @return the Render object itself
+     * @throws IllegalArgumentException if tileSize is less than 1
+     */
+    public Render setTileSize(int tileSize) {
+        if (tileSize < 1)
+            throw new IllegalArgumentException("Tile size must be 1 or higher");
+        _tileSize = tileSize;
+        return this;
+    }
+
     /**
      * Set debug printing on
      *
@@ -534,6 +1452,8 @@ public class Render {
      * @param _improvementBVH true if you want to set BVH ray tracing improvement on, otherwise false.
      */
     public void set_improvementBVH(boolean _improvementBVH) {
+        long start = System.nanoTime();
         _scene.set_improvementBVH(_improvementBVH);
+        _bvhBuildNanos += System.nanoTime() - start;
     }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package renderer;
+
+import java.util.concurrent.Executor;
+
+/**
+ * RenderExecutor interface represents the way the rendering workers are scheduled - where they run and how many
+ * of them render each pass of the image. The workers take the tiles of the image one by one until there are no
+ * more tiles (see Render.setRenderExecutor)
+ *
+ * @author Moriah and Shahar
+ */
+
+public interface RenderExecutor {
+    /**
+     * Returns the executor that runs the rendering workers
+     *
+     * @return the executor
+     */
+    Executor getExecutor();
+
+    /**
+     * Calculates the number of workers for rendering a pass of the image
+     *
+     * @param threads the number of threads set in the Render (see Render.setMultithreading)
+     * @param tiles the number of tiles in the image
+     * @return the number of workers, at least 1
+     */
+    int getWorkers(int threads, int tiles);
+}
@@ -0,0 +1,19 @@
+package renderer;
+
+/**
+ * RenderListener interface is for following the passes of rendering an image (see Render.setProgressive)
+ *
+ * @author Moriah and Shahar
+ */
+
+@FunctionalInterface
+public interface RenderListener {
+    /**
+     * Called after each pass of rendering, when all the threads of the pass finished
+     *
+     * @param pass the number of the pass, from 1
+     * @param step the distance between the pixels calculated in the pass (1 - the final pass)
+     * @param imageWriter the image, with all the pixels filled by the passes so far
+     */
+    void passDone(int pass, int step, ImageWriter imageWriter);
+}
@@ -0,0 +1,250 @@
+package renderer;
+
+import geometries.IntersectionStats;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * RenderStats class holds the counters of one rendering - how many rays of each kind were traced and how long
+ * it took.<br/>
+ * Each rendering thread counts into its own RenderStats object (without any synchronization), and the objects
+ * are added together when the threads finish.<br/>
+ * The times of the phases are kept too - building the scene (from its creation until the Render is made),
+ * building the BVH, rendering and writing the image. The BVH nodes and the intersection tests are counted only
+ * when intersection statistics are on (Render.setIntersectionStats)
+ *
+ * @author Moriah and Shahar
+ */
+
+public class RenderStats implements RenderStatsMXBean {
+    /**
+     * Number of rays from the camera (including the rays from the aperture and the super sampling rays)
+     */
+    long _primaryRays = 0;
+    /**
+     * Number of reflected rays
+     */
+    long _reflectionRays = 0;
+    /**
+     * Number of refracted rays
+     */
+    long _refractionRays = 0;
+    /**
+     * Number of rays from points to light sources
+     */
+    long _shadowRays = 0;
+    /**
+     * The deepest recursion level of reflection / refraction that was reached (1 - only the camera rays hit)
+     */
+    int _maxDepth = 0;
+    /**
+     * Number of reflections / refractions that were not traced because their dimming level was lower than
+     * MIN_CALC_COLOR_K
+     */
+    long _kTerminations = 0;
+    /**
+     * Number of BVH tree nodes visited
+     */
+    long _nodesVisited = 0;
+    /**
+     * Number of intersection tests of each kind of geometry
+     */
+    final Map<String, Long> _primitiveTests = new HashMap<>();
+    /**
+     * The times of the phases in nanoseconds
+     */
+    long _sceneBuildNanos = 0;
+    long _bvhBuildNanos = 0;
+    long _renderNanos = 0;
+    long _encodeNanos = 0;
+
+    /**
+     * Adds the counters of another RenderStats object (of another thread) to this object
+     *
+     * @param other the other RenderStats object
+     */
+    void add(RenderStats other) {
+        _primaryRays += other._primaryRays;
+        _reflectionRays += other._reflectionRays;
+        _refractionRays += other._refractionRays;
+        _shadowRays += other._shadowRays;
+        _maxDepth = Math.max(_maxDepth, other._maxDepth);
+        _kTerminations += other._kTerminations;
+        _nodesVisited += other._nodesVisited;
+        for (Map.Entry<String, Long> entry : other._primitiveTests.entrySet())
+            _primitiveTests.merge(entry.getKey(), entry.getValue(), Long::sum);
+    }
+
+    /**
+     * Adds the intersection counters of a thread to this object
+     *
+     * @param intersections the intersection counters
+     */
+    void add(IntersectionStats intersections) {
+        _nodesVisited += intersections.getNodesVisited();
+        for (Map.Entry<String, Long> entry : intersections.getPrimitiveTests().entrySet())
+            _primitiveTests.merge(entry.getKey(), entry.getValue(), Long::sum);
+    }
+
+    /**
+     * _primaryRays getter
+     *
+     * @return number of rays from the camera
+     */
+    @Override
+    public long getPrimaryRays() {
+        return _primaryRays;
+    }
+
+    /**
+     * _reflectionRays getter
+     *
+     * @return number of reflected rays
+     */
+    @Override
+    public long getReflectionRays() {
+        return _reflectionRays;
+    }
+
+    /**
+     * _refractionRays getter
+     *
+     * @return number of refracted rays
+     */
+    @Override
+    public long getRefractionRays() {
+        return _refractionRays;
+    }
+
+    /**
+     * Secondary rays getter
+     *
+     * @return number of reflected and refracted rays
+     */
+    public long getSecondaryRays() {
+        return _reflectionRays + _refractionRays;
+    }
+
+    /**
+     * _shadowRays getter
+     *
+     * @return number of rays from points to light sources
+     */
+    @Override
+    public long getShadowRays() {
+        return _shadowRays;
+    }
+
+    /**
+     * Total rays getter
+     *
+     * @return number of all the rays
+     */
+    @Override
+    public long getTotalRays() {
+        return _primaryRays + _reflectionRays + _refractionRays + _shadowRays;
+    }
+
+    /**
+     * _renderNanos getter
+     *
+     * @return the rendering time in nanoseconds
+     */
+    @Override
+    public long getRenderNanos() {
+        return _renderNanos;
+    }
+
+    /**
+     * _maxDepth getter
+     *
+     * @return the deepest recursion level of reflection / refraction that was reached
+     */
+    @Override
+    public int getMaxDepth() {
+        return _maxDepth;
+    }
+
+    /**
+     * _kTerminations getter
+     *
+     * @return number of reflections / refractions that were not traced because their dimming level was too low
+     */
+    @Override
+    public long getKTerminations() {
+        return _kTerminations;
+    }
+
+    /**
+     * _nodesVisited getter
+     *
+     * @return number of BVH tree nodes visited (if intersection statistics are on)
+     */
+    @Override
+    public long getNodesVisited() {
+        return _nodesVisited;
+    }
+
+    /**
+     * _primitiveTests getter
+     *
+     * @return a new map from the simple class name of the geometry to its number of intersection tests
+     * (if intersection statistics are on)
+     */
+    @Override
+    public Map<String, Long> getPrimitiveTests() {
+        return new HashMap<>(_primitiveTests);
+    }
+
+    /**
+     * _sceneBuildNanos getter
+     *
+     * @return the scene building time in nanoseconds (from the scene creation until the last geometries were added,
+     * see Scene.getBuildNanos)
+     */
+    @Override
+    public long getSceneBuildNanos() {
+        return _sceneBuildNanos;
+    }
+
+    /**
+     * _bvhBuildNanos getter
+     *
+     * @return the BVH building time in nanoseconds
+     */
+    @Override
+    public long getBvhBuildNanos() {
+        return _bvhBuildNanos;
+    }
+
+    /**
+     * _encodeNanos getter
+     *
+     * @return the image writing time in nanoseconds (0 if the image was not written yet)
+     */
+    @Override
+    public long getEncodeNanos() {
+        return _encodeNanos;
+    }
+
+    /**
+     * Calculates how many rays of some kind were traced in a second
+     *
+     * @param rays the number of rays
+     * @return rays per second (0 if no rendering time)
+     */
+    public double perSecond(long rays) {
+        return _renderNanos == 0 ? 0 : rays * 1e9 / _renderNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("scene %.3fs, bvh %.3fs, render %.3fs, encode %.3fs, "
+                        + "primary %d (%.0f/s), secondary %d (%.0f/s), shadow %d (%.0f/s), "
+                        + "max depth %d, k terminations %d, bvh nodes %d, tests %s",
+                _sceneBuildNanos / 1e9, _bvhBuildNanos / 1e9, _renderNanos / 1e9, _encodeNanos / 1e9,
+                _primaryRays, perSecond(_primaryRays), getSecondaryRays(), perSecond(getSecondaryRays()),
+                _shadowRays, perSecond(_shadowRays), _maxDepth, _kTerminations, _nodesVisited, _primitiveTests);
+    }
+}
@@ -0,0 +1,76 @@
+package renderer;
+
+import java.util.Map;
+
+/**
+ * RenderStatsMXBean interface is the JMX view of the statistics of a rendering (see RenderStats)
+ *
+ * @author Moriah and Shahar
+ */
+
+public interface RenderStatsMXBean {
+    /**
+     * @return number of rays from the camera
+     */
+    long getPrimaryRays();
+
+    /**
+     * @return number of reflected rays
+     */
+    long getReflectionRays();
+
+    /**
+     * @return number of refracted rays
+     */
+    long getRefractionRays();
+
+    /**
+     * @return number of rays from points to light sources
+     */
+    long getShadowRays();
+
+    /**
+     * @return number of all the rays
+     */
+    long getTotalRays();
+
+    /**
+     * @return the deepest recursion level of reflection / refraction that was reached
+     */
+    int getMaxDepth();
+
+    /**
+     * @return number of reflections / refractions that were not traced because their dimming level was too low
+     */
+    long getKTerminations();
+
+    /**
+     * @return number of BVH tree nodes visited (if intersection statistics are on)
+     */
+    long getNodesVisited();
+
+    /**
+     * @return number of intersection tests of each kind of geometry (if intersection statistics are on)
+     */
+    Map<String, Long> getPrimitiveTests();
+
+    /**
+     * @return the scene building time in nanoseconds
+     */
+    long getSceneBuildNanos();
+
+    /**
+     * @return the BVH building time in nanoseconds
+     */
+    long getBvhBuildNanos();
+
+    /**
+     * @return the rendering time in nanoseconds
+     */
+    long getRenderNanos();
+
+    /**
+     * @return the image writing time in nanoseconds
+     */
+    long getEncodeNanos();
+}
@@ -0,0 +1,22 @@
+package renderer;
+
+import java.util.concurrent.Executor;
+
+/**
+ * ThreadRenderExecutor class runs each rendering worker on a new platform thread, with the number of threads
+ * set in the Render (see Render.setMultithreading). It's the default RenderExecutor of Render
+ *
+ * @author Moriah and Shahar
+ */
+
+public class ThreadRenderExecutor implements RenderExecutor {
+    @Override
+    public Executor getExecutor() {
+        return task -> new Thread(task).start();
+    }
+
+    @Override
+    public int getWorkers(int threads, int tiles) {
+        return threads;
+    }
+}
@@ -0,0 +1,55 @@
+package renderer;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * VirtualThreadRenderExecutor class runs a rendering worker for each tile of the image, each on a new virtual
+ * thread (so the JVM schedules the tiles of all the renderings on its carrier threads).<br/>
+ * Virtual threads exist from Java 21, so they are found by reflection - on older Java versions the workers run
+ * on the common ForkJoinPool with its parallelism instead (see isVirtual)
+ *
+ * @author Moriah and Shahar
+ */
+
+public class VirtualThreadRenderExecutor implements RenderExecutor {
+    /**
+     * The executor of the virtual threads, or null if there are no virtual threads
+     */
+    private static final Executor VIRTUAL_THREADS = virtualThreads();
+
+    /**
+     * Finds the virtual thread per task executor (Executors.newVirtualThreadPerTaskExecutor)
+     *
+     * @return the executor, or null if there are no virtual threads in this Java version
+     */
+    private static Executor virtualThreads() {
+        try {
+            Method method = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) method.invoke(null);
+        }
+        catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Are the workers run on virtual threads
+     *
+     * @return true if there are virtual threads in this Java version, otherwise false (the common pool is used)
+     */
+    public boolean isVirtual() {
+        return VIRTUAL_THREADS != null;
+    }
+
+    @Override
+    public Executor getExecutor() {
+        return VIRTUAL_THREADS != null ? VIRTUAL_THREADS : ForkJoinPool.commonPool();
+    }
+
+    @Override
+    public int getWorkers(int threads, int tiles) {
+        return VIRTUAL_THREADS != null ? tiles : Math.min(ForkJoinPool.commonPool().getParallelism(), tiles);
+    }
+}
@@ -30,6 +30,10 @@ public class Scene {
     double _distance;
     // All the light sources in the scene
     List<LightSource> _lights;
+    // The time the scene was created and the time the last geometries were added (System.nanoTime),
+    // for measuring the scene building time
+    final long _creationTime = System.nanoTime();
+    long _lastAddTime = _creationTime;
 
     /**
      * Scene constructor. Sets the name of the scene with a given name, and resets the geometries to an empty list
@@ -43,6 +47,25 @@ public class Scene {
         this._lights = new LinkedList<LightSource>();
     }
 
+    /**
+     * _creationTime Getter
+     *
+     * @return The time the scene was created (by System.nanoTime)
+     */
+    public long getCreationTime() {
+        return _creationTime;
+    }
+
+    /**
+     * Returns the scene building time - from the scene creation until the last geometries were added
+     * (including making the geometries that were added)
+     *
+     * @return the scene building time in nanoseconds, 0 if no geometries were added
+     */
+    public long getBuildNanos() {
+        return _lastAddTime - _creationTime;
+    }
+
     /**
      * _name Getter
      *
@@ -149,6 +172,7 @@ public class Scene {
      */
     public void addGeometries(Intersectable... geometries) {
         this._geometries.add(geometries);
+        _lastAddTime = System.nanoTime();
     }
 
     /**
@@ -0,0 +1,140 @@
+package geometries;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+import static jdk.incubator.vector.VectorOperators.GE;
+import static jdk.incubator.vector.VectorOperators.LE;
+import static jdk.incubator.vector.VectorOperators.LT;
+import static jdk.incubator.vector.VectorOperators.SQRT;
+
+/**
+ * VectorIntersectionLoops class is the loops of the intersection kernels with the Vector API - each step of a loop
+ * calculates the intersections of a ray with several primitives at once (as many as the doubles in the vector
+ * registers of the CPU). The arrays are padded with a whole vector (see IntersectionKernels.PADDING), so the
+ * last step reads and writes past the end of the range without masks.<br/>
+ * The calculations are the same as Sphere.intersectionDistance and Triangle.intersectionDistance, operation by
+ * operation, so they find exactly the same distances - the conditions are masks that select the values.<br/>
+ * The class needs the jdk.incubator.vector module, so it is compiled separately from the other classes:
+ * javac --add-modules jdk.incubator.vector -cp (the classes) -d (the classes) vector/geometries/*.java
+ * and it is found by reflection (see IntersectionKernels.VECTOR_LOOPS) when the program runs with
+ * --add-modules jdk.incubator.vector
+ *
+ * @author Moriah and Shahar
+ */
+
+final class VectorIntersectionLoops implements IntersectionKernels.Loops {
+    /**
+     * The widest vectors of doubles on this CPU
+     */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    /**
+     * Numbers under this value are zero (like primitives.Util.alignZero)
+     */
+    private static final double EPSILON = IntersectionKernels.EPSILON;
+
+    @Override
+    public int width() {
+        return SPECIES.length();
+    }
+
+    @Override
+    public void distances(IntersectionKernels kernels, double ox, double oy, double oz,
+                          double dx, double dy, double dz, int first, int count, double[] distances) {
+        loop(kernels, ox, oy, oz, dx, dy, dz, false, 0, first, count, distances);
+    }
+
+    @Override
+    public void counts(IntersectionKernels kernels, double ox, double oy, double oz,
+                       double dx, double dy, double dz, double maxDistance, int first, int count, double[] counts) {
+        loop(kernels, ox, oy, oz, dx, dy, dz, true, maxDistance + EPSILON, first, count, counts);
+    }
+
+    /**
+     * The loop of distances and counts. All the calculations of a step are in this method - the JIT compiler
+     * keeps the vectors in registers only within a compiled method (and the methods it inlines), and a call
+     * with vector parameters that is not inlined makes vector objects
+     *
+     * @param kernels the arrays of the primitives
+     * @param ox ray start point x
+     * @param oy ray start point y
+     * @param oz ray start point z
+     * @param dx ray direction x
+     * @param dy ray direction y
+     * @param dz ray direction z
+     * @param counting true for the counts of the intersections up to the limit, false for the distances
+     * @param limit the distance that the counted intersections are closer than
+     * @param first the position of the first primitive of the range
+     * @param count the number of primitives in the range
+     * @param result the distances or the counts
+     */
+    private static void loop(IntersectionKernels kernels, double ox, double oy, double oz,
+                             double dx, double dy, double dz, boolean counting, double limit,
+                             int first, int count, double[] result) {
+        DoubleVector vox = DoubleVector.broadcast(SPECIES, ox);
+        DoubleVector voy = DoubleVector.broadcast(SPECIES, oy);
+        DoubleVector voz = DoubleVector.broadcast(SPECIES, oz);
+        DoubleVector vdx = DoubleVector.broadcast(SPECIES, dx);
+        DoubleVector vdy = DoubleVector.broadcast(SPECIES, dy);
+        DoubleVector vdz = DoubleVector.broadcast(SPECIES, dz);
+        DoubleVector zero = DoubleVector.zero(SPECIES);
+        DoubleVector one = DoubleVector.broadcast(SPECIES, 1.0);
+        DoubleVector infinity = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+        for (int k = 0; k < count; k += SPECIES.length()) {
+            int i = first + k;
+            // sphere (Sphere.intersectionDistance): the projection of the center on the ray, and half of the chord
+            DoubleVector ux = DoubleVector.fromArray(SPECIES, kernels._cx, i).sub(vox);
+            DoubleVector uy = DoubleVector.fromArray(SPECIES, kernels._cy, i).sub(voy);
+            DoubleVector uz = DoubleVector.fromArray(SPECIES, kernels._cz, i).sub(voz);
+            DoubleVector tm = vdx.mul(ux).add(vdy.mul(uy)).add(vdz.mul(uz));
+            DoubleVector h = DoubleVector.fromArray(SPECIES, kernels._r2, i)
+                    .sub(ux.mul(ux).add(uy.mul(uy)).add(uz.mul(uz)).sub(tm.mul(tm)));
+            VectorMask<Double> miss = h.compare(LE, 0.0);
+            DoubleVector th = h.max(0.0).lanewise(SQRT);
+            DoubleVector near = tm.sub(th), far = tm.add(th);
+            DoubleVector ts = far.blend(infinity, far.compare(LT, EPSILON))
+                    .blend(near, near.compare(GE, EPSILON)).blend(infinity, miss);
+
+            // triangle (Triangle.intersectionDistance): Moller-Trumbore
+            DoubleVector e1x = DoubleVector.fromArray(SPECIES, kernels._e1x, i);
+            DoubleVector e1y = DoubleVector.fromArray(SPECIES, kernels._e1y, i);
+            DoubleVector e1z = DoubleVector.fromArray(SPECIES, kernels._e1z, i);
+            DoubleVector e2x = DoubleVector.fromArray(SPECIES, kernels._e2x, i);
+            DoubleVector e2y = DoubleVector.fromArray(SPECIES, kernels._e2y, i);
+            DoubleVector e2z = DoubleVector.fromArray(SPECIES, kernels._e2z, i);
+            DoubleVector px = vdy.mul(e2z).sub(vdz.mul(e2y));
+            DoubleVector py = vdz.mul(e2x).sub(vdx.mul(e2z));
+            DoubleVector pz = vdx.mul(e2y).sub(vdy.mul(e2x));
+            DoubleVector det = e1x.mul(px).add(e1y.mul(py)).add(e1z.mul(pz));
+            DoubleVector inverse = one.div(det);
+            DoubleVector sx = vox.sub(DoubleVector.fromArray(SPECIES, kernels._vx, i));
+            DoubleVector sy = voy.sub(DoubleVector.fromArray(SPECIES, kernels._vy, i));
+            DoubleVector sz = voz.sub(DoubleVector.fromArray(SPECIES, kernels._vz, i));
+            DoubleVector u = sx.mul(px).add(sy.mul(py)).add(sz.mul(pz)).mul(inverse);
+            DoubleVector qx = sy.mul(e1z).sub(sz.mul(e1y));
+            DoubleVector qy = sz.mul(e1x).sub(sx.mul(e1z));
+            DoubleVector qz = sx.mul(e1y).sub(sy.mul(e1x));
+            DoubleVector v = vdx.mul(qx).add(vdy.mul(qy)).add(vdz.mul(qz)).mul(inverse);
+            DoubleVector t = e2x.mul(qx).add(e2y.mul(qy)).add(e2z.mul(qz)).mul(inverse);
+            // on the edges is not a hit, and the comparisons of NaN (a parallel ray) are false
+            VectorMask<Double> hit = det.abs().compare(GE, EPSILON)
+                    .and(u.compare(GE, EPSILON)).and(u.sub(1.0).compare(LE, -EPSILON))
+                    .and(v.compare(GE, EPSILON)).and(u.add(v).sub(1.0).compare(LE, -EPSILON))
+                    .and(t.compare(GE, EPSILON));
+            DoubleVector tt = infinity.blend(t, hit);
+
+            if (!counting) {
+                ts.min(tt).intoArray(result, k);
+                continue;
+            }
+            // the second intersection of a sphere is the first one after the first intersection
+            DoubleVector ts2 = far.blend(infinity, far.sub(ts).compare(LT, EPSILON))
+                    .blend(near, near.sub(ts).compare(GE, EPSILON)).blend(infinity, miss);
+            zero.blend(one, ts.compare(LT, limit))
+                    .add(zero.blend(one, ts2.compare(LT, limit)))
+                    .add(zero.blend(one, tt.compare(LT, limit)))
+                    .intoArray(result, k);
+        }
+    }
+}